@@ -6,6 +6,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import net.wti.quest.api.LiveQuest;
 import net.wti.time.api.ModelDay;
 import net.wti.time.api.DayIndex;
+import net.wti.time.api.TimeComponentsCache;
 import net.wti.ui.quest.api.LiveQuestRowFactory;
 import net.wti.ui.quest.api.LiveQuestView;
 import net.wti.ui.view.api.BaseViewTable;
@@ -201,6 +202,7 @@ public class DefaultLiveQuestView extends BaseViewTable implements LiveQuestView
     protected Map<Integer, List<LiveQuest>> bucketByHour(final List<LiveQuest> quests, final ModelDay day) {
         final Map<Integer, List<LiveQuest>> result = new LinkedHashMap<>();
         final TimeZoneInfo zone = day.zone();
+        final TimeComponentsCache breakdowns = TimeComponentsCache.shared();
 
         for (final LiveQuest quest : quests) {
             final Long deadline = quest.getDeadlineMillis();
@@ -211,7 +213,8 @@ public class DefaultLiveQuestView extends BaseViewTable implements LiveQuestView
             if (!day.contains(millis)) {
                 continue;
             }
-            final TimeComponents components = X_Time.breakdown(millis, zone);
+            // only the hour is read, so one breakdown per distinct minute will do
+            final TimeComponents components = breakdowns.minute(millis, zone);
             int hourLocal = components.getHour();
             if (hourLocal < rolloverHour) {
                 /// Before rolloverHour, treat as previous calendar day; for this view we skip it.
@@ -242,7 +245,7 @@ public class DefaultLiveQuestView extends BaseViewTable implements LiveQuestView
         final DayIndex index = day.dayIndex();
         final int dayNum = index.getDayNum();
 
-        final TimeComponents now = X_Time.breakdown(X_Time.nowMillis(), day.zone());
+        final TimeComponents now = TimeComponentsCache.shared().minute((long) X_Time.nowMillis(), day.zone());
         final DayIndex todayIndex = day.dayIndex();
         final int todayNum = todayIndex.getDayNum();
 
@@ -3,12 +3,20 @@ package net.wti.tasks.event;
 ///
 /// RefreshFinishedEvent:
 ///
+/// `fromSnapshot` is true when the index was just filled from its on-disk snapshot
+/// (a warm start); a reconciling refresh from the model store will follow.
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 27/08/2025 @ 07:03
 public final class RefreshFinishedEvent extends TaskEvent {
     public final int total;
+    public final boolean fromSnapshot;
 
     public RefreshFinishedEvent(int total) {
+        this(total, false);
+    }
+
+    public RefreshFinishedEvent(int total, boolean fromSnapshot) {
         this.total = total;
+        this.fromSnapshot = fromSnapshot;
     }
 }
@@ -0,0 +1,10 @@
+package net.wti.tasks.event;
+
+import java.util.List;
+
+/// Listener of whole TaskEvent batches; one call per frame with everything posted since the last one.
+/// Repeated TaskUpdatedEvents for the same task have already been collapsed.
+@FunctionalInterface
+public interface TaskEventBatchListener {
+    void onEvents(List<TaskEvent> batch);
+}
@@ -2,15 +2,32 @@ package net.wti.tasks.event;
 
 import net.wti.ui.demo.api.ModelTask;
 
+import java.util.Collections;
+import java.util.Set;
+
 ///
 /// TaskUpdatedEvent:
 ///
+/// `changed` holds the names of the properties that changed, when known,
+/// so listeners can re-render just what moved. An empty set means "unknown":
+/// treat every property as changed (see `isChanged`).
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 27/08/2025 @ 07:03
 public final class TaskUpdatedEvent extends TaskEvent {
     public final ModelTask task;
+    public final Set<String> changed;
 
     public TaskUpdatedEvent(ModelTask task) {
+        this(task, Collections.emptySet());
+    }
+
+    public TaskUpdatedEvent(ModelTask task, Set<String> changed) {
         this.task = task;
+        this.changed = changed == null ? Collections.emptySet() : changed;
+    }
+
+    /// @return true if `property` (may have) changed
+    public boolean isChanged(String property) {
+        return changed.isEmpty() || changed.contains(property);
     }
 }
@@ -1,30 +1,84 @@
 package net.wti.tasks.index;
 
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.TimeComponentsCache;
+import net.wti.time.impl.DayIndexService;
 import xapi.time.api.TimeComponents;
+import xapi.time.api.TimeZoneInfo;
 
 ///
 /// DateKey:
 ///
+/// A local calendar date in a zone, stored as its DayIndex day number
+/// (day `n` is the calendar date `DayIndex.EPOCH_DATE + n`).
+///
+/// - `at(millis, zone, rolloverHour)` applies the rollover rule: instants before rolloverHour
+///   belong to the previous date (the same day TaskIndex buckets a deadline under).
+/// - `plusDays` / `minusDays` are plain integer arithmetic, so they never drift across DST.
+/// - `getTime()` is the TimeComponents of local midnight on this date (found through the
+///   zone's transition table, so DST-correct), taken from the shared TimeComponentsCache.
+///
+/// Equality and hashing use the day number only.
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 03/10/2025 @ 04:44
-public class DateKey {
+public class DateKey implements Comparable<DateKey> {
+
+    private final int dayNum;
+    private final TimeZoneInfo zone;
+    /// Computed on first use; TimeComponents are shared and immutable, so a racy fill is harmless.
+    private TimeComponents time;
+
+    private DateKey(int dayNum, TimeZoneInfo zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone cannot be null");
+        }
+        this.dayNum = dayNum;
+        this.zone = zone;
+    }
 
-    private final TimeComponents time;
-    private final int year;
-    private final int dayOfYear;
+    public static DateKey of(int dayNum, TimeZoneInfo zone) {
+        return new DateKey(dayNum, zone);
+    }
+
+    public static DateKey of(DayIndex day, TimeZoneInfo zone) {
+        return new DateKey(day.getDayNum(), zone);
+    }
 
-    private DateKey(TimeComponents time) {
-        this.time = time;
-        this.year = time.getYear();
-        this.dayOfYear = time.getDayOfYear();
+    /// The date `epochMillis` belongs to in `zone`, where times before rolloverHour count toward the previous date.
+    public static DateKey at(long epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        return new DateKey(DayIndexService.localDayNum(epochMillis, zone, rolloverHour), zone);
     }
 
+    /// The calendar date of `tc` (no rollover).
     public static DateKey from(TimeComponents tc) {
-        return new DateKey(tc);
+        return at((long) tc.getEpochMillis(), tc.getZone(), 0);
+    }
+
+    public int getDayNum() {
+        return dayNum;
     }
 
+    public DayIndex getDayIndex() {
+        return DayIndex.of(dayNum);
+    }
+
+    public TimeZoneInfo getZone() {
+        return zone;
+    }
+
+    /// @return the instant this date begins at rolloverHour (DST-correct).
+    public long startMillis(int rolloverHour) {
+        return DayIndexService.localDayStart(dayNum, zone, rolloverHour);
+    }
+
+    /// @return the TimeComponents of local midnight on this date.
     public TimeComponents getTime() {
-        return time;
+        TimeComponents tc = time;
+        if (tc == null) {
+            tc = TimeComponentsCache.shared().at(startMillis(0), zone);
+            time = tc;
+        }
+        return tc;
     }
 
     @Override
@@ -32,19 +86,22 @@ public class DateKey {
         if (this == o) return true;
         if (!(o instanceof DateKey)) return false;
         DateKey that = (DateKey) o;
-        return year == that.year && dayOfYear == that.dayOfYear;
+        return dayNum == that.dayNum;
     }
 
     @Override
     public int hashCode() {
-        int result = year;
-        result = 31 * result + dayOfYear;
-        return result;
+        return dayNum;
+    }
+
+    @Override
+    public int compareTo(DateKey o) {
+        return Integer.compare(dayNum, o.dayNum);
     }
 
     @Override
     public String toString() {
-        return "DateKey{" + year + ":" + dayOfYear + "}";
+        return "DateKey{" + dayNum + "}";
     }
 
     public DateKey minusDays(final int daysToSubtract) {
@@ -52,10 +109,6 @@ public class DateKey {
     }
 
     public DateKey plusDays(final int daysToAdd) {
-        long millisToAdd = daysToAdd * 24L * 60L * 60L * 1000L;
-        double newEpochMillis = time.getEpochMillis() + millisToAdd;
-        // TODO: get this from a cache
-        TimeComponents adjusted = new TimeComponents(newEpochMillis, time.getZone());
-        return DateKey.from(adjusted);
+        return daysToAdd == 0 ? this : new DateKey(dayNum + daysToAdd, zone);
     }
-}
\ No newline at end of file
+}
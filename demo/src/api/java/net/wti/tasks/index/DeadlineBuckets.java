@@ -0,0 +1,181 @@
+package net.wti.tasks.index;
+
+import net.wti.ui.demo.api.Schedule;
+import xapi.model.api.ModelKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+///
+/// DeadlineBuckets
+///
+/// Deadline index for TaskIndex: schedules grouped by int day number (see DayIndex),
+/// with each day's list kept sorted by deadline on write.
+///
+/// - days live in a skip-list map, so a window of days is one `subMap` walk
+/// - each schedule's current placement (day + deadline) is remembered per key,
+///   so moving or removing a schedule never scans other days
+/// - a day's list is an array list edited in place via binary search (no copy-on-write);
+///   readers receive copies
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 12:10
+final class DeadlineBuckets {
+
+    private static final class Placement {
+        final int day;
+        final long deadline;
+        final Schedule schedule;
+
+        private Placement(final int day, final long deadline, final Schedule schedule) {
+            this.day = day;
+            this.deadline = deadline;
+            this.schedule = schedule;
+        }
+    }
+
+    private static final class Day {
+        // parallel arrays would save a little more, but days hold a handful of tasks
+        private final ArrayList<Placement> sorted = new ArrayList<>(4);
+
+        private int find(final long deadline, final ModelKey key) {
+            int at = lowerBound(deadline);
+            for (; at < sorted.size(); at++) {
+                final Placement p = sorted.get(at);
+                if (p.deadline != deadline) {
+                    break;
+                }
+                if (p.schedule.getKey().equals(key)) {
+                    return at;
+                }
+            }
+            return -1;
+        }
+
+        private int lowerBound(final long deadline) {
+            int lo = 0, hi = sorted.size();
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (sorted.get(mid).deadline < deadline) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void insert(final Placement p) {
+            // after any equal deadlines, so ties keep insertion order
+            int at = lowerBound(p.deadline);
+            while (at < sorted.size() && sorted.get(at).deadline == p.deadline) {
+                at++;
+            }
+            sorted.add(at, p);
+        }
+
+        private List<Schedule> copy() {
+            final List<Schedule> out = new ArrayList<>(sorted.size());
+            for (Placement p : sorted) {
+                out.add(p.schedule);
+            }
+            return out;
+        }
+    }
+
+    private final ConcurrentSkipListMap<Integer, Day> days = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<ModelKey, Placement> placements = new ConcurrentHashMap<>();
+
+    /// Places a schedule at (day, deadline), moving it from any previous placement.
+    /// @return true if the index changed
+    synchronized boolean put(final int day, final long deadline, final Schedule schedule) {
+        final ModelKey key = schedule.getKey();
+        final Placement old = placements.get(key);
+        if (old != null) {
+            if (old.day == day && old.deadline == deadline && old.schedule == schedule) {
+                return false;
+            }
+            unlink(old, key);
+        }
+        final Placement p = new Placement(day, deadline, schedule);
+        placements.put(key, p);
+        days.computeIfAbsent(day, d -> new Day()).insert(p);
+        return true;
+    }
+
+    /// @return true if the schedule had a placement
+    synchronized boolean remove(final ModelKey key) {
+        final Placement old = placements.remove(key);
+        if (old == null) {
+            return false;
+        }
+        unlink(old, key);
+        return true;
+    }
+
+    synchronized void clear() {
+        days.clear();
+        placements.clear();
+    }
+
+    private void unlink(final Placement old, final ModelKey key) {
+        final Day day = days.get(old.day);
+        if (day == null) {
+            return;
+        }
+        final int at = day.find(old.deadline, key);
+        if (at != -1) {
+            day.sorted.remove(at);
+        }
+        if (day.sorted.isEmpty()) {
+            days.remove(old.day, day);
+        }
+    }
+
+    /// @return a copy of one day's schedules, sorted by deadline
+    synchronized List<Schedule> get(final int day) {
+        final Day d = days.get(day);
+        return d == null ? Collections.emptyList() : d.copy();
+    }
+
+    /// @return copies of every non-empty day in [fromDay, toDay], ascending by day
+    synchronized NavigableMap<Integer, List<Schedule>> range(final int fromDay, final int toDay) {
+        final NavigableMap<Integer, List<Schedule>> out = new TreeMap<>();
+        if (fromDay > toDay) {
+            return out;
+        }
+        for (Map.Entry<Integer, Day> e : days.subMap(fromDay, true, toDay, true).entrySet()) {
+            out.put(e.getKey(), e.getValue().copy());
+        }
+        return out;
+    }
+
+    /// @return the day a schedule is currently placed on, or null
+    Integer dayOf(final ModelKey key) {
+        final Placement p = placements.get(key);
+        return p == null ? null : p.day;
+    }
+
+    /// @return how many schedules each non-empty day holds, in day order
+    synchronized int[] daySizes() {
+        final int[] sizes = new int[days.size()];
+        int i = 0;
+        for (Day day : days.values()) {
+            sizes[i++] = day.sorted.size();
+        }
+        return sizes;
+    }
+
+    int getDayCount() {
+        return days.size();
+    }
+
+    int size() {
+        return placements.size();
+    }
+}
@@ -0,0 +1,318 @@
+package net.wti.tasks.index;
+
+
+import net.wti.tasks.metrics.TaskIndexMetrics;
+import xapi.fu.Do;
+import xapi.fu.In1;
+import xapi.model.X_Model;
+import xapi.model.api.Model;
+import xapi.model.api.ModelQuery;
+import xapi.model.api.ModelQueryResult;
+import xapi.string.X_String;
+import xapi.util.api.ErrorHandler;
+import xapi.util.api.SuccessHandler;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/// RefreshPager
+///
+/// Walks every page of a cursor query for a refresh, overlapping I/O with work:
+/// as soon as page `k` arrives, the query for page `k+1` is sent, and only then is
+/// page `k` applied. Pages that have arrived but are not yet applied wait in a small
+/// queue; once it holds `maxPagesInFlight` pages, no further page is requested until
+/// the consumer catches up (backpressure), so a slow consumer never buffers the store.
+///
+/// The page size adapts to how long applying a page takes: pages that take much
+/// longer than `targetPageMillis` halve the next request, pages that finish well
+/// under it double it, always within `[minPageSize, maxPageSize]`.
+///
+/// Pages are applied strictly in order and never concurrently, whatever thread the
+/// model service calls back on. Cancelling the owning RunningRefreshQuery stops the
+/// pager between models; `onCancelled` then runs (once) instead of `onComplete`.
+///
+/// With `setMetrics`, each page's round trip is timed into `query`, and its application into `page`.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 10:05
+final class RefreshPager<M extends Model> {
+
+    static final int DEFAULT_PAGES_IN_FLIGHT = 2;
+    static final int DEFAULT_MIN_PAGE_SIZE = 25;
+    static final int DEFAULT_MAX_PAGE_SIZE = 1_000;
+    /// Aim for pages that apply in about one 60fps frame.
+    static final long DEFAULT_TARGET_PAGE_MILLIS = 16L;
+
+    private final Class<M> type;
+    private final ModelQuery<M> query;
+    private final RunningRefreshQuery operation;
+    private final In1<M> apply;
+    private final Do onComplete;
+    private final Do onCancelled;
+    private final ErrorHandler<? extends Throwable> failHandler;
+
+    private int maxPagesInFlight = DEFAULT_PAGES_IN_FLIGHT;
+    private int minPageSize = DEFAULT_MIN_PAGE_SIZE;
+    private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+    private long targetPageMillis = DEFAULT_TARGET_PAGE_MILLIS;
+    private TaskIndexMetrics metrics;
+    /// metrics.start() of the outstanding fetch; only one is ever outstanding.
+    private volatile long fetchStart = TaskIndexMetrics.NOT_TIMED;
+
+    // ---- all guarded by `this` ----
+    private final ArrayDeque<ModelQueryResult<M>> ready = new ArrayDeque<>();
+    /// Cursor for the next page, held back while the ready queue is full.
+    private String nextCursor;
+    private boolean fetching;
+    private boolean exhausted;
+    private boolean settled;
+    private int pageSize;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private int pagesFetched;
+    private int pagesApplied;
+
+    RefreshPager(
+            final Class<M> type,
+            final ModelQuery<M> query,
+            final RunningRefreshQuery operation,
+            final In1<M> apply,
+            final Do onComplete,
+            final Do onCancelled
+    ) {
+        if (type == null || query == null || operation == null || apply == null) {
+            throw new IllegalArgumentException("type, query, operation and apply are required");
+        }
+        this.type = type;
+        this.query = query;
+        this.operation = operation;
+        this.apply = apply;
+        this.onComplete = onComplete == null ? Do.NOTHING : onComplete;
+        this.onCancelled = onCancelled == null ? Do.NOTHING : onCancelled;
+        this.failHandler = operation.getFailHandler();
+        this.pageSize = operation.getPageSize();
+    }
+
+    /// Bounds how many fetched pages may wait to be applied (at least 1).
+    RefreshPager<M> setMaxPagesInFlight(final int maxPagesInFlight) {
+        if (maxPagesInFlight < 1) {
+            throw new IllegalArgumentException("maxPagesInFlight must be >= 1, got: " + maxPagesInFlight);
+        }
+        this.maxPagesInFlight = maxPagesInFlight;
+        return this;
+    }
+
+    RefreshPager<M> setPageSizeBounds(final int minPageSize, final int maxPageSize) {
+        if (minPageSize < 1 || maxPageSize < minPageSize) {
+            throw new IllegalArgumentException("Invalid page size bounds [" + minPageSize + ", " + maxPageSize + "]");
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        return this;
+    }
+
+    RefreshPager<M> setTargetPageMillis(final long targetPageMillis) {
+        this.targetPageMillis = Math.max(1L, targetPageMillis);
+        return this;
+    }
+
+    RefreshPager<M> setMetrics(final TaskIndexMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /// Requests the first page.
+    void start() {
+        synchronized (this) {
+            pageSize = clamp(pageSize);
+            fetching = true;
+        }
+        fetch();
+    }
+
+    synchronized int getPageSize() {
+        return pageSize;
+    }
+
+    synchronized int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    synchronized int getPagesApplied() {
+        return pagesApplied;
+    }
+
+    synchronized int getPagesWaiting() {
+        return ready.size();
+    }
+
+    private void fetch() {
+        if (operation.isCancelled()) {
+            synchronized (this) {
+                fetching = false;
+            }
+            drain();
+            return;
+        }
+        final int size;
+        synchronized (this) {
+            size = pageSize;
+        }
+        query.setPageSize(size);
+        fetchStart = metrics == null ? TaskIndexMetrics.NOT_TIMED : metrics.start();
+        X_Model.query(type, query, SuccessHandler.handler(this::onPage, this::onFail));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onFail(final Throwable fail) {
+        synchronized (this) {
+            fetching = false;
+            // the fail handler settles the refresh; make sure onCancelled never does too
+            settled = true;
+            ready.clear();
+        }
+        operation.cancel();
+        ((ErrorHandler<Throwable>) failHandler).onError(fail);
+    }
+
+    private void onPage(final ModelQueryResult<M> page) {
+        if (metrics != null) {
+            metrics.stop(metrics.query, fetchStart);
+        }
+        boolean fetchNext = false;
+        synchronized (this) {
+            fetching = false;
+            pagesFetched++;
+            ready.addLast(page);
+            final String cursor = page.getCursor();
+            if (X_String.isEmpty(cursor) || cursor.equals(query.getCursor())) {
+                exhausted = true;
+            } else {
+                nextCursor = cursor;
+                fetchNext = claimFetch();
+            }
+        }
+        if (fetchNext) {
+            // request page k+1 before we spend time applying page k
+            fetch();
+        }
+        drain();
+    }
+
+    /// Moves nextCursor onto the query if there is room for another page; caller holds the lock.
+    private boolean claimFetch() {
+        if (fetching || exhausted || nextCursor == null || ready.size() >= maxPagesInFlight) {
+            return false;
+        }
+        query.setCursor(nextCursor);
+        nextCursor = null;
+        fetching = true;
+        return true;
+    }
+
+    /// Applies every ready page, in order, on whichever thread gets here first.
+    private void drain() {
+        while (draining.compareAndSet(false, true)) {
+            try {
+                ModelQueryResult<M> page;
+                while ((page = poll()) != null) {
+                    if (!applyPage(page)) {
+                        break;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            final Do finish;
+            final boolean fetchNext;
+            synchronized (this) {
+                if (!ready.isEmpty() && !operation.isCancelled()) {
+                    // a page landed between our last poll and releasing `draining`
+                    continue;
+                }
+                finish = settle();
+                fetchNext = finish == null && claimFetch();
+            }
+            if (finish != null) {
+                finish.done();
+            } else if (fetchNext) {
+                fetch();
+            }
+            return;
+        }
+    }
+
+    private synchronized ModelQueryResult<M> poll() {
+        if (operation.isCancelled()) {
+            return null;
+        }
+        return ready.pollFirst();
+    }
+
+    /// @return false if the operation was cancelled part way through the page.
+    private boolean applyPage(final ModelQueryResult<M> page) {
+        final long start = System.nanoTime();
+        int applied = 0;
+        for (M model : page.getModels()) {
+            if (operation.isCancelled()) {
+                return false;
+            }
+            apply.in(model);
+            applied++;
+        }
+        final long nanos = System.nanoTime() - start;
+        final long millis = nanos / 1_000_000L;
+        if (metrics != null) {
+            metrics.record(metrics.page, nanos);
+        }
+        final boolean fetchNext;
+        synchronized (this) {
+            pagesApplied++;
+            adapt(applied, millis);
+            // the queue just shrank; resume fetching if backpressure held it back
+            fetchNext = claimFetch();
+        }
+        if (fetchNext) {
+            fetch();
+        }
+        return true;
+    }
+
+    /// Scales the next page request toward targetPageMillis; caller holds the lock.
+    private void adapt(final int applied, final long millis) {
+        if (applied < pageSize) {
+            // a short (last) page says nothing about throughput
+            return;
+        }
+        if (millis > targetPageMillis * 2) {
+            pageSize = clamp(pageSize / 2);
+        } else if (millis * 2 < targetPageMillis) {
+            pageSize = clamp(pageSize * 2);
+        }
+        operation.setPageSize(pageSize);
+    }
+
+    /// @return the callback to run once the pager is finished, or null if it is not; caller holds the lock.
+    private Do settle() {
+        if (settled) {
+            return null;
+        }
+        if (operation.isCancelled()) {
+            if (fetching) {
+                // wait for the outstanding page, so nothing calls back after we report
+                return null;
+            }
+            settled = true;
+            ready.clear();
+            return onCancelled;
+        }
+        if (exhausted && ready.isEmpty() && !fetching) {
+            settled = true;
+            return onComplete;
+        }
+        return null;
+    }
+
+    private int clamp(final int size) {
+        return Math.max(minPageSize, Math.min(maxPageSize, size));
+    }
+}
@@ -0,0 +1,115 @@
+package net.wti.tasks.index;
+
+import net.wti.ui.demo.api.ModelTaskSync;
+import xapi.fu.Do;
+import xapi.fu.log.Log;
+import xapi.model.X_Model;
+import xapi.util.api.SuccessHandler;
+
+///
+/// RefreshWatermark
+///
+/// Persistent high-water mark of `ModelTask.updated` for a single TaskIndex namespace.
+///
+/// - `get() == 0` means "missing": the next refresh must be a full resync.
+/// - The value is loaded lazily (once) from a ModelTaskSync record; if that record
+///   cannot be loaded, the watermark simply stays missing.
+/// - `advance()` only ever moves the mark forward, and persists each change.
+/// - `limitTo()` caps the mark until the next `advance()`; a warm start from an older
+///   snapshot uses this so the reconciling refresh covers everything since the snapshot.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 09:20
+public final class RefreshWatermark {
+
+    private final String namespace;
+    private volatile ModelTaskSync record;
+    private volatile long updatedSince;
+    private volatile long ceiling = Long.MAX_VALUE;
+    private volatile boolean loaded;
+
+    public RefreshWatermark(final String namespace) {
+        this.namespace = namespace;
+    }
+
+    /// Loads the persisted watermark (if not already loaded), then runs the callback.
+    /// The callback runs exactly once, whether or not a record was found.
+    public void load(final Do whenReady) {
+        if (loaded) {
+            whenReady.done();
+            return;
+        }
+        X_Model.load(ModelTaskSync.class, ModelTaskSync.newKey(namespace), SuccessHandler.handler(
+                sync -> {
+                    if (sync != null) {
+                        record = sync;
+                        final Long since = sync.getUpdatedSince();
+                        if (since != null && since > updatedSince) {
+                            updatedSince = since;
+                        }
+                    }
+                    loaded = true;
+                    whenReady.done();
+                }, fail -> {
+                    Log.tryLog(RefreshWatermark.class, this, "No refresh watermark for namespace [" + namespace + "]; doing full resync", fail);
+                    loaded = true;
+                    whenReady.done();
+                }
+        ));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /// @return true if there is no watermark, and a full resync is required.
+    public boolean isMissing() {
+        return get() <= 0L;
+    }
+
+    public long get() {
+        return Math.min(updatedSince, ceiling);
+    }
+
+    /// Caps `get()` at `limit` until the next `advance()`; a limit <= 0 forces a full resync.
+    public void limitTo(final long limit) {
+        ceiling = Math.max(0L, limit);
+    }
+
+    /// Moves the watermark forward to `ts` (no-op if `ts` is not newer), persisting the change.
+    public void advance(final long ts, final boolean fullSync) {
+        ceiling = Long.MAX_VALUE;
+        if (ts <= updatedSince && !fullSync) {
+            return;
+        }
+        updatedSince = Math.max(updatedSince, ts);
+        ModelTaskSync sync = record;
+        if (sync == null) {
+            sync = X_Model.create(ModelTaskSync.class);
+            sync.setKey(ModelTaskSync.newKey(namespace));
+            record = sync;
+        }
+        sync.setUpdatedSince(updatedSince);
+        if (fullSync) {
+            sync.setLastFullSync(System.currentTimeMillis());
+        }
+        X_Model.persist(sync, SuccessHandler.noop());
+    }
+
+    /// Forgets the watermark, so the next refresh performs a full resync.
+    public void clear() {
+        updatedSince = 0L;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshWatermark{" +
+                "namespace='" + namespace + '\'' +
+                ", updatedSince=" + updatedSince +
+                ", loaded=" + loaded +
+                '}';
+    }
+}
@@ -4,11 +4,10 @@ package net.wti.tasks.index;
 import net.wti.ui.demo.api.ModelTask;
 import xapi.model.api.ModelKey;
 import xapi.model.api.ModelQuery;
-import xapi.model.api.ModelQueryResult;
 import xapi.util.api.ErrorHandler;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 ///
 /// RunningRefreshQuery
@@ -16,9 +15,11 @@ import java.util.Map;
 /// Consolidates the moving parts of an in-flight refresh:
 /// - the ModelQuery being used
 /// - the fail handler
-/// - the latest success result (set before each processing step)
 /// - a map of UpdateInfo per ModelKey
 /// - the newestUpdatedTimestamp across all processed results so far
+/// - the watermark this refresh started from (0 for a full resync)
+/// - the page size RefreshPager is currently requesting
+/// - a cancelled flag, checked by RefreshPager between models
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 28/08/2025 @ 00:06
 public final class RunningRefreshQuery {
@@ -26,15 +27,23 @@ public final class RunningRefreshQuery {
     private final ModelQuery<ModelTask> query;
     private final ErrorHandler<? extends Throwable> failHandler;
 
-    private final Map<ModelKey, UpdateInfo> updates = new HashMap<>();
-    private long newestUpdatedTimestamp;
-
-    private ModelQueryResult<ModelTask> success;
+    /// Pages are applied by whichever thread the model service calls back on.
+    private final Map<ModelKey, UpdateInfo> updates = new ConcurrentHashMap<>();
+    private final long updatedSince;
+    private volatile long newestUpdatedTimestamp;
+    private volatile int pageSize = RefreshPager.DEFAULT_MIN_PAGE_SIZE * 4;
+    private volatile boolean cancelled;
+    private final long startedNanos = System.nanoTime();
 
     public RunningRefreshQuery(ErrorHandler<? extends Throwable> failHandler) {
+        this(failHandler, 0L);
+    }
+
+    public RunningRefreshQuery(ErrorHandler<? extends Throwable> failHandler, long updatedSince) {
         this.query = new ModelQuery<>();
         this.failHandler = failHandler;
-        this.newestUpdatedTimestamp = 0L;
+        this.updatedSince = updatedSince;
+        this.newestUpdatedTimestamp = updatedSince;
     }
 
     public ModelQuery<ModelTask> getQuery() {
@@ -49,6 +58,16 @@ public final class RunningRefreshQuery {
         return updates;
     }
 
+    /// @return the watermark this refresh loads changes after; 0 when this is a full resync.
+    public long getUpdatedSince() {
+        return updatedSince;
+    }
+
+    /// @return true if this refresh only loads tasks (and tombstones) newer than the watermark.
+    public boolean isDelta() {
+        return updatedSince > 0L;
+    }
+
     public long getNewestUpdatedTimestamp() {
         return newestUpdatedTimestamp;
     }
@@ -59,20 +78,34 @@ public final class RunningRefreshQuery {
         }
     }
 
-    public String getCursor() {
-        return this.query.getCursor();
+    /// @return System.nanoTime() when this refresh began, for timing it.
+    public long getStartedNanos() {
+        return startedNanos;
     }
 
-    public void setCursor(final String cursor) {
-        this.query.setCursor(cursor);
+    public int getPageSize() {
+        return pageSize;
     }
 
-    public ModelQueryResult<ModelTask> getSuccess() {
-        return success;
+    public RunningRefreshQuery setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
     }
 
-    public RunningRefreshQuery setSuccess(ModelQueryResult<ModelTask> success) {
-        this.success = success;
-        return this;
+    /// Asks the refresh to stop; pages already applied stay applied, and the watermark does not move.
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getCursor() {
+        return this.query.getCursor();
+    }
+
+    public void setCursor(final String cursor) {
+        this.query.setCursor(cursor);
     }
 }
@@ -0,0 +1,153 @@
+package net.wti.tasks.index;
+
+import com.badlogic.gdx.Gdx;
+import net.wti.tasks.event.TaskEvent;
+import net.wti.tasks.event.TaskUpdatedEvent;
+import net.wti.tasks.metrics.TaskIndexMetrics;
+import xapi.fu.In1;
+import xapi.model.api.ModelKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+///
+/// TaskEventBatcher
+///
+/// Collects TaskEvents posted from any thread into one batch per frame:
+/// - the first event after a flush schedules a single `Gdx.app.postRunnable`
+/// - every event posted before that runnable executes joins the same batch
+/// - on flush, repeated TaskUpdatedEvents for one ModelKey collapse into the last one,
+///   which then reports every property any of them changed
+///
+/// Events posted while a batch is being delivered (i.e. by listeners) land in the next frame.
+///
+/// Each flush records its depth and the wait of its oldest event (post to delivery) into TaskIndexMetrics;
+/// timing only the oldest event keeps post() free of per-event timestamps.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 10:05
+final class TaskEventBatcher {
+
+    private final In1<List<TaskEvent>> deliver;
+    private final TaskIndexMetrics metrics;
+    private final Object lock = new Object();
+    private List<TaskEvent> pending = new ArrayList<>();
+    private boolean scheduled;
+    /// metrics.start() of the first event in `pending`.
+    private long oldestPost = TaskIndexMetrics.NOT_TIMED;
+
+    TaskEventBatcher(final In1<List<TaskEvent>> deliver) {
+        this(deliver, new TaskIndexMetrics());
+    }
+
+    TaskEventBatcher(final In1<List<TaskEvent>> deliver, final TaskIndexMetrics metrics) {
+        if (deliver == null) {
+            throw new IllegalArgumentException("deliver cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        this.deliver = deliver;
+        this.metrics = metrics;
+    }
+
+    void post(final TaskEvent evt) {
+        final boolean schedule;
+        synchronized (lock) {
+            pending.add(evt);
+            schedule = !scheduled;
+            scheduled = true;
+            if (schedule) {
+                oldestPost = metrics.start();
+            }
+        }
+        if (schedule) {
+            // Always notify on the main thread for UI safety.
+            Gdx.app.postRunnable(this::flush);
+        }
+    }
+
+    /// Delivers everything queued so far; normally run by the frame runnable.
+    void flush() {
+        final List<TaskEvent> batch;
+        final long posted;
+        synchronized (lock) {
+            batch = pending;
+            posted = oldestPost;
+            pending = new ArrayList<>();
+            scheduled = false;
+            oldestPost = TaskIndexMetrics.NOT_TIMED;
+        }
+        if (!batch.isEmpty()) {
+            metrics.record(metrics.queueDepth, batch.size());
+            metrics.stop(metrics.deliveryLag, posted);
+            deliver.in(coalesce(batch));
+        }
+    }
+
+    int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /// Drops all but the last TaskUpdatedEvent for each task key; everything else keeps its order.
+    /// The surviving update carries the union of the collapsed events' changed properties
+    /// (or "unknown", if any of them was).
+    static List<TaskEvent> coalesce(final List<TaskEvent> batch) {
+        if (batch.size() < 2) {
+            return Collections.unmodifiableList(batch);
+        }
+        final Map<ModelKey, Integer> keptAt = new HashMap<>();
+        final TaskEvent[] kept = new TaskEvent[batch.size()];
+        int at = kept.length;
+        boolean merged = false;
+        // walk backwards so the newest update for each key is the one we keep
+        for (int i = batch.size(); i-- > 0; ) {
+            final TaskEvent evt = batch.get(i);
+            if (evt instanceof TaskUpdatedEvent) {
+                final TaskUpdatedEvent update = (TaskUpdatedEvent) evt;
+                final ModelKey key = update.task.getKey();
+                if (key != null) {
+                    final Integer newer = keptAt.get(key);
+                    if (newer != null) {
+                        kept[newer] = merge((TaskUpdatedEvent) kept[newer], update);
+                        merged = true;
+                        continue;
+                    }
+                    keptAt.put(key, at - 1);
+                }
+            }
+            kept[--at] = evt;
+        }
+        if (!merged) {
+            return Collections.unmodifiableList(batch);
+        }
+        final List<TaskEvent> out = new ArrayList<>(kept.length - at);
+        for (int i = at; i < kept.length; i++) {
+            out.add(kept[i]);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    private static TaskUpdatedEvent merge(final TaskUpdatedEvent newer, final TaskUpdatedEvent older) {
+        if (newer.changed.isEmpty()) {
+            // already "unknown"
+            return newer;
+        }
+        if (older.changed.isEmpty()) {
+            // unknown + anything = unknown
+            return new TaskUpdatedEvent(newer.task);
+        }
+        if (newer.changed.containsAll(older.changed)) {
+            return newer;
+        }
+        final Set<String> union = new LinkedHashSet<>(older.changed);
+        union.addAll(newer.changed);
+        return new TaskUpdatedEvent(newer.task, Collections.unmodifiableSet(union));
+    }
+}
@@ -0,0 +1,152 @@
+package net.wti.tasks.index;
+
+import net.wti.tasks.event.*;
+import net.wti.tasks.metrics.TaskIndexMetrics;
+import net.wti.ui.demo.api.ModelTask;
+import xapi.fu.Do;
+import xapi.model.api.ModelKey;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+///
+/// TaskEventDispatcher
+///
+/// Listener registry for TaskIndex, indexed so that an event only touches the listeners that want it:
+/// - `all`: listeners of every event
+/// - `byType`: one copy-on-write list per concrete event class
+/// - `byKey`: one copy-on-write list per task ModelKey (for views of a single task)
+///
+/// Every subscription returns a `Do` which removes it; emptied per-key lists are dropped,
+/// so short-lived task views don't leak map entries.
+///
+/// Each listener call is timed into TaskIndexMetrics (per listener).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 10:40
+final class TaskEventDispatcher {
+
+    private final CopyOnWriteArrayList<TaskEventListener> all = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Class<? extends TaskEvent>, CopyOnWriteArrayList<TaskEventListener>> byType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ModelKey, CopyOnWriteArrayList<TaskEventListener>> byKey = new ConcurrentHashMap<>();
+    private final TaskIndexMetrics metrics;
+
+    TaskEventDispatcher() {
+        this(new TaskIndexMetrics());
+    }
+
+    TaskEventDispatcher(final TaskIndexMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        this.metrics = metrics;
+    }
+
+    Do subscribe(final TaskEventListener l) {
+        all.add(l);
+        return () -> {
+            all.remove(l);
+            metrics.forgetListener(l);
+        };
+    }
+
+    @SafeVarargs
+    final Do subscribe(final TaskEventListener l, final Class<? extends TaskEvent>... types) {
+        Do undo = Do.NOTHING;
+        for (Class<? extends TaskEvent> type : types) {
+            if (type == TaskEvent.class) {
+                // the base type means "everything"
+                undo = undo.doAfter(subscribe(l));
+                continue;
+            }
+            final CopyOnWriteArrayList<TaskEventListener> list = byType.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>());
+            if (list.addIfAbsent(l)) {
+                undo = undo.doAfter(() -> list.remove(l));
+            }
+        }
+        return undo.doAfter(() -> metrics.forgetListener(l));
+    }
+
+    Do subscribeKey(final ModelKey key, final TaskEventListener l) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        byKey.compute(key, (k, list) -> {
+            if (list == null) {
+                list = new CopyOnWriteArrayList<>();
+            }
+            list.add(l);
+            return list;
+        });
+        return () -> {
+            byKey.computeIfPresent(key, (k, list) -> {
+                list.remove(l);
+                return list.isEmpty() ? null : list;
+            });
+            metrics.forgetListener(l);
+        };
+    }
+
+    void dispatch(final TaskEvent evt) {
+        notify(all, evt);
+        final CopyOnWriteArrayList<TaskEventListener> typed = byType.get(evt.getClass());
+        if (typed != null) {
+            notify(typed, evt);
+        }
+        if (!byKey.isEmpty()) {
+            final ModelKey key = keyOf(evt);
+            if (key != null) {
+                final CopyOnWriteArrayList<TaskEventListener> keyed = byKey.get(key);
+                if (keyed != null) {
+                    notify(keyed, evt);
+                }
+            }
+        }
+    }
+
+    int getListenerCount() {
+        int total = all.size();
+        for (CopyOnWriteArrayList<TaskEventListener> list : byType.values()) {
+            total += list.size();
+        }
+        for (CopyOnWriteArrayList<TaskEventListener> list : byKey.values()) {
+            total += list.size();
+        }
+        return total;
+    }
+
+    private void notify(final CopyOnWriteArrayList<TaskEventListener> listeners, final TaskEvent evt) {
+        for (TaskEventListener l : listeners) {
+            final long start = metrics.start();
+            try {
+                l.onEvent(evt);
+            } catch (Throwable ignored) {
+            }
+            metrics.stopListener(l, start);
+        }
+    }
+
+    /// @return the ModelKey of the task an event is about, or null for index-wide events (refresh etc).
+    static ModelKey keyOf(final TaskEvent evt) {
+        if (evt instanceof TaskDeletedEvent) {
+            return ((TaskDeletedEvent) evt).taskId;
+        }
+        final ModelTask task;
+        if (evt instanceof TaskUpdatedEvent) {
+            task = ((TaskUpdatedEvent) evt).task;
+        } else if (evt instanceof TaskLoadedEvent) {
+            task = ((TaskLoadedEvent) evt).task;
+        } else if (evt instanceof TaskCreatedEvent) {
+            task = ((TaskCreatedEvent) evt).task;
+        } else if (evt instanceof TaskStartedEvent) {
+            task = ((TaskStartedEvent) evt).task;
+        } else if (evt instanceof TaskFinishedEvent) {
+            task = ((TaskFinishedEvent) evt).task;
+        } else if (evt instanceof TaskCancelledEvent) {
+            task = ((TaskCancelledEvent) evt).task;
+        } else {
+            return null;
+        }
+        return task == null ? null : task.getKey();
+    }
+}
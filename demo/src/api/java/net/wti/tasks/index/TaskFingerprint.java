@@ -0,0 +1,169 @@
+package net.wti.tasks.index;
+
+import net.wti.ui.demo.api.ModelTask;
+import xapi.model.api.Model;
+import xapi.model.api.ModelKey;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+///
+/// TaskFingerprint
+///
+/// Cheap version stamp of a ModelTask, so TaskIndex.upsert can skip `absorb()` for unchanged tasks:
+/// - `updated`: the task's own version timestamp
+/// - one 64-bit hash per property (nested models and lists are hashed by content)
+/// - `checksum`: a hash over all of the above
+///
+/// Two fingerprints `matches()` in O(1); `changedSince()` compares per-property hashes
+/// to produce the compact set of property names which differ.
+///
+/// `updated` is deliberately excluded from the property hashes, so TaskIndex stamping
+/// a canonical task's `updated` does not register as a content change.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 13:05
+final class TaskFingerprint {
+
+    static final String PROPERTY_UPDATED = "updated";
+
+    private static final int MAX_DEPTH = 6;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long updated;
+    private final String[] names;
+    private final long[] hashes;
+    private final long checksum;
+
+    private TaskFingerprint(final long updated, final String[] names, final long[] hashes) {
+        this.updated = updated;
+        this.names = names;
+        this.hashes = hashes;
+        long sum = mix(FNV_OFFSET, updated);
+        for (int i = 0; i < names.length; i++) {
+            sum = mix(sum, names[i].hashCode());
+            sum = mix(sum, hashes[i]);
+        }
+        this.checksum = sum;
+    }
+
+    static TaskFingerprint of(final ModelTask task) {
+        final String[] all = task.getPropertyNames();
+        final String[] names = new String[all.length];
+        int size = 0;
+        for (String name : all) {
+            if (!PROPERTY_UPDATED.equals(name)) {
+                names[size++] = name;
+            }
+        }
+        final String[] sorted = Arrays.copyOf(names, size);
+        Arrays.sort(sorted);
+        final long[] hashes = new long[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash(task.getProperty(sorted[i]), 0);
+        }
+        return new TaskFingerprint(task.getUpdated(), sorted, hashes);
+    }
+
+    /// @return true if `other` describes the same version and content
+    boolean matches(final TaskFingerprint other) {
+        return other != null
+                && updated == other.updated
+                && checksum == other.checksum
+                && names.length == other.names.length;
+    }
+
+    /// @return names of properties whose value differs from `older` (all of ours, if `older` is null)
+    Set<String> changedSince(final TaskFingerprint older) {
+        final Set<String> changed = new LinkedHashSet<>();
+        if (older == null) {
+            changed.addAll(Arrays.asList(names));
+            return Collections.unmodifiableSet(changed);
+        }
+        // both name arrays are sorted; walk them together
+        int a = 0, b = 0;
+        while (a < names.length || b < older.names.length) {
+            final int cmp = a == names.length ? 1
+                    : b == older.names.length ? -1
+                    : names[a].compareTo(older.names[b]);
+            if (cmp == 0) {
+                if (hashes[a] != older.hashes[b]) {
+                    changed.add(names[a]);
+                }
+                a++;
+                b++;
+            } else if (cmp < 0) {
+                changed.add(names[a++]);
+            } else {
+                changed.add(older.names[b++]);
+            }
+        }
+        return Collections.unmodifiableSet(changed);
+    }
+
+    long getUpdated() {
+        return updated;
+    }
+
+    long getChecksum() {
+        return checksum;
+    }
+
+    private static long hash(final Object value, final int depth) {
+        if (value == null) {
+            return 0L;
+        }
+        if (depth > MAX_DEPTH) {
+            return value.getClass().getName().hashCode();
+        }
+        if (value instanceof ModelKey) {
+            return value.toString().hashCode();
+        }
+        if (value instanceof Iterable) {
+            // check before Model: ModelList is both
+            long h = FNV_OFFSET;
+            for (Object item : (Iterable<?>) value) {
+                h = mix(h, hash(item, depth + 1));
+            }
+            return h;
+        }
+        if (value instanceof Model) {
+            final Model model = (Model) value;
+            final String[] keys = model.getPropertyNames().clone();
+            Arrays.sort(keys);
+            long h = FNV_OFFSET;
+            for (String key : keys) {
+                h = mix(h, key.hashCode());
+                h = mix(h, hash(model.getProperty(key), depth + 1));
+            }
+            return h;
+        }
+        if (value instanceof Object[]) {
+            long h = FNV_OFFSET;
+            for (Object item : (Object[]) value) {
+                h = mix(h, hash(item, depth + 1));
+            }
+            return h;
+        }
+        if (value instanceof Double) {
+            return Double.doubleToLongBits((Double) value);
+        }
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return value.hashCode();
+    }
+
+    private static long mix(long h, final long value) {
+        h ^= value;
+        h *= FNV_PRIME;
+        return h ^ (h >>> 29);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFingerprint{updated=" + updated + ", checksum=" + Long.toHexString(checksum) + ", properties=" + names.length + '}';
+    }
+}
@@ -1,14 +1,19 @@
 package net.wti.tasks.index;
 
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Timer;
 import net.wti.tasks.event.*;
-import net.wti.ui.demo.api.ModelSettings;
+import net.wti.tasks.metrics.Histogram;
+import net.wti.tasks.metrics.HistogramSnapshot;
+import net.wti.tasks.metrics.TaskIndexMetrics;
+import net.wti.tasks.metrics.TaskIndexMetricsSink;
+import net.wti.tasks.metrics.TaskIndexMetricsSnapshot;
+import net.wti.time.api.DayIndex;
+import net.wti.time.impl.DayIndexService;
 import net.wti.ui.demo.api.ModelTask;
+import net.wti.ui.demo.api.ModelTaskTombstone;
 import net.wti.ui.demo.api.Schedule;
 import xapi.fu.Do;
-import xapi.fu.Filter;
 import xapi.fu.In1;
 import xapi.fu.X_Fu;
 import xapi.fu.data.MapLike;
@@ -16,22 +21,25 @@ import xapi.fu.itr.MappedIterable;
 import xapi.fu.itr.SizedIterable;
 import xapi.fu.java.X_Jdk;
 import xapi.fu.log.Log;
-import xapi.model.X_Model;
 import xapi.model.api.ModelKey;
 import xapi.model.api.ModelQuery;
-import xapi.model.api.ModelQueryResult;
-import xapi.string.X_String;
 import xapi.time.X_Time;
-import xapi.time.api.Moment;
 import xapi.time.api.TimeComponents;
 import xapi.time.api.TimeZoneInfo;
 import xapi.util.api.ErrorHandler;
-import xapi.util.api.SuccessHandler;
 
 import java.util.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -46,12 +54,38 @@ import java.util.function.Consumer;
 ///
 /// ### Core ideas
 /// * **Cache**: stores tasks by id; exposes views (active / finished / canceled).
+///   The three status sets are maintained incrementally on write, each with
+///   O(1) size and pre-sorted "by next due" / "by priority" snapshots.
 /// * **Events**: fire on load/create/start/finish/cancel/update/delete/refresh.
 /// * **Subscriptions**: return a `Do` handle you call `.done()` to unsubscribe.
+///   Listeners are indexed by event class (and optionally by task key), so an
+///   event only reaches the listeners that asked for it.
 /// * **Threading**: all notifications are posted to the main (GL) thread via
 ///   `Gdx.app.postRunnable(...)`, so UI can mutate Scene2D safely.
+/// * **Batching**: events are collected into one batch per frame (one runnable,
+///   not one per event); repeated updates of one task within a batch collapse.
+///   `subscribeBatches` receives the whole `List<TaskEvent>` at once.
 /// * **Refresh**: `refresh()` uses a loader `Supplier<Collection<ModelTask>>`
 ///   to (re)load tasks; `startAutoRefresh(minutes)` schedules periodic refresh.
+/// * **Delta refresh**: once a full load has completed, `refresh()` only queries
+///   tasks (and ModelTaskTombstone deletions) whose `updated` is newer than a
+///   persisted watermark; `resync()` forces a full load which also prunes
+///   tasks that no longer exist.
+/// * **Single-flight**: `refresh()` never blocks; it returns a shared
+///   `CompletableFuture` for the refresh in flight. Calls that arrive while one is
+///   running join it, and queue (at most) one follow-up refresh to collect any
+///   changes made while it ran.
+/// * **Paging**: result pages are pipelined by `RefreshPager`; the next page is
+///   requested while the current one is applied, with at most two pages waiting,
+///   and the page size adapts to how long upserts take. A `resync()` aborts a
+///   running delta refresh (and takes over its handle); `destroy()` aborts any.
+/// * **Metrics**: `getMetricsSnapshot()` reports query/page/upsert/refresh timers,
+///   event queue depth and delivery lag, per-listener handler time, and bucket
+///   sizes and churn (see TaskIndexMetrics); `setMetricsSink` pushes a snapshot
+///   after every finished refresh.
+/// * **Warm start**: with `setSnapshotFile(file)`, every finished refresh writes a
+///   binary snapshot in the background; `loadSnapshot()` memory-maps it back in
+///   before the first frame, so views render at once while a refresh reconciles.
 ///
 /// ### Minimal usage
 /// ```java
@@ -85,13 +119,19 @@ import java.util.function.Consumer;
 /// Created by James X. Nelson (James@WeTheInter.net) and chatgpt on 27/08/2025 @ 06:54
 public class TaskIndex {
 
+    /// Delta queries start this far behind the watermark, to tolerate small clock skew between writers.
+    /// Re-absorbing an unchanged task is harmless, so the overlap only costs a few duplicate rows.
+    static final long DELTA_OVERLAP_MILLIS = 1_000L;
+
     private final String namespace;
+    private final RefreshWatermark watermark;
 
     public TaskIndex() {
-        namespace = "";
+        this("");
     }
     public TaskIndex(final String namespace) {
         this.namespace = namespace;
+        this.watermark = new RefreshWatermark(namespace);
     }
 
     // ---------------------------------------------------------------------
@@ -99,23 +139,53 @@ public class TaskIndex {
     // ---------------------------------------------------------------------
 
     private final MapLike<ModelKey, Schedule> byId = X_Jdk.mapHashConcurrent();
-    private final CopyOnWriteArrayList<TaskEventListener> listeners = new CopyOnWriteArrayList<>();
-
-    // ---- Bucketing (deadlines grouped by DateKey) ----
-    private final ConcurrentMap<DateKey, CopyOnWriteArrayList<Schedule>> byDay = new ConcurrentHashMap<>();
-    private TimeZoneInfo bucketZone = X_Time.systemZone();
-    private int rolloverHour = 4; // "4am rule"
+    /// Fingerprint of the last version of each task we absorbed; lets upsert skip unchanged tasks.
+    private final ConcurrentHashMap<ModelKey, TaskFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    // ---- Status partitions (kept current by upsert / onTaskDeleted) ----
+    private final TaskPartition active = new TaskPartition("active");
+    private final TaskPartition finished = new TaskPartition("finished");
+    private final TaskPartition canceled = new TaskPartition("canceled");
+    private final TaskIndexMetrics metrics = new TaskIndexMetrics();
+    private volatile TaskIndexMetricsSink metricsSink;
+    private final TaskEventDispatcher dispatcher = new TaskEventDispatcher(metrics);
+    private final CopyOnWriteArrayList<TaskEventBatchListener> batchListeners = new CopyOnWriteArrayList<>();
+    private final TaskEventBatcher batcher = new TaskEventBatcher(this::deliver, metrics);
+
+    // ---- Bucketing (deadlines grouped by local DayIndex day number) ----
+    private final DeadlineBuckets buckets = new DeadlineBuckets();
+    private volatile TimeZoneInfo bucketZone = X_Time.systemZone();
+    private volatile int rolloverHour = DayIndexService.DEFAULT_ROLLOVER_HOUR; // "4am rule"
+    private final DayIndexService dayIndexService = new DayIndexService(bucketZone, rolloverHour);
 
     // ---- Metrics ----
     private final AtomicInteger refreshCount = new AtomicInteger();
     private final AtomicInteger bucketUpdates = new AtomicInteger();
+    /// bucketUpdates when the running refresh started; only one refresh runs at a time.
+    private volatile int bucketUpdatesAtRefresh;
 
 
     /// Optional repeating refresh task.
     private Timer.Task autoRefreshTask;
 
-    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
-    private Throwable lastError;
+    // ---- Single-flight refresh; all guarded by refreshLock ----
+    private final Object refreshLock = new Object();
+    /// The refresh currently running, or null when idle.
+    private CompletableFuture<Integer> refreshInFlight;
+    /// True when a caller arrived during refreshInFlight; runs one more refresh once it completes.
+    private boolean refreshQueued;
+    private boolean refreshQueuedFull;
+    /// The operation behind refreshInFlight, once its watermark has loaded; lets us cancel it.
+    private RunningRefreshQuery refreshOperation;
+    /// Page size the last refresh settled on; the next one starts from it.
+    private volatile int refreshPageSize = RefreshPager.DEFAULT_MIN_PAGE_SIZE * 4;
+
+    private volatile Throwable lastError;
+
+    // ---- Warm-start snapshot (optional) ----
+    private volatile File snapshotFile;
+    private ExecutorService snapshotWriter;
+    private final AtomicBoolean snapshotQueued = new AtomicBoolean();
 
     // ---------------------------------------------------------------------
     // Queries
@@ -128,21 +198,55 @@ public class TaskIndex {
 
     /// Tasks considered "active" (not finished and not canceled).
     public MappedIterable<Schedule> getActive() {
-        return filter(this::isActive);
+        return active.all();
+    }
+
+    /// Active tasks, soonest due first (tasks without a due time last).
+    public MappedIterable<Schedule> getActiveByDue() {
+        return active.sortedByDue();
+    }
+
+    /// Active tasks, highest priority first (ties by title).
+    public MappedIterable<Schedule> getActiveByPriority() {
+        return active.sortedByPriority();
+    }
+
+    public int getActiveCount() {
+        return active.size();
     }
 
     /// Tasks considered "finished".
     public MappedIterable<Schedule> getFinished() {
-        return filter(this::isFinished);
+        return finished.all();
+    }
+
+    public MappedIterable<Schedule> getFinishedByDue() {
+        return finished.sortedByDue();
+    }
+
+    public MappedIterable<Schedule> getFinishedByPriority() {
+        return finished.sortedByPriority();
+    }
+
+    public int getFinishedCount() {
+        return finished.size();
     }
 
     /// Tasks considered "canceled".
     public MappedIterable<Schedule> getCanceled() {
-        return filter(this::isCanceled);
+        return canceled.all();
+    }
+
+    public MappedIterable<Schedule> getCanceledByDue() {
+        return canceled.sortedByDue();
+    }
+
+    public MappedIterable<Schedule> getCanceledByPriority() {
+        return canceled.sortedByPriority();
     }
 
-    private MappedIterable<Schedule> filter(Filter.Filter1<Schedule> p) {
-        return byId.mappedValues().filter(p);
+    public int getCanceledCount() {
+        return canceled.size();
     }
 
     // ---------------------------------------------------------------------
@@ -151,19 +255,27 @@ public class TaskIndex {
 
     /// Subscribe to all events.
     public Do subscribe(TaskEventListener l) {
-        listeners.add(l);
-        return () -> listeners.remove(l);
+        return dispatcher.subscribe(l);
+    }
+
+    /// Subscribe to whole per-frame batches of events (already coalesced).
+    public Do subscribeBatches(TaskEventBatchListener l) {
+        batchListeners.add(l);
+        return () -> {
+            batchListeners.remove(l);
+            metrics.forgetListener(l);
+        };
     }
 
     /// Subscribe to specific event classes.
     @SafeVarargs
     public final Do subscribeEvents(Consumer<TaskEvent> handler, Class<? extends TaskEvent>... types) {
-        final Set<Class<? extends TaskEvent>> want = new HashSet<>(Arrays.asList(types));
-        TaskEventListener l = evt -> {
-            if (want.contains(evt.getClass())) handler.accept(evt);
-        };
-        listeners.add(l);
-        return () -> listeners.remove(l);
+        return dispatcher.subscribe(handler::accept, types);
+    }
+
+    /// Subscribe to every event about one task (load/create/start/update/finish/cancel/delete).
+    public Do subscribeTask(ModelKey key, TaskEventListener l) {
+        return dispatcher.subscribeKey(key, l);
     }
 
     /// Iterate over current active tasks immediately, then get incremental updates:
@@ -188,81 +300,320 @@ public class TaskIndex {
             // finishes/cancels remove from active; if a view needs removal notice,
             // it should listen to those event types directly.
         };
-        listeners.add(l);
-        return () -> listeners.remove(l);
+        return dispatcher.subscribe(l, TaskCreatedEvent.class, TaskStartedEvent.class, TaskUpdatedEvent.class);
     }
 
     // ---------------------------------------------------------------------
     // Refresh API
     // ---------------------------------------------------------------------
 
-    /// Immediate refresh using the configured loader (no-op if none).
-    public void refresh() {
-        if (refreshPending.compareAndSet(false, true)) {
-            // we won the lock, request data
-            final ErrorHandler<? extends Throwable> failHandler = fail -> {
-                lastError = fail;
-                refreshPending.set(false);
-                synchronized (refreshPending) {
-                    refreshPending.notifyAll();
-                }
-            };
-            RunningRefreshQuery operation = new RunningRefreshQuery(failHandler);
-            operation.getQuery().setNamespace(namespace);
-            post(new RefreshStartedEvent(operation));
-            X_Model.query(ModelTask.class, operation.getQuery(), SuccessHandler.handler(
-                    success ->
-                            processResults(operation, success), failHandler)
-            );
-        } else {
-            // we lost the lock. block. TODO: remove this; there should be no blocking anywhere.
-            final Moment start = X_Time.now();
-            while (refreshPending.get()) {
-                synchronized (refreshPending) {
-                    try {
-                        refreshPending.wait(10);
-                        if (X_Time.nowMillis() - start.millis() > 100) {
-                            Log.tryLog(TaskIndex.class, this, "Blocking on refresh for", X_Time.difference(start));
-                        }
-                    } catch (InterruptedException e) {
-                        Log.tryLog(TaskIndex.class, this, "Interrupted waiting for refresh lock", e);
-                    }
+    /// Immediate refresh; a delta refresh when we have a watermark, else a full resync.
+    ///
+    /// Never blocks. Returns a handle that completes (with the number of indexed tasks)
+    /// once the refresh finishes; if one is already running, this joins it, and queues a
+    /// single follow-up refresh so changes made while it ran are not missed.
+    /// A full refresh requested while a delta refresh runs cancels the delta one; the
+    /// full refresh then completes the shared handle.
+    public CompletableFuture<Integer> refresh() {
+        return refresh(false);
+    }
+
+    /// Immediate full refresh; reloads every task, and drops any we hold that no longer exist.
+    public CompletableFuture<Integer> resync() {
+        return refresh(true);
+    }
+
+    private CompletableFuture<Integer> refresh(final boolean forceFull) {
+        final CompletableFuture<Integer> handle;
+        synchronized (refreshLock) {
+            if (refreshInFlight != null) {
+                // join the running refresh; remember to run once more after it
+                refreshQueued = true;
+                refreshQueuedFull |= forceFull;
+                if (forceFull && refreshOperation != null && refreshOperation.isDelta()) {
+                    // the full refresh will see everything the delta would; stop paging it
+                    refreshOperation.cancel();
                 }
+                return refreshInFlight;
             }
-            Log.tryLog(TaskIndex.class, this, "Blocked on task refresh for", X_Time.difference(start));
+            handle = refreshInFlight = new CompletableFuture<>();
         }
+        beginRefresh(forceFull, handle);
+        return handle;
+    }
+
+    private void beginRefresh(final boolean forceFull, final CompletableFuture<Integer> handle) {
+        final ErrorHandler<? extends Throwable> failHandler = fail -> {
+            lastError = fail;
+            completeRefresh(handle, fail);
+        };
+        watermark.load(() -> startRefresh(forceFull || watermark.isMissing(), handle, failHandler));
     }
 
-    private void processResults(final RunningRefreshQuery operation, final ModelQueryResult<ModelTask> success) {
-        operation.setSuccess(success);
-        Log.tryLog(TaskIndex.class, this, "Received " + success.getSize() + " results", X_Time.now());
+    /// @return the refresh currently running, or null if the index is idle.
+    public CompletableFuture<Integer> getRefreshInFlight() {
+        synchronized (refreshLock) {
+            return refreshInFlight;
+        }
+    }
+
+    private void startRefresh(
+            final boolean full,
+            final CompletableFuture<Integer> handle,
+            final ErrorHandler<? extends Throwable> failHandler
+    ) {
+        final RunningRefreshQuery operation = new RunningRefreshQuery(failHandler, full ? 0L : watermark.get());
+        operation.setPageSize(refreshPageSize);
+        synchronized (refreshLock) {
+            if (refreshInFlight != handle) {
+                // destroyed while the watermark was loading
+                return;
+            }
+            refreshOperation = operation;
+        }
+        bucketUpdatesAtRefresh = bucketUpdates.get();
         final ModelQuery<ModelTask> query = operation.getQuery();
-        final ErrorHandler<? extends Throwable> failHandler = operation.getFailHandler();
-        for (ModelTask model : success.getModels()) {
-            upsert(model);
+        query.setNamespace(namespace);
+        if (operation.isDelta()) {
+            query.addParameter("updated", ModelQuery.ComparisonOperator.GREATER_THAN,
+                    operation.getUpdatedSince() - DELTA_OVERLAP_MILLIS);
         }
+        post(new RefreshStartedEvent(operation));
+        new RefreshPager<>(ModelTask.class, query, operation,
+                model -> {
+                    final UpdateInfo info = upsert(model);
+                    operation.getUpdates().put(info.getKey(), info);
+                    operation.observeUpdatedTimestamp(info.getLastUpdated());
+                },
+                () -> processResults(operation, handle),
+                () -> abandonRefresh(handle)
+        ).setMetrics(metrics).start();
+    }
 
-        final String newCursor = success.getCursor();
-        if (X_String.isEmpty(newCursor) || newCursor.equals(operation.getCursor())) {
-            // no cursor, we are done.
-            finishRefresh();
+    /// Every task page has been applied.
+    private void processResults(final RunningRefreshQuery operation, final CompletableFuture<Integer> handle) {
+        Log.tryLog(TaskIndex.class, this, "Received " + operation.getUpdates().size() + " results", X_Time.now());
+        if (operation.isCancelled()) {
+            abandonRefresh(handle);
+        } else if (operation.isDelta()) {
+            // a delta query can't see deleted rows; pick them up from tombstones
+            final ModelQuery<ModelTaskTombstone> tombstones = new ModelQuery<>();
+            tombstones.setNamespace(namespace);
+            tombstones.addParameter("updated", ModelQuery.ComparisonOperator.GREATER_THAN,
+                    operation.getUpdatedSince() - DELTA_OVERLAP_MILLIS);
+            new RefreshPager<>(ModelTaskTombstone.class, tombstones, operation,
+                    tombstone -> processTombstone(operation, tombstone),
+                    () -> finishRefresh(operation, handle),
+                    () -> abandonRefresh(handle)
+            ).setMetrics(metrics).start();
         } else {
-            operation.setCursor(newCursor);
-            // there is a cursor, keep loading results
-            X_Model.query(ModelTask.class, query, SuccessHandler.handler(next -> {
-                processResults(operation, next);
-            }, failHandler));
+            // a full query saw every live task; anything else we hold was deleted
+            pruneMissing(operation);
+            finishRefresh(operation, handle);
+        }
+    }
 
+    private void processTombstone(final RunningRefreshQuery operation, final ModelTaskTombstone tombstone) {
+        final ModelKey taskKey = tombstone.getTaskKey();
+        operation.observeUpdatedTimestamp(tombstone.getUpdated());
+        if (taskKey == null || operation.getUpdates().containsKey(taskKey)) {
+            // key was re-used by a task we just loaded; the live row wins
+            return;
+        }
+        if (byId.get(taskKey) != null) {
+            onTaskDeleted(taskKey);
         }
     }
 
-    private void finishRefresh() {
+    private void pruneMissing(final RunningRefreshQuery operation) {
+        final List<ModelKey> missing = new ArrayList<>();
+        for (Schedule schedule : byId.mappedValues()) {
+            if (!operation.getUpdates().containsKey(schedule.getKey())) {
+                missing.add(schedule.getKey());
+            }
+        }
+        for (ModelKey key : missing) {
+            onTaskDeleted(key);
+        }
+    }
+
+    private void finishRefresh(final RunningRefreshQuery operation, final CompletableFuture<Integer> handle) {
+        if (operation.isCancelled()) {
+            // cancelled after its last page; a partial refresh must not move the watermark
+            abandonRefresh(handle);
+            return;
+        }
+        watermark.advance(operation.getNewestUpdatedTimestamp(), !operation.isDelta());
+        refreshPageSize = operation.getPageSize();
         refreshCount.incrementAndGet();
-        post(new RefreshFinishedEvent(byId.size()));
-        refreshPending.set(false);
-        synchronized (refreshPending) {
-            refreshPending.notifyAll();
+        metrics.record(metrics.refresh, System.nanoTime() - operation.getStartedNanos());
+        metrics.record(metrics.bucketChurn, bucketUpdates.get() - bucketUpdatesAtRefresh);
+        lastError = null;
+        final int total = byId.size();
+        post(new RefreshFinishedEvent(total));
+        writeSnapshotAsync();
+        publishMetrics();
+        completeRefresh(handle, null);
+    }
+
+    /// Settles the handle of the refresh that just ended, then starts the queued follow-up (if any).
+    private void completeRefresh(final CompletableFuture<Integer> handle, final Throwable fail) {
+        final CompletableFuture<Integer> next;
+        final boolean nextFull;
+        synchronized (refreshLock) {
+            if (handle == null || refreshInFlight != handle) {
+                // already settled (i.e. destroy() while a query was running)
+                return;
+            }
+            refreshOperation = null;
+            if (refreshQueued) {
+                next = refreshInFlight = new CompletableFuture<>();
+                nextFull = refreshQueuedFull;
+                refreshQueued = refreshQueuedFull = false;
+            } else {
+                next = refreshInFlight = null;
+                nextFull = false;
+            }
+        }
+        if (fail == null) {
+            handle.complete(byId.size());
+        } else {
+            handle.completeExceptionally(fail);
+        }
+        if (next != null) {
+            beginRefresh(nextFull, next);
+        }
+    }
+
+    /// A refresh stopped part way (superseded by a full refresh); hand its handle to the follow-up.
+    private void abandonRefresh(final CompletableFuture<Integer> handle) {
+        final boolean carryOver;
+        final boolean nextFull;
+        synchronized (refreshLock) {
+            if (handle == null || refreshInFlight != handle) {
+                // destroy() already settled it
+                return;
+            }
+            refreshOperation = null;
+            carryOver = refreshQueued;
+            nextFull = refreshQueuedFull;
+            refreshQueued = refreshQueuedFull = false;
+            if (!carryOver) {
+                refreshInFlight = null;
+            }
+        }
+        if (carryOver) {
+            // callers waiting on the old refresh get the result of the one that replaced it
+            beginRefresh(nextFull, handle);
+        } else {
+            handle.completeExceptionally(new CancellationException("Refresh cancelled"));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Warm-start snapshot
+    // ---------------------------------------------------------------------
+
+    /// The model namespace this index queries (and stamps into its snapshots).
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /// Enables snapshots at `file` (null disables them).
+    ///
+    /// A snapshot is only loaded back by an index of the same namespace.
+    public void setSnapshotFile(File file) {
+        this.snapshotFile = file;
+    }
+
+    /// Fills an empty index from the snapshot file, without touching the model store.
+    ///
+    /// Posts a `RefreshFinishedEvent` with `fromSnapshot=true`, so views initialize as usual,
+    /// and caps the refresh watermark at the snapshot's, so the next `refresh()` reconciles
+    /// everything changed (or deleted) since the snapshot was written.
+    ///
+    /// @return true if a snapshot was loaded
+    public boolean loadSnapshot() {
+        final File file = snapshotFile;
+        if (file == null || byId.size() > 0) {
+            return false;
+        }
+        final TaskIndexSnapshot.Contents contents;
+        try {
+            contents = TaskIndexSnapshot.read(file);
+        } catch (IOException | RuntimeException e) {
+            Log.tryLog(TaskIndex.class, this, "Ignoring unreadable task snapshot", file, e);
+            return false;
+        }
+        if (contents == null) {
+            return false;
         }
+        if (!contents.namespace.equals(namespace)) {
+            // another namespace's tasks would never be pruned by our refreshes
+            Log.tryLog(TaskIndex.class, this, "Ignoring task snapshot from namespace '" + contents.namespace
+                    + "' (index namespace is '" + namespace + "')", file);
+            return false;
+        }
+        // stored day numbers are only reusable if bucketing settings still match
+        final boolean sameBuckets = contents.rolloverHour == rolloverHour
+                && contents.zoneId.equals(bucketZone.getId());
+        for (TaskIndexSnapshot.Entry entry : contents.entries) {
+            final ModelTask task = entry.task;
+            final ModelKey key = task.getKey();
+            final Schedule schedule = new Schedule(task);
+            byId.put(key, schedule);
+            fingerprints.put(key, TaskFingerprint.of(task));
+            if (!sameBuckets) {
+                rebucket(schedule, task.getDeadline());
+            } else if (entry.day != TaskIndexSnapshot.NO_DAY && buckets.put(entry.day, entry.deadline, schedule)) {
+                bucketUpdates.incrementAndGet();
+            }
+            reindexStatus(schedule);
+        }
+        watermark.limitTo(contents.watermark);
+        Log.tryLog(TaskIndex.class, this, "Warm start: loaded " + contents.entries.size() + " tasks from snapshot", file);
+        post(new RefreshFinishedEvent(byId.size(), true));
+        return true;
+    }
+
+    /// Writes a snapshot on a background thread; calls made while one is queued are folded into it.
+    private void writeSnapshotAsync() {
+        if (snapshotFile == null || !snapshotQueued.compareAndSet(false, true)) {
+            return;
+        }
+        final ExecutorService writer;
+        synchronized (snapshotQueued) {
+            if (snapshotWriter == null) {
+                snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+                    final Thread t = new Thread(r, "TaskIndex-snapshot-" + namespace);
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            writer = snapshotWriter;
+        }
+        writer.execute(() -> {
+            snapshotQueued.set(false);
+            final File file = snapshotFile;
+            if (file == null) {
+                return;
+            }
+            final List<TaskIndexSnapshot.Entry> entries = new ArrayList<>(byId.size());
+            for (Schedule schedule : byId.mappedValues()) {
+                final ModelTask task = schedule.getTask();
+                final Integer day = buckets.dayOf(schedule.getKey());
+                final Double deadline = task.getDeadline();
+                entries.add(new TaskIndexSnapshot.Entry(task,
+                        day == null ? TaskIndexSnapshot.NO_DAY : day,
+                        deadline == null ? 0L : deadline.longValue()));
+            }
+            try {
+                TaskIndexSnapshot.write(file, new TaskIndexSnapshot.Contents(namespace,
+                        System.currentTimeMillis(), watermark.get(), rolloverHour, bucketZone.getId(), entries));
+            } catch (IOException | RuntimeException e) {
+                Log.tryLog(TaskIndex.class, this, "Failed to write task snapshot", file, e);
+            }
+        });
     }
 
     /// Start auto-refresh every N minutes. Returns Do to stop it.
@@ -315,17 +666,18 @@ public class TaskIndex {
 
     /// Record any other change that should notify observers.
     public void onTaskUpdated(ModelTask task) {
-        upsert(task);
-        post(new TaskUpdatedEvent(task));
+        final UpdateInfo info = upsert(task);
+        post(new TaskUpdatedEvent(task, info.getChanged()));
     }
 
     public void onTaskDeleted(ModelKey taskId) {
-        Schedule removed = byId.remove(taskId);
-        if (removed != null) {
-            DateKey oldDay = bucketDate(removed.getTask().getDeadline());
-            if (oldDay != null) {
-                removeFromBucket(oldDay, removed.getKey());
-            }
+        byId.remove(taskId);
+        fingerprints.remove(taskId);
+        active.remove(taskId);
+        finished.remove(taskId);
+        canceled.remove(taskId);
+        if (buckets.remove(taskId)) {
+            bucketUpdates.incrementAndGet();
         }
         post(new TaskDeletedEvent(taskId));
     }
@@ -336,155 +688,262 @@ public class TaskIndex {
     // ---------------------------------------------------------------------
 
     private UpdateInfo upsert(ModelTask task) {
+        final long start = metrics.start();
+        try {
+            return absorb(task);
+        } finally {
+            metrics.stop(metrics.upsert, start);
+        }
+    }
+
+    private UpdateInfo absorb(ModelTask task) {
         final ModelKey modelKey = task.getKey();
+        // read before we (possibly) stamp the canonical instance, which may be this same task
+        final long incomingUpdated = task.getUpdated();
         Schedule existing = byId.get(modelKey);
         final boolean newlyAdded = existing == null;
-        // Track previous bucket (if any) before we mutate/replace
-        final DateKey oldDay;
+        // fingerprint before we stamp `updated`, so it describes the incoming version
+        final TaskFingerprint incoming = TaskFingerprint.of(task);
+        final TaskFingerprint previous = fingerprints.put(modelKey, incoming);
         final ModelTask canonical;
-        final boolean isCanonical;
         final boolean isChanged;
+        final Set<String> changed;
         if (newlyAdded) {
             canonical = task;
-            isCanonical = false;
             isChanged = true;
-            oldDay = null;
+            changed = incoming.changedSince(null);
             existing = new Schedule(task);
             byId.put(modelKey, existing);
             post(new TaskLoadedEvent(task));
         } else {
             canonical = existing.getTask();
-            isCanonical = canonical == task;
-            oldDay = bucketDate(canonical.getDeadline());
-            if (isCanonical) {
+            if (incoming.matches(previous)) {
+                // same version and content: nothing to absorb
                 isChanged = false;
+                changed = Collections.emptySet();
+            } else if (canonical == task) {
+                // mutated in place by a controller; the hook posting this carries the event
+                isChanged = false;
+                changed = incoming.changedSince(previous);
             } else {
-                final boolean[] changes = {false};
-                final Do undo = canonical.onGlobalChange((key, was, is) -> {
-                    changes[0] = true;
+                changed = incoming.changedSince(previous);
+                isChanged = !changed.isEmpty();
+                if (isChanged) {
                     Log.tryLog(TaskIndex.class, this,
-                            "Detected task change in model ", modelKey,
-                            "Property " + key, was + " -> " + is);
-                });
+                            "Detected task change in model ", modelKey, "Properties " + changed);
+                }
                 canonical.absorb(task);
-                undo.done();
-                isChanged = changes[0];
             }
         }
 
         // Post a change event for new + updated tasks
         if (isChanged) {
             canonical.setUpdated(System.currentTimeMillis());
-            post(new TaskUpdatedEvent(canonical));
+            post(new TaskUpdatedEvent(canonical, changed));
         }
 
         final Double nextTime = TaskFactory.nextTime(canonical);
-        // Reindex buckets: remove from old (if changed) and add to new (if applicable)
-        DateKey newDay = bucketDate(nextTime);
-        if (oldDay != null && !oldDay.equals(newDay)) {
-            removeFromBucket(oldDay, task.getKey());
-        }
-        if (newDay != null) {
-            addToBucket(newDay, existing);
-        }
+        // Reindex buckets: moves between days (or out, when there is no deadline) as needed
+        rebucket(existing, nextTime);
+        reindexStatus(existing);
 
-        return new UpdateInfo(modelKey, newlyAdded, task.getUpdated());
+        return new UpdateInfo(modelKey, newlyAdded, incomingUpdated, changed);
 
     }
 
-    private boolean isFinished(Schedule s) {
-        return isFinished(s.getTask());
+    /// Moves a schedule into the status partitions matching its task's current state (re-sorting it).
+    private void reindexStatus(Schedule s) {
+        final ModelTask t = s.getTask();
+        final ModelKey key = s.getKey();
+        if (isFinished(t)) {
+            finished.put(s);
+        } else {
+            finished.remove(key);
+        }
+        if (isCanceled(t)) {
+            canceled.put(s);
+        } else {
+            canceled.remove(key);
+        }
+        if (isActive(t)) {
+            active.put(s);
+        } else {
+            active.remove(key);
+        }
     }
+
     private boolean isFinished(ModelTask t) {
         return t.isFinished();
     }
 
-    private boolean isCanceled(Schedule s) {
-        return isCanceled(s.getTask());
-    }
     private boolean isCanceled(ModelTask t) {
         return t.isCancelled();
     }
 
-    private boolean isActive(Schedule s) {
-        return isActive(s.getTask());
-    }
     private boolean isActive(ModelTask t) {
         return !isFinished(t) && !isCanceled(t);
     }
 
     private void post(TaskEvent evt) {
-        // Always notify on the main thread for UI safety.
-        Gdx.app.postRunnable(() -> {
-            for (TaskEventListener l : listeners) {
-                try {
-                    l.onEvent(evt);
-                } catch (Throwable ignored) {
-                }
+        batcher.post(evt);
+    }
+
+    /// Runs on the main thread, once per frame, with every event posted since the last frame.
+    private void deliver(List<TaskEvent> batch) {
+        for (TaskEventBatchListener l : batchListeners) {
+            final long start = metrics.start();
+            try {
+                l.onEvents(batch);
+            } catch (Throwable ignored) {
             }
-        });
+            metrics.stopListener(l, start);
+        }
+        for (TaskEvent evt : batch) {
+            dispatcher.dispatch(evt);
+        }
     }
 
 
 // ------------------------- Bucketing helpers + API -------------------------
 
-    private DateKey bucketDate(Double epochMillis) {
-        if (epochMillis == null || epochMillis == 0d) return null;
-        TimeComponents now = X_Time.breakdown(X_Time.nowMillis(), ModelSettings.timeZone());
-        if (now.getHour() < rolloverHour) {
-            now = X_Time.breakdown(now.getEpochMillis() - (rolloverHour * 60 * 60 * 1000L), bucketZone);
-        }
-        // Note: DateKey equality/hash only use year/dayOfYear
-        return DateKey.from(now);
+    /// @return the local day (in bucketZone, honoring rolloverHour) that a deadline belongs to
+    private int bucketDay(long epochMillis) {
+        return dayIndexService.computeLocalDayNum(epochMillis, bucketZone, rolloverHour);
     }
 
-    private void addToBucket(DateKey day, Schedule schedule) {
-        // Only bucket tasks with a real deadline; active filter is applied at read-time
-        byDay.computeIfAbsent(day, d -> new CopyOnWriteArrayList<>()).addIfAbsent(schedule);
-        bucketUpdates.incrementAndGet();
+    private void rebucket(Schedule schedule, Double deadline) {
+        final boolean changed;
+        if (deadline == null || deadline == 0d) {
+            // Only bucket tasks with a real deadline; active filter is applied at read-time
+            changed = buckets.remove(schedule.getKey());
+        } else {
+            final long millis = deadline.longValue();
+            changed = buckets.put(bucketDay(millis), millis, schedule);
+        }
+        if (changed) {
+            bucketUpdates.incrementAndGet();
+        }
     }
 
-    private void removeFromBucket(DateKey day, ModelKey key) {
-        CopyOnWriteArrayList<Schedule> list = byDay.get(day);
-        if (list != null) {
-            list.removeIf(m -> m.getKey().equals(key));
-            bucketUpdates.incrementAndGet();
-            if (list.isEmpty()) {
-                byDay.remove(day, list);
-                // TODO hide missing days
+    /// Re-buckets every task; used when the zone or rollover hour changes.
+    /// Day numbers are computed in one bulk pass, sorted, so the zone offset is looked up once per DST segment.
+    private void rebucketAll() {
+        final List<Dated> dated = new ArrayList<>();
+        for (Schedule schedule : byId.mappedValues()) {
+            final Double deadline = schedule.getTask().getDeadline();
+            if (deadline == null || deadline == 0d) {
+                rebucket(schedule, deadline);
+            } else {
+                dated.add(new Dated(schedule, deadline.longValue()));
+            }
+        }
+        dated.sort((a, b) -> Long.compare(a.millis, b.millis));
+        final long[] millis = new long[dated.size()];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = dated.get(i).millis;
+        }
+        final int[] days = new int[millis.length];
+        dayIndexService.computeLocalDayNums(millis, days, bucketZone, rolloverHour);
+        for (int i = 0; i < millis.length; i++) {
+            if (buckets.put(days[i], millis[i], dated.get(i).schedule)) {
+                bucketUpdates.incrementAndGet();
             }
         }
     }
 
+    /// A schedule with the deadline we read for it, so a concurrent edit can't change it mid-rebucket.
+    private static final class Dated {
+        final Schedule schedule;
+        final long millis;
+
+        Dated(Schedule schedule, long millis) {
+            this.schedule = schedule;
+            this.millis = millis;
+        }
+    }
+
+    /// The DayIndex of the calendar date that `day` falls on (in its own zone).
+    /// Matches the day a deadline is bucketed under, after rollover is applied.
+    public DayIndex dayOf(TimeComponents day) {
+        return dayIndexService.computeLocalDayIndex((long) day.getEpochMillis(), day.getZone(), 0);
+    }
+
+    /// The DayIndex of a calendar date; no zone math, DateKey already holds the day number.
+    public DayIndex dayOf(DateKey day) {
+        return day.getDayIndex();
+    }
+
+    /// Today's date in bucketZone, honoring rolloverHour (the day a deadline set now is bucketed under).
+    public DateKey today() {
+        return DateKey.at(System.currentTimeMillis(), bucketZone, rolloverHour);
+    }
+
     /// Return tasks for a given day that have deadlines, filtered to active and sorted by deadline time.
     public List<Schedule> getDayWithDeadlines(TimeComponents day) {
-        CopyOnWriteArrayList<Schedule> raw = byDay.get(DateKey.from(day));
-        if (raw == null || raw.isEmpty()) return Collections.emptyList();
-        List<Schedule> out = new ArrayList<>();
-        for (Schedule t : raw) {
+        return getDayWithDeadlines(dayOf(day));
+    }
+
+    /// Return tasks for a given day that have deadlines, filtered to active and sorted by deadline time.
+    public List<Schedule> getDayWithDeadlines(DateKey day) {
+        return activeOnly(buckets.get(day.getDayNum()));
+    }
+
+    /// Return tasks for a given day that have deadlines, filtered to active and sorted by deadline time.
+    public List<Schedule> getDayWithDeadlines(DayIndex day) {
+        return activeOnly(buckets.get(day.getDayNum()));
+    }
+
+    /// Every day in `[fromDay, toDay]` with at least one active deadline, ascending;
+    /// each day's tasks are filtered to active and sorted by deadline time.
+    public Map<DayIndex, List<Schedule>> getDaysWithDeadlines(DayIndex fromDay, DayIndex toDay) {
+        final Map<DayIndex, List<Schedule>> out = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Schedule>> e : buckets.range(fromDay.getDayNum(), toDay.getDayNum()).entrySet()) {
+            final List<Schedule> day = activeOnly(e.getValue());
+            if (!day.isEmpty()) {
+                out.put(DayIndex.of(e.getKey()), day);
+            }
+        }
+        return out;
+    }
+
+    private List<Schedule> activeOnly(List<Schedule> sorted) {
+        if (sorted.isEmpty()) return sorted;
+        final List<Schedule> out = new ArrayList<>(sorted.size());
+        for (Schedule t : sorted) {
             try {
                 if (isActive(t.getTask())) {
-                    Double d = t.getTask().getDeadline();
-                    if (d != null && d != 0d) {
-                        out.add(t);
-                    }
+                    out.add(t);
                 }
             } catch (Throwable ignored) {
             }
         }
-        out.sort(Comparator.comparingLong(Schedule::getNextDueMillis));
         return out;
     }
 
 
     /// Configure the rollover hour used to bucket deadlines into days (default 4).
     public void setRolloverHour(int hour0to23) {
-        this.rolloverHour = Math.max(0, Math.min(23, hour0to23));
+        final int hour = Math.max(0, Math.min(23, hour0to23));
+        if (hour != rolloverHour) {
+            this.rolloverHour = hour;
+            rebucketAll();
+        }
+    }
+
+    public int getRolloverHour() {
+        return rolloverHour;
+    }
+
+    public TimeZoneInfo getBucketZone() {
+        return bucketZone;
     }
 
     /// Configure the time zone used for day bucketing (default system zone).
     public void setBucketZone(TimeZoneInfo zone) {
-        if (zone != null) this.bucketZone = zone;
+        if (zone != null && zone != bucketZone) {
+            this.bucketZone = zone;
+            rebucketAll();
+        }
     }
 
     /// Diagnostic counters
@@ -496,15 +955,78 @@ public class TaskIndex {
         return bucketUpdates.get();
     }
 
+    public int getListenerCount() {
+        return dispatcher.getListenerCount() + batchListeners.size();
+    }
+
+    /// The live instruments; use it to disable or reset them, or to read a single histogram.
+    public TaskIndexMetrics getMetrics() {
+        return metrics;
+    }
+
+    /// Everything recorded so far, plus current gauges (queue depth, bucket sizes...).
+    public TaskIndexMetricsSnapshot getMetricsSnapshot() {
+        final List<HistogramSnapshot> histograms = new ArrayList<>();
+        for (Histogram histogram : metrics.histograms()) {
+            histograms.add(histogram.snapshot());
+        }
+        return new TaskIndexMetricsSnapshot(
+                System.currentTimeMillis(),
+                byId.size(),
+                refreshCount.get(),
+                bucketUpdates.get(),
+                getListenerCount(),
+                batcher.getPendingCount(),
+                histograms,
+                HistogramSnapshot.of("bucketSizes", buckets.daySizes()),
+                metrics.listenerSnapshots()
+        );
+    }
+
+    /// Receives a snapshot after every finished refresh (null to stop).
+    public void setMetricsSink(TaskIndexMetricsSink sink) {
+        this.metricsSink = sink;
+    }
+
+    /// Sends a snapshot to the metrics sink now, if there is one.
+    public void publishMetrics() {
+        final TaskIndexMetricsSink sink = metricsSink;
+        if (sink != null) {
+            try {
+                sink.onMetrics(getMetricsSnapshot());
+            } catch (Throwable t) {
+                Log.tryLog(TaskIndex.class, this, "Metrics sink failed", t);
+            }
+        }
+    }
+
+    /// Newest `updated` timestamp absorbed by a completed refresh; 0 until the first one finishes.
+    public long getUpdatedSince() {
+        return watermark.get();
+    }
+
+    /// @return true if a follow-up refresh is queued behind the running one.
+    /// For tests and tooling only.
+    boolean isRefreshQueued() {
+        synchronized (refreshLock) {
+            return refreshQueued;
+        }
+    }
+
+    /// Waits (up to `timeout` millis) for the running refresh, if any.
+    /// For tests and tooling only: never call this from the render thread.
     void awaitRefresh(final long timeout) {
-        if (refreshPending.get()) {
-            synchronized (refreshPending) {
-                try {
-                    refreshPending.wait(timeout);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw X_Fu.rethrow(e);
-                }
+        final CompletableFuture<Integer> pending = getRefreshInFlight();
+        if (pending != null) {
+            try {
+                pending.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw X_Fu.rethrow(e);
+            } catch (ExecutionException e) {
+                throw X_Fu.rethrow(e.getCause());
+            } catch (TimeoutException ignored) {
+                Log.tryLog(TaskIndex.class, this, "Refresh still running after " + timeout + "ms");
             }
         }
         if (lastError != null) {
@@ -513,7 +1035,27 @@ public class TaskIndex {
     }
 
     public void destroy() {
-        autoRefreshTask.cancel();
-
+        stopAutoRefresh();
+        synchronized (snapshotQueued) {
+            if (snapshotWriter != null) {
+                // let a queued write finish; it is a daemon thread either way
+                snapshotWriter.shutdown();
+                snapshotWriter = null;
+            }
+        }
+        final CompletableFuture<Integer> pending;
+        synchronized (refreshLock) {
+            pending = refreshInFlight;
+            if (refreshOperation != null) {
+                // stops paging; the pager's late callbacks find the handle already settled
+                refreshOperation.cancel();
+                refreshOperation = null;
+            }
+            refreshInFlight = null;
+            refreshQueued = refreshQueuedFull = false;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
     }
 }
\ No newline at end of file
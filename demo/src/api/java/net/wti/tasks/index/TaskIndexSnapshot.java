@@ -0,0 +1,160 @@
+package net.wti.tasks.index;
+
+import net.wti.ui.demo.api.ModelTask;
+import xapi.model.X_Model;
+import xapi.model.api.ModelKey;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+///
+/// TaskIndexSnapshot
+///
+/// Compact binary image of a TaskIndex, for warm starts:
+/// ```
+/// int    MAGIC ("WTIX")
+/// int    VERSION
+/// bytes  namespace (of the TaskIndex that wrote it)
+/// long   writtenAt (epoch millis)
+/// long   watermark (newest `updated` absorbed; 0 = unknown)
+/// int    rolloverHour      \ the bucketing settings the stored
+/// bytes  bucketZone id     / day numbers were computed with
+/// int    count
+/// count × {
+///   bytes  task key (X_Model.keyToString)
+///   bytes  task model (X_Model.serialize)
+///   int    bucket day (NO_DAY when unbucketed)
+///   long   bucket deadline
+/// }
+/// ```
+/// `bytes` is an int length followed by that many UTF-8 bytes.
+///
+/// Reads memory-map the file; writes go to a sibling temp file which is then moved over
+/// the snapshot, so a crash mid-write never leaves a torn snapshot behind.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 14:00
+final class TaskIndexSnapshot {
+
+    static final int MAGIC = 0x57544958; // "WTIX"
+    static final int VERSION = 2;
+    static final int NO_DAY = Integer.MIN_VALUE;
+
+    /// One task, and where it was bucketed.
+    static final class Entry {
+        final ModelTask task;
+        final int day;
+        final long deadline;
+
+        Entry(final ModelTask task, final int day, final long deadline) {
+            this.task = task;
+            this.day = day;
+            this.deadline = deadline;
+        }
+    }
+
+    /// Everything stored in (or loaded from) a snapshot.
+    static final class Contents {
+        final String namespace;
+        final long writtenAt;
+        final long watermark;
+        final int rolloverHour;
+        final String zoneId;
+        final List<Entry> entries;
+
+        Contents(final String namespace, final long writtenAt, final long watermark, final int rolloverHour, final String zoneId, final List<Entry> entries) {
+            this.namespace = namespace == null ? "" : namespace;
+            this.writtenAt = writtenAt;
+            this.watermark = watermark;
+            this.rolloverHour = rolloverHour;
+            this.zoneId = zoneId == null ? "" : zoneId;
+            this.entries = entries;
+        }
+    }
+
+    private TaskIndexSnapshot() {}
+
+    static void write(final File file, final Contents contents) throws IOException {
+        final File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create snapshot directory " + dir);
+        }
+        final File tmp = new File(dir, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeBytes(out, contents.namespace);
+            out.writeLong(contents.writtenAt);
+            out.writeLong(contents.watermark);
+            out.writeInt(contents.rolloverHour);
+            writeBytes(out, contents.zoneId);
+            out.writeInt(contents.entries.size());
+            for (Entry e : contents.entries) {
+                writeBytes(out, X_Model.keyToString(e.task.getKey()));
+                writeBytes(out, X_Model.serialize(ModelTask.class, e.task));
+                out.writeInt(e.day);
+                out.writeLong(e.deadline);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /// @return the snapshot contents, or null if there is no (valid, current-version) snapshot
+    static Contents read(final File file) throws IOException {
+        if (!file.isFile() || file.length() < 8) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return null;
+            }
+            final String namespace = readBytes(buf);
+            final long writtenAt = buf.getLong();
+            final long watermark = buf.getLong();
+            final int rolloverHour = buf.getInt();
+            final String zoneId = readBytes(buf);
+            final int count = buf.getInt();
+            final List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final ModelKey key = X_Model.keyFromString(readBytes(buf));
+                final ModelTask task = X_Model.deserialize(ModelTask.class, readBytes(buf));
+                final int day = buf.getInt();
+                final long deadline = buf.getLong();
+                if (task.getKey() == null) {
+                    task.setKey(key);
+                }
+                entries.add(new Entry(task, day, deadline));
+            }
+            return new Contents(namespace, writtenAt, watermark, rolloverHour, zoneId, entries);
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readBytes(final ByteBuffer buf) throws IOException {
+        final int length = buf.getInt();
+        if (length < 0 || length > buf.remaining()) {
+            throw new IOException("Corrupt snapshot: string of length " + length + " with " + buf.remaining() + " bytes left");
+        }
+        final byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package net.wti.tasks.index;
+
+import net.wti.ui.demo.api.ModelTask;
+import net.wti.ui.demo.api.Schedule;
+import xapi.fu.itr.MappedIterable;
+import xapi.model.api.ModelKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+///
+/// TaskPartition
+///
+/// One incrementally-maintained status set of a TaskIndex (active, finished or canceled).
+///
+/// - membership is a concurrent map, so `size()` and `contains()` are O(1)
+/// - two skip-list views are kept sorted on write: by next due time, and by priority
+/// - sort keys are captured when a schedule is (re)inserted, so a task mutated in place
+///   can never corrupt the ordering; TaskIndex re-puts on every upsert, and a put whose
+///   keys did not move is a no-op (keeping the entry's place among ties)
+///
+/// Reads return snapshots, which are safe to iterate while the index keeps changing.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 11:20
+final class TaskPartition {
+
+    /// Soonest due first; tasks without a due time sort last.
+    static final Comparator<Entry> BY_DUE = Comparator
+            .comparingLong((Entry e) -> e.due)
+            .thenComparingLong(e -> e.seq);
+
+    /// Highest priority first, then title A→Z (matching TodayView's goals list).
+    static final Comparator<Entry> BY_PRIORITY = Comparator
+            .comparingInt((Entry e) -> -e.priority)
+            .thenComparing(e -> e.title, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(e -> e.seq);
+
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    static final class Entry {
+        final Schedule schedule;
+        final long due;
+        final int priority;
+        final String title;
+        final long seq;
+
+        private Entry(final Schedule schedule, final long due, final int priority, final String title, final long seq) {
+            this.schedule = schedule;
+            this.due = due;
+            this.priority = priority;
+            this.title = title;
+            this.seq = seq;
+        }
+    }
+
+    private final String name;
+    private final ConcurrentHashMap<ModelKey, Entry> members = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> byDue = new ConcurrentSkipListSet<>(BY_DUE);
+    private final ConcurrentSkipListSet<Entry> byPriority = new ConcurrentSkipListSet<>(BY_PRIORITY);
+
+    TaskPartition(final String name) {
+        this.name = name;
+    }
+
+    /// Adds (or re-sorts) a schedule. Writers are serialized so both views move together.
+    ///
+    /// Re-putting a member whose sort keys are unchanged touches neither view; a member that
+    /// moves keeps its sequence number, so equal keys stay in insertion order.
+    synchronized void put(final Schedule schedule) {
+        final ModelTask task = schedule.getTask();
+        final Long nextDue = schedule.getNextDueMillis();
+        final String name = task.getName();
+        final long due = nextDue == null || nextDue == 0L ? Long.MAX_VALUE : nextDue;
+        final int priority = task.getPriority();
+        final String title = name == null ? "" : name;
+
+        final Entry old = members.get(schedule.getKey());
+        if (old != null && old.schedule == schedule
+                && old.due == due && old.priority == priority && old.title.equals(title)) {
+            return;
+        }
+        final Entry entry = new Entry(schedule, due, priority, title, old == null ? SEQ.incrementAndGet() : old.seq);
+        members.put(schedule.getKey(), entry);
+        if (old != null) {
+            byDue.remove(old);
+            byPriority.remove(old);
+        }
+        byDue.add(entry);
+        byPriority.add(entry);
+    }
+
+    synchronized boolean remove(final ModelKey key) {
+        final Entry old = members.remove(key);
+        if (old == null) {
+            return false;
+        }
+        byDue.remove(old);
+        byPriority.remove(old);
+        return true;
+    }
+
+    synchronized void clear() {
+        members.clear();
+        byDue.clear();
+        byPriority.clear();
+    }
+
+    boolean contains(final ModelKey key) {
+        return members.containsKey(key);
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    /// Unordered snapshot.
+    MappedIterable<Schedule> all() {
+        final List<Schedule> out = new ArrayList<>(members.size());
+        for (Entry e : members.values()) {
+            out.add(e.schedule);
+        }
+        return MappedIterable.mapped(out);
+    }
+
+    /// Snapshot, soonest due first.
+    MappedIterable<Schedule> sortedByDue() {
+        return snapshot(byDue);
+    }
+
+    /// Snapshot, highest priority first.
+    MappedIterable<Schedule> sortedByPriority() {
+        return snapshot(byPriority);
+    }
+
+    private MappedIterable<Schedule> snapshot(final ConcurrentSkipListSet<Entry> view) {
+        final List<Schedule> out = new ArrayList<>(members.size());
+        for (Entry e : view) {
+            out.add(e.schedule);
+        }
+        return MappedIterable.mapped(out);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPartition{" + name + ", size=" + members.size() + '}';
+    }
+}
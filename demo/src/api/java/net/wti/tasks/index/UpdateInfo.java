@@ -2,6 +2,9 @@ package net.wti.tasks.index;
 
 import xapi.model.api.ModelKey;
 
+import java.util.Collections;
+import java.util.Set;
+
 ///
 /// UpdateInfo
 ///
@@ -9,6 +12,7 @@ import xapi.model.api.ModelKey;
 ///  - whether the task was newly added
 ///  - the last-updated timestamp from the task model
 ///  - the task key (optional convenience)
+///  - the names of the properties that changed (empty when nothing changed)
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 28/08/2025 @ 00:07
 public final class UpdateInfo {
@@ -16,11 +20,17 @@ public final class UpdateInfo {
     private final ModelKey key;
     private final boolean newlyAdded;
     private final long lastUpdated;
+    private final Set<String> changed;
 
     public UpdateInfo(ModelKey key, boolean newlyAdded, long lastUpdated) {
+        this(key, newlyAdded, lastUpdated, Collections.emptySet());
+    }
+
+    public UpdateInfo(ModelKey key, boolean newlyAdded, long lastUpdated, Set<String> changed) {
         this.key = key;
         this.newlyAdded = newlyAdded;
         this.lastUpdated = lastUpdated;
+        this.changed = changed;
     }
 
     public ModelKey getKey() {
@@ -35,12 +45,17 @@ public final class UpdateInfo {
         return lastUpdated;
     }
 
+    public Set<String> getChanged() {
+        return changed;
+    }
+
     @Override
     public String toString() {
         return "UpdateInfo{" +
                 "key=" + key +
                 ", newlyAdded=" + newlyAdded +
                 ", lastUpdated=" + lastUpdated +
+                ", changed=" + changed +
                 '}';
     }
 }
@@ -0,0 +1,83 @@
+package net.wti.tasks.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+///
+/// Histogram
+///
+/// A lock-free, allocation-free histogram of non-negative long values (nanos, counts...).
+///
+/// Values land in power-of-two buckets: bucket 0 holds 0, bucket `i` holds `[2^(i-1), 2^i)`.
+/// That keeps `record` to a few atomic adds, at the price of percentiles that are only
+/// accurate to within a factor of two (they report the bucket's upper bound, capped at max).
+///
+/// Read it with `snapshot()`; concurrent writers may make a snapshot very slightly inconsistent
+/// (e.g. a count one ahead of its bucket), which is fine for diagnostics.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 11:20
+public final class Histogram {
+
+    static final int BUCKETS = 64;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name cannot be null");
+        }
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /// Records one value; negative values count as 0.
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // another writer raised max; retry against the new value
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    public HistogramSnapshot snapshot() {
+        final long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return new HistogramSnapshot(name, count.get(), sum.get(), max.get(), copy);
+    }
+
+    static int bucketOf(final long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /// @return the largest value bucket `i` can hold.
+    static long upperBound(final int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+package net.wti.tasks.metrics;
+
+///
+/// HistogramSnapshot
+///
+/// Immutable copy of a Histogram at one moment, with derived mean and percentiles.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 11:25
+public final class HistogramSnapshot {
+
+    private final String name;
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long[] buckets;
+
+    HistogramSnapshot(final String name, final long count, final long sum, final long max, final long[] buckets) {
+        this.name = name;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.buckets = buckets;
+    }
+
+    /// Builds a snapshot straight from a set of values; used for gauges sampled at snapshot time.
+    public static HistogramSnapshot of(final String name, final int[] values) {
+        final Histogram histogram = new Histogram(name);
+        for (int value : values) {
+            histogram.record(value);
+        }
+        return histogram.snapshot();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /// @param percentile 0-100
+    /// @return an upper bound for the given percentile (within a factor of two), never above max.
+    public long getPercentile(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100d));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(max, Histogram.upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    /// @return the number of values recorded in power-of-two bucket `i` (see Histogram).
+    public long getBucketCount(final int i) {
+        return buckets[i];
+    }
+
+    public int getBucketTotal() {
+        return buckets.length;
+    }
+
+    /// Single-line `key=value` form, for logs and for diffing between runs.
+    @Override
+    public String toString() {
+        return name + " count=" + count + " mean=" + (long) getMean()
+                + " p50=" + getPercentile(50) + " p90=" + getPercentile(90)
+                + " p99=" + getPercentile(99) + " max=" + max;
+    }
+}
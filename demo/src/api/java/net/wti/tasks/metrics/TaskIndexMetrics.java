@@ -0,0 +1,127 @@
+package net.wti.tasks.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+///
+/// TaskIndexMetrics
+///
+/// The instruments a TaskIndex records into; read them with TaskIndex.getMetricsSnapshot(),
+/// or push them to a TaskIndexMetricsSink.
+///
+/// | histogram        | unit  | one value per                                         |
+/// |------------------|-------|-------------------------------------------------------|
+/// | `refresh`        | nanos | finished refresh (start to finish)                    |
+/// | `query`          | nanos | result page (request sent to page received)           |
+/// | `page`           | nanos | result page applied                                   |
+/// | `upsert`         | nanos | task absorbed into the index                          |
+/// | `queueDepth`     | count | event batch (events waiting when the frame flushed)   |
+/// | `deliveryLag`    | nanos | event batch (oldest event's post until its delivery)  |
+/// | `bucketChurn`    | count | finished refresh (bucket updates it caused)           |
+/// | listener (each)  | nanos | event (or batch) handled by that listener             |
+///
+/// Recording costs a `System.nanoTime()` pair and a few atomic adds; nothing allocates,
+/// except the first time a listener is timed. Use the idiom:
+/// ```java
+/// final long start = metrics.start();
+/// doWork();
+/// metrics.stop(metrics.upsert, start);
+///```
+/// `setEnabled(false)` turns `start()` into a constant, and every `stop` into a no-op.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 11:30
+public final class TaskIndexMetrics {
+
+    /// Returned by start() while disabled; stop() ignores it.
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    public final Histogram refresh = new Histogram("refresh");
+    public final Histogram query = new Histogram("query");
+    public final Histogram page = new Histogram("page");
+    public final Histogram upsert = new Histogram("upsert");
+    public final Histogram queueDepth = new Histogram("queueDepth");
+    public final Histogram deliveryLag = new Histogram("deliveryLag");
+    public final Histogram bucketChurn = new Histogram("bucketChurn");
+
+    private final Map<Object, Histogram> listeners = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /// Records the nanos since `start` into `into`.
+    public void stop(final Histogram into, final long start) {
+        if (start != NOT_TIMED) {
+            into.record(System.nanoTime() - start);
+        }
+    }
+
+    /// Records a plain value (a count or a precomputed duration).
+    public void record(final Histogram into, final long value) {
+        if (enabled) {
+            into.record(value);
+        }
+    }
+
+    /// Records the nanos since `start` against one listener.
+    public void stopListener(final Object listener, final long start) {
+        if (start != NOT_TIMED) {
+            final long nanos = System.nanoTime() - start;
+            Histogram histogram = listeners.get(listener);
+            if (histogram == null) {
+                histogram = listeners.computeIfAbsent(listener, l -> new Histogram(listenerName(l)));
+            }
+            histogram.record(nanos);
+        }
+    }
+
+    /// Drops a listener's timings; call when it unsubscribes, so listeners aren't retained.
+    public void forgetListener(final Object listener) {
+        listeners.remove(listener);
+    }
+
+    public void reset() {
+        for (Histogram histogram : histograms()) {
+            histogram.reset();
+        }
+        listeners.clear();
+    }
+
+    /// The fixed histograms, in table order.
+    public List<Histogram> histograms() {
+        final List<Histogram> all = new ArrayList<>(7);
+        all.add(refresh);
+        all.add(query);
+        all.add(page);
+        all.add(upsert);
+        all.add(queueDepth);
+        all.add(deliveryLag);
+        all.add(bucketChurn);
+        return all;
+    }
+
+    /// Snapshots of every listener's timings, keyed by listener name.
+    public Map<String, HistogramSnapshot> listenerSnapshots() {
+        final Map<String, HistogramSnapshot> out = new TreeMap<>();
+        for (Histogram histogram : listeners.values()) {
+            out.put(histogram.getName(), histogram.snapshot());
+        }
+        return out;
+    }
+
+    private static String listenerName(final Object listener) {
+        return listener.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(listener));
+    }
+}
@@ -0,0 +1,9 @@
+package net.wti.tasks.metrics;
+
+/// Receives TaskIndex metrics; see TaskIndex.setMetricsSink.
+/// Called on the refreshing thread after every finished refresh (and on demand), so keep it cheap
+/// or hand the snapshot off; it is immutable.
+@FunctionalInterface
+public interface TaskIndexMetricsSink {
+    void onMetrics(TaskIndexMetricsSnapshot snapshot);
+}
@@ -0,0 +1,79 @@
+package net.wti.tasks.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+///
+/// TaskIndexMetricsSnapshot
+///
+/// Everything TaskIndexMetrics has recorded, plus the gauges sampled when the snapshot was taken:
+/// - `taskCount`, `refreshCount`, `bucketUpdateCount`, `listenerCount`
+/// - `pendingEvents`: events posted but not yet flushed to the GL thread
+/// - `bucketSizes`: one value per deadline bucket (day), the number of tasks due that day
+///
+/// `toString()` prints one `key=value` line per instrument, for logs and diffs between runs.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 11:40
+public final class TaskIndexMetricsSnapshot {
+
+    public final long takenAtMillis;
+    public final int taskCount;
+    public final int refreshCount;
+    public final int bucketUpdateCount;
+    public final int listenerCount;
+    public final int pendingEvents;
+    public final List<HistogramSnapshot> histograms;
+    public final HistogramSnapshot bucketSizes;
+    public final Map<String, HistogramSnapshot> listeners;
+
+    public TaskIndexMetricsSnapshot(
+            final long takenAtMillis,
+            final int taskCount,
+            final int refreshCount,
+            final int bucketUpdateCount,
+            final int listenerCount,
+            final int pendingEvents,
+            final List<HistogramSnapshot> histograms,
+            final HistogramSnapshot bucketSizes,
+            final Map<String, HistogramSnapshot> listeners
+    ) {
+        this.takenAtMillis = takenAtMillis;
+        this.taskCount = taskCount;
+        this.refreshCount = refreshCount;
+        this.bucketUpdateCount = bucketUpdateCount;
+        this.listenerCount = listenerCount;
+        this.pendingEvents = pendingEvents;
+        this.histograms = Collections.unmodifiableList(histograms);
+        this.bucketSizes = bucketSizes;
+        this.listeners = Collections.unmodifiableMap(listeners);
+    }
+
+    /// @return the named histogram (refresh, query, page, upsert, queueDepth, deliveryLag, bucketChurn), or null.
+    public HistogramSnapshot get(final String name) {
+        for (HistogramSnapshot histogram : histograms) {
+            if (histogram.getName().equals(name)) {
+                return histogram;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder("taskIndex takenAt=").append(takenAtMillis)
+                .append(" tasks=").append(taskCount)
+                .append(" refreshes=").append(refreshCount)
+                .append(" bucketUpdates=").append(bucketUpdateCount)
+                .append(" listeners=").append(listenerCount)
+                .append(" pendingEvents=").append(pendingEvents);
+        for (HistogramSnapshot histogram : histograms) {
+            b.append('\n').append(histogram);
+        }
+        b.append('\n').append(bucketSizes);
+        for (HistogramSnapshot histogram : listeners.values()) {
+            b.append("\nlistener ").append(histogram);
+        }
+        return b.toString();
+    }
+}
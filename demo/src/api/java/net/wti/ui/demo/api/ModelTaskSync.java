@@ -0,0 +1,44 @@
+package net.wti.ui.demo.api;
+
+import xapi.annotation.model.IsModel;
+import xapi.annotation.model.PersistenceStrategy;
+import xapi.annotation.model.Persistent;
+import xapi.model.api.KeyBuilder;
+import xapi.model.api.Model;
+import xapi.model.api.ModelKey;
+
+/// ModelTaskSync
+///
+/// Persistent refresh state for one TaskIndex namespace.
+///
+/// `updatedSince` is the high-water mark of `ModelTask.updated` values absorbed
+/// so far; a null / missing value forces the next refresh to be a full resync.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 09:14
+@IsModel(
+        modelType = ModelTaskSync.MODEL_TASK_SYNC,
+        persistence = @Persistent(strategy = PersistenceStrategy.Remote)
+)
+public interface ModelTaskSync extends Model {
+
+    String MODEL_TASK_SYNC = "tskSync";
+
+    /// Key id used for the empty (default) namespace
+    String DEFAULT_NAMESPACE = "default";
+
+    KeyBuilder KEY_BUILDER_SYNC =
+            KeyBuilder.build(MODEL_TASK_SYNC).withType(ModelKey.KEY_TYPE_STRING);
+
+    static ModelKey newKey(String namespace) {
+        return KEY_BUILDER_SYNC.buildKey(namespace == null || namespace.isEmpty() ? DEFAULT_NAMESPACE : namespace);
+    }
+
+    /// Newest `updated` timestamp observed by a completed refresh
+    Long getUpdatedSince();
+    ModelTaskSync setUpdatedSince(Long updatedSince);
+
+    /// When the last full resync finished (epoch millis)
+    Long getLastFullSync();
+    ModelTaskSync setLastFullSync(Long lastFullSync);
+
+}
@@ -0,0 +1,47 @@
+package net.wti.ui.demo.api;
+
+import xapi.annotation.model.IsModel;
+import xapi.annotation.model.PersistenceStrategy;
+import xapi.annotation.model.Persistent;
+import xapi.model.X_Model;
+import xapi.model.api.KeyBuilder;
+import xapi.model.api.Model;
+import xapi.model.api.ModelKey;
+
+/// ModelTaskTombstone
+///
+/// Marker left behind when a ModelTask is deleted, so that delta refreshes
+/// (which only see rows updated since their watermark) can still observe removals.
+///
+/// Keyed by the id of the deleted task, in the task's namespace (so a namespaced
+/// TaskIndex's tombstone query finds it); `updated` is the deletion time.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 09:12
+@IsModel(
+        modelType = ModelTaskTombstone.MODEL_TASK_TOMBSTONE,
+        persistence = @Persistent(strategy = PersistenceStrategy.Remote)
+)
+public interface ModelTaskTombstone extends Model {
+
+    String MODEL_TASK_TOMBSTONE = "tskDel";
+
+    KeyBuilder KEY_BUILDER_TOMBSTONE =
+            KeyBuilder.build(MODEL_TASK_TOMBSTONE).withType(ModelKey.KEY_TYPE_STRING);
+
+    static ModelKey newKey(ModelKey taskKey) {
+        final String namespace = taskKey.getNamespace();
+        if (namespace == null || namespace.isEmpty()) {
+            return KEY_BUILDER_TOMBSTONE.buildKey(String.valueOf(taskKey.getId()));
+        }
+        return X_Model.newKey(namespace, MODEL_TASK_TOMBSTONE).setId(String.valueOf(taskKey.getId()));
+    }
+
+    /// Key of the ModelTask that was deleted
+    ModelKey getTaskKey();
+    ModelTaskTombstone setTaskKey(ModelKey taskKey);
+
+    /// Timestamp (epoch millis) of the deletion; compared against the refresh watermark
+    long getUpdated();
+    ModelTaskTombstone setUpdated(long updated);
+
+}
@@ -0,0 +1,68 @@
+package net.wti.tasks.index
+
+import net.wti.time.api.DayIndex
+import spock.lang.Specification
+import spock.lang.Unroll
+import xapi.time.api.TimeComponents
+import xapi.time.api.TimeZoneInfo
+
+/// DateKeyTest
+///
+/// DateKey is a calendar date held as a DayIndex day number: stepping days is integer math,
+/// the rollover rule is applied when an instant is turned into a date, and getTime() is local
+/// midnight of the date, even across DST changes.
+class DateKeyTest extends Specification {
+
+    static final long DAY = 86_400_000L
+    static final long HOUR = 3_600_000L
+
+    @Unroll
+    def "stepping a year of days in #zoneName lands on consecutive local midnights"() {
+        given:
+        final TimeZoneInfo zone = [
+                UTC    : new TimeZoneInfo("UTC", "UTC", 0, false),
+                Eastern: new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true),
+        ][zoneName]
+        final DateKey start = DateKey.of(0, zone)
+
+        expect:
+        (0..<366).every {
+            final DateKey day = start.plusDays(it)
+            final TimeComponents time = day.getTime()
+            final long midnight = day.startMillis(0)
+            day.dayNum == it &&
+                    time.hour == 0 &&
+                    DateKey.from(time) == day &&
+                    // the day before midnight is the previous date, whatever the day's length
+                    DateKey.at(midnight - 1, zone, 0) == day.minusDays(1)
+        }
+
+        where:
+        zoneName << ["UTC", "Eastern"]
+    }
+
+    def "instants before rolloverHour count toward the previous date"() {
+        given:
+        final TimeZoneInfo utc = new TimeZoneInfo("UTC", "UTC", 0, false)
+        final long day10 = DayIndex.EPOCH_MILLIS + 10 * DAY
+
+        expect:
+        DateKey.at(day10 + 3 * HOUR, utc, 4).dayNum == 9
+        DateKey.at(day10 + 4 * HOUR, utc, 4).dayNum == 10
+        DateKey.at(day10 + 3 * HOUR, utc, 0).dayNum == 10
+        DateKey.of(10, utc).startMillis(4) == day10 + 4 * HOUR
+    }
+
+    def "keys are values ordered by day number"() {
+        given:
+        final TimeZoneInfo utc = new TimeZoneInfo("UTC", "UTC", 0, false)
+        final DateKey a = DateKey.of(5, utc)
+
+        expect:
+        a == DateKey.of(4, utc).plusDays(1)
+        a.hashCode() == DateKey.of(5, utc).hashCode()
+        a.plusDays(0).is(a)
+        a < a.plusDays(1)
+        a.getDayIndex() == DayIndex.of(5)
+    }
+}
@@ -0,0 +1,80 @@
+package net.wti.tasks.index
+
+import net.wti.tasks.event.TaskCreatedEvent
+import net.wti.tasks.event.TaskDeletedEvent
+import net.wti.tasks.event.TaskEvent
+import net.wti.tasks.event.TaskFinishedEvent
+import net.wti.tasks.event.TaskUpdatedEvent
+import net.wti.ui.demo.api.ModelTask
+import spock.lang.Specification
+import xapi.model.X_Model
+
+/// TaskEventBatcherTest
+///
+/// Verifies per-batch coalescing of TaskUpdatedEvents (delivery itself rides on Gdx.app; see TaskIndexTest).
+class TaskEventBatcherTest extends Specification {
+
+    static ModelTask task(final String id) {
+        final ModelTask t = X_Model.create(ModelTask)
+        t.setKey(X_Model.newKey("test", ModelTask.MODEL_TASK).setId(id))
+        return t
+    }
+
+    def "repeated updates of one task collapse into the last one, other events keep their order"() {
+        given:
+        final ModelTask a = task("a")
+        final ModelTask b = task("b")
+        final TaskEvent created = new TaskCreatedEvent(a)
+        final TaskEvent upA1 = new TaskUpdatedEvent(a)
+        final TaskEvent upB = new TaskUpdatedEvent(b)
+        final TaskEvent finished = new TaskFinishedEvent(a)
+        final TaskEvent upA2 = new TaskUpdatedEvent(a)
+        final TaskEvent deleted = new TaskDeletedEvent(b.getKey())
+
+        when:
+        final List<TaskEvent> out = TaskEventBatcher.coalesce([created, upA1, upB, finished, upA2, deleted])
+
+        then:
+        out == [created, upB, finished, upA2, deleted]
+    }
+
+    def "collapsed updates report the union of their changed properties"() {
+        given:
+        final ModelTask a = task("a")
+
+        when:
+        final List<TaskEvent> known = TaskEventBatcher.coalesce([
+                new TaskUpdatedEvent(a, ["name"] as Set),
+                new TaskUpdatedEvent(a, ["priority"] as Set),
+        ])
+        final List<TaskEvent> unknown = TaskEventBatcher.coalesce([
+                new TaskUpdatedEvent(a),
+                new TaskUpdatedEvent(a, ["priority"] as Set),
+        ])
+
+        then:
+        known.size() == 1
+        (known[0] as TaskUpdatedEvent).changed == ["name", "priority"] as Set
+        unknown.size() == 1
+        (unknown[0] as TaskUpdatedEvent).changed.isEmpty()
+        (unknown[0] as TaskUpdatedEvent).isChanged("anything")
+    }
+
+    def "batches without duplicates pass through untouched"() {
+        given:
+        final ModelTask a = task("a")
+        final List<TaskEvent> batch = [new TaskCreatedEvent(a), new TaskUpdatedEvent(a), new TaskFinishedEvent(a)]
+
+        expect:
+        TaskEventBatcher.coalesce(batch) == batch
+        TaskEventBatcher.coalesce([]) == []
+    }
+
+    def "a null deliver callback is rejected"() {
+        when:
+        new TaskEventBatcher(null)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,113 @@
+package net.wti.tasks.index
+
+import net.wti.tasks.event.RefreshFinishedEvent
+import net.wti.tasks.event.TaskDeletedEvent
+import net.wti.tasks.event.TaskEvent
+import net.wti.tasks.event.TaskFinishedEvent
+import net.wti.tasks.event.TaskStartedEvent
+import net.wti.tasks.event.TaskUpdatedEvent
+import net.wti.tasks.metrics.TaskIndexMetrics
+import net.wti.ui.demo.api.ModelTask
+import spock.lang.Specification
+import xapi.fu.Do
+import xapi.model.X_Model
+
+/// TaskEventDispatcherTest
+///
+/// Verifies type-indexed and per-key listener routing, and that `Do` handles unsubscribe cleanly.
+class TaskEventDispatcherTest extends Specification {
+
+    static ModelTask task(final String id) {
+        final ModelTask t = X_Model.create(ModelTask)
+        t.setKey(X_Model.newKey("test", ModelTask.MODEL_TASK).setId(id))
+        return t
+    }
+
+    def "typed listeners only see the event classes they asked for"() {
+        given:
+        final TaskEventDispatcher dispatcher = new TaskEventDispatcher()
+        final List<TaskEvent> typed = []
+        final List<TaskEvent> everything = []
+        dispatcher.subscribe({ typed << it }, TaskStartedEvent, TaskFinishedEvent)
+        dispatcher.subscribe { everything << it }
+        final ModelTask a = task("a")
+
+        when:
+        final TaskEvent started = new TaskStartedEvent(a)
+        final TaskEvent updated = new TaskUpdatedEvent(a)
+        final TaskEvent finished = new TaskFinishedEvent(a)
+        final TaskEvent refreshed = new RefreshFinishedEvent(1)
+        [started, updated, finished, refreshed].each { dispatcher.dispatch(it) }
+
+        then:
+        typed == [started, finished]
+        everything == [started, updated, finished, refreshed]
+    }
+
+    def "per-key listeners only see events about their task, including deletes"() {
+        given:
+        final TaskEventDispatcher dispatcher = new TaskEventDispatcher()
+        final ModelTask a = task("a")
+        final ModelTask b = task("b")
+        final List<TaskEvent> seen = []
+        final Do unsub = dispatcher.subscribeKey(a.getKey()) { seen << it }
+
+        when:
+        final TaskEvent upA = new TaskUpdatedEvent(a)
+        final TaskEvent delA = new TaskDeletedEvent(a.getKey())
+        [upA, new TaskUpdatedEvent(b), new RefreshFinishedEvent(2), delA].each { dispatcher.dispatch(it) }
+
+        then:
+        seen == [upA, delA]
+
+        when: "unsubscribing drops the (now empty) key entry"
+        unsub.done()
+        dispatcher.dispatch(new TaskUpdatedEvent(a))
+
+        then:
+        seen == [upA, delA]
+        dispatcher.getListenerCount() == 0
+    }
+
+    def "unsubscribe handles remove typed and catch-all listeners"() {
+        given:
+        final TaskEventDispatcher dispatcher = new TaskEventDispatcher()
+        int hits = 0
+        final Do typed = dispatcher.subscribe({ hits++ }, TaskUpdatedEvent, TaskStartedEvent)
+        final Do all = dispatcher.subscribe({ hits++ }, TaskEvent)
+
+        expect:
+        dispatcher.getListenerCount() == 3
+
+        when:
+        typed.done()
+        all.done()
+        dispatcher.dispatch(new TaskUpdatedEvent(task("z")))
+
+        then:
+        hits == 0
+        dispatcher.getListenerCount() == 0
+    }
+
+    def "each listener call is timed per listener, and forgotten on unsubscribe"() {
+        given:
+        final TaskIndexMetrics metrics = new TaskIndexMetrics()
+        final TaskEventDispatcher dispatcher = new TaskEventDispatcher(metrics)
+        final Do slow = dispatcher.subscribe({ sleep(2) } as TaskEventListener)
+        dispatcher.subscribe({ } as TaskEventListener, TaskUpdatedEvent)
+
+        when:
+        3.times { dispatcher.dispatch(new TaskUpdatedEvent(task("m"))) }
+
+        then:
+        metrics.listenerSnapshots().size() == 2
+        metrics.listenerSnapshots().values()*.count == [3L, 3L]
+        metrics.listenerSnapshots().values()*.max.max() >= 2_000_000L
+
+        when:
+        slow.done()
+
+        then:
+        metrics.listenerSnapshots().size() == 1
+    }
+}
@@ -0,0 +1,65 @@
+package net.wti.tasks.index
+
+import net.wti.ui.demo.api.ModelTask
+import spock.lang.Specification
+import xapi.model.X_Model
+
+/// TaskFingerprintTest
+///
+/// Verifies the version/content stamp TaskIndex.upsert uses to skip absorbing unchanged tasks.
+class TaskFingerprintTest extends Specification {
+
+    static ModelTask task(final String id, final String name, final int priority) {
+        final ModelTask t = X_Model.create(ModelTask)
+        t.setKey(X_Model.newKey("test", ModelTask.MODEL_TASK).setId(id))
+        t.setName(name)
+        t.setPriority(priority)
+        t.setUpdated(1000L)
+        return t
+    }
+
+    def "identical tasks match; a changed property is reported by name"() {
+        given:
+        final ModelTask a = task("fp", "Water plants", 1)
+        final ModelTask b = task("fp", "Water plants", 1)
+
+        expect:
+        TaskFingerprint.of(a).matches(TaskFingerprint.of(b))
+        TaskFingerprint.of(b).changedSince(TaskFingerprint.of(a)).isEmpty()
+
+        when:
+        b.setPriority(7)
+
+        then:
+        !TaskFingerprint.of(b).matches(TaskFingerprint.of(a))
+        TaskFingerprint.of(b).changedSince(TaskFingerprint.of(a)) == ["priority"] as Set
+    }
+
+    def "a newer version stamp alone breaks the match, but is not a content change"() {
+        given:
+        final ModelTask a = task("fp2", "Stretch", 2)
+        final TaskFingerprint before = TaskFingerprint.of(a)
+
+        when:
+        a.setUpdated(2000L)
+        final TaskFingerprint after = TaskFingerprint.of(a)
+
+        then:
+        !after.matches(before)
+        after.changedSince(before).isEmpty()
+        after.getUpdated() == 2000L
+    }
+
+    def "properties added since the older fingerprint are reported"() {
+        given:
+        final ModelTask a = task("fp3", "Read", 0)
+        final TaskFingerprint before = TaskFingerprint.of(a)
+
+        when:
+        a.setDeadline(123456d)
+
+        then:
+        TaskFingerprint.of(a).changedSince(before).contains("deadline")
+        TaskFingerprint.of(a).changedSince(null).containsAll(["name", "deadline"])
+    }
+}
@@ -5,11 +5,19 @@ import com.badlogic.gdx.ApplicationListener
 import com.badlogic.gdx.Gdx
 import com.badlogic.gdx.backends.headless.HeadlessApplication
 import com.badlogic.gdx.utils.GdxNativesLoader
+import net.wti.tasks.event.RefreshStartedEvent
+import net.wti.tasks.event.TaskCreatedEvent
 import net.wti.tasks.event.TaskEvent
+import net.wti.tasks.event.TaskEventListener
 import net.wti.tasks.event.TaskFinishedEvent
 import net.wti.tasks.event.TaskStartedEvent
+import net.wti.tasks.event.TaskUpdatedEvent
+import net.wti.tasks.metrics.TaskIndexMetricsSink
+import net.wti.tasks.metrics.TaskIndexMetricsSnapshot
+import net.wti.time.api.DayIndex
 import net.wti.ui.demo.api.ModelRecurrence
 import net.wti.ui.demo.api.ModelTask
+import net.wti.ui.demo.api.ModelTaskTombstone
 import net.wti.ui.demo.api.RecurrenceUnit
 import net.wti.ui.demo.api.Schedule
 import spock.lang.Narrative
@@ -19,11 +27,16 @@ import spock.lang.Title
 import xapi.constants.X_Namespace
 import xapi.fu.Do
 import xapi.model.X_Model
+import xapi.model.api.Model
 import xapi.model.api.ModelKey
 import xapi.prop.X_Properties
+import xapi.time.X_Time
 
 import java.time.*
 import java.time.temporal.ChronoUnit
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
 
 @Title("TaskIndex comprehensive specification")
@@ -34,6 +47,7 @@ Validates TaskIndex behavior across:
 - Controller hooks: onTaskCreated/Started/Finished/Cancelled/Updated/Deleted
 - Bucketing: getDayWithDeadlines, setRolloverHour, setBucketZone
 - Auto refresh wiring: startAutoRefresh/stopAutoRefresh
+- Delta refresh: updated-since watermark, tombstones, full-refresh pruning
 - Diagnostics: getRefreshCount, getBucketUpdateCount
 """)
 @Stepwise
@@ -144,7 +158,7 @@ class TaskIndexTest extends Specification {
             done.wait(500)
         }
     }
-    private static void persistAndWait(final ModelTask t) {
+    private static void persistAndWait(final Model t) {
         X_Model.persist(t, {
             synchronized (t) {
                 t.notifyAll()
@@ -155,6 +169,18 @@ class TaskIndexTest extends Specification {
         }
     }
 
+    private static void deleteAndWait(final ModelKey key) {
+        final CountDownLatch deleted = new CountDownLatch(1)
+        X_Model.delete(key, { deleted.countDown() })
+        deleted.await(1500, TimeUnit.MILLISECONDS)
+    }
+
+    /// Stamps `updated` the way TaskController.save does before persisting.
+    private static ModelTask stamped(final ModelTask t) {
+        t.setUpdated(System.currentTimeMillis())
+        return t
+    }
+
     // ----------------------------------------------------------------------------
     // Tests
     // ----------------------------------------------------------------------------
@@ -186,6 +212,78 @@ class TaskIndexTest extends Specification {
         index.destroy()
     }
 
+    def "status partitions follow task state changes and stay sorted"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final LocalDateTime now = LocalDateTime.now()
+        final ModelTask late = testTaskOneShot("late", epochMillis(now.plusHours(5)))
+        final ModelTask soon = testTaskOneShot("soon", epochMillis(now.plusHours(1)))
+        final ModelTask mid = testTaskOneShot("mid", epochMillis(now.plusHours(3)))
+        late.setPriority(5)
+        soon.setPriority(1)
+        mid.setPriority(3)
+
+        when:
+        [late, soon, mid].each { index.onTaskCreated(it) }
+
+        then:
+        index.getActiveCount() == 3
+        index.getActiveByDue().toList()*.task == [soon, mid, late]
+        index.getActiveByPriority().toList()*.task == [late, mid, soon]
+
+        when: "one finishes and one is cancelled in place"
+        soon.setFinished(true)
+        index.onTaskFinished(soon)
+        late.setCancelled(true)
+        index.onTaskCancelled(late)
+
+        then:
+        index.getActiveCount() == 1
+        index.getActive().toList()*.task == [mid]
+        index.getFinished().toList()*.task == [soon]
+        index.getCanceled().toList()*.task == [late]
+
+        when: "a deleted task leaves every partition"
+        index.onTaskDeleted(soon.getKey())
+
+        then:
+        index.getFinishedCount() == 0
+        index.getActiveCount() + index.getCanceledCount() == 2
+
+        cleanup:
+        index.destroy()
+    }
+
+    def "re-indexing unchanged tasks keeps their order among equal sort keys"() {
+        given: "three tasks tied on due time, priority and title"
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final long due = epochMillis(LocalDateTime.now().plusHours(2))
+        final List<ModelTask> tied = (0..<3).collect {
+            final ModelTask task = testTaskOneShot("tied", due)
+            task.setPriority(2)
+            task
+        }
+        tied.each { index.onTaskCreated(it) }
+
+        when: "the first is reported again without any change"
+        index.onTaskUpdated(tied[0])
+
+        then:
+        index.getActiveByDue().toList()*.task == tied
+        index.getActiveByPriority().toList()*.task == tied
+
+        when: "one really moves"
+        tied[2].setPriority(9)
+        index.onTaskUpdated(tied[2])
+
+        then:
+        index.getActiveByPriority().toList()*.task == [tied[2], tied[0], tied[1]]
+        index.getActiveByDue().toList()*.task == tied
+
+        cleanup:
+        index.destroy()
+    }
+
     def "subscribe receives all events; unsubscribe stops further events"() {
         given:
         final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
@@ -360,6 +458,34 @@ class TaskIndexTest extends Specification {
         index.destroy()
     }
 
+    def "getDaysWithDeadlines returns every non-empty day of a window, each sorted by deadline"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        index.setRolloverHour(0)
+        final long todayNoon = epochMillis(LocalDateTime.of(LocalDate.now(), LocalTime.NOON)).longValue()
+        final DayIndex today = index.dayOf(X_Time.breakdown(todayNoon, X_Time.systemZone()))
+        final long day = 86_400_000L
+        final ModelTask late = testTaskOneShot("w-late", (double) (todayNoon + 60_000L))
+        final ModelTask early = testTaskOneShot("w-early", (double) todayNoon)
+        final ModelTask later = testTaskOneShot("w-later", (double) (todayNoon + 2 * day))
+        final ModelTask outside = testTaskOneShot("w-outside", (double) (todayNoon + 9 * day))
+
+        when:
+        [late, early, later, outside].each { index.onTaskCreated(it) }
+        final Map<DayIndex, List<Schedule>> window = index.getDaysWithDeadlines(today.minusDays(1), today.plusDays(3))
+
+        then: "empty days are skipped; the out-of-range task is not loaded"
+        window.keySet().toList() == [today, today.plusDays(2)]
+        window.values().toList()[0]*.task == [early, late]
+        window.values().toList()[1]*.task == [later]
+
+        and: "single-day reads agree with the range"
+        index.getDayWithDeadlines(today)*.task == [early, late]
+
+        cleanup:
+        index.destroy()
+    }
+
     def "setRolloverHour affects bucketing before cutoff"() {
         given:
         TaskIndex index = new TaskIndex(NAMESPACE_TEST)
@@ -466,12 +592,254 @@ class TaskIndexTest extends Specification {
 
     }
 
+    def "subscribeBatches receives coalesced per-frame batches"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final List<List<TaskEvent>> batches = Collections.synchronizedList(new ArrayList<>())
+        final Do unsub = index.subscribeBatches { final List<TaskEvent> batch -> batches << batch }
+
+        when:
+        final ModelTask t = testTaskOneShot("batchy", epochMillis(LocalDateTime.now().plusHours(1)))
+        index.onTaskCreated(t)
+        index.onTaskUpdated(t)
+        index.onTaskUpdated(t)
+        index.onTaskUpdated(t)
+        waitForGdx()
+
+        then: "every event arrives, but never more than one update per task per batch"
+        !batches.isEmpty()
+        batches.flatten().any { it instanceof TaskCreatedEvent }
+        batches.every { final List<TaskEvent> batch -> batch.count { it instanceof TaskUpdatedEvent } <= 1 }
+
+        cleanup:
+        unsub.done()
+        index.destroy()
+    }
+
+    def "a delta refresh only queries tasks updated since the watermark"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final List<Boolean> deltas = Collections.synchronizedList([])
+        final Do unsub = index.subscribeEvents({ final TaskEvent e ->
+            deltas << ((RefreshStartedEvent) e).operation.isDelta()
+        }, RefreshStartedEvent)
+        persistAndWait(stamped(testTaskOneShot("delta1", epochMillis(LocalDateTime.now().plusHours(4)))))
+        index.resync().get(2, TimeUnit.SECONDS)
+        final long watermark = index.getUpdatedSince()
+
+        when: "another writer saves a task after the watermark"
+        final ModelTask written = stamped(testTaskOneShot("delta2", epochMillis(LocalDateTime.now().plusHours(5))))
+        persistAndWait(written)
+        refreshAndWait(index)
+
+        then: "the delta query finds it, and moves the watermark up to it"
+        watermark > 0
+        deltas == [false, true]
+        index.getAll().toList()*.key.contains(written.getKey())
+        index.getUpdatedSince() >= written.getUpdated()
+
+        cleanup:
+        unsub?.done()
+        index.destroy()
+    }
+
+    def "a delta refresh removes tasks whose tombstone is newer than the watermark"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final ModelTask doomed = stamped(testTaskOneShot("doomed", epochMillis(LocalDateTime.now().plusHours(2))))
+        persistAndWait(doomed)
+        index.resync().get(2, TimeUnit.SECONDS)
+
+        expect:
+        index.getUpdatedSince() > 0
+        index.getAll().toList()*.key.contains(doomed.getKey())
+
+        when: "another writer deletes it, leaving a tombstone the way TaskController.deleteTask does"
+        deleteAndWait(doomed.getKey())
+        final ModelTaskTombstone tombstone = X_Model.create(ModelTaskTombstone)
+        tombstone.setKey(ModelTaskTombstone.newKey(doomed.getKey()))
+        tombstone.setTaskKey(doomed.getKey())
+        tombstone.setUpdated(System.currentTimeMillis())
+        persistAndWait(tombstone)
+        refreshAndWait(index)
+
+        then: "the tombstone lives in the task's namespace, where the delta refresh finds it"
+        tombstone.getKey().getNamespace() == NAMESPACE_TEST
+        !index.getAll().toList()*.key.contains(doomed.getKey())
+        index.getUpdatedSince() >= tombstone.getUpdated()
+
+        cleanup:
+        index.destroy()
+    }
+
+    def "a full refresh prunes deleted tasks that left no tombstone"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final ModelTask ghost = stamped(testTaskOneShot("ghost", epochMillis(LocalDateTime.now().plusHours(3))))
+        persistAndWait(ghost)
+        index.resync().get(2, TimeUnit.SECONDS)
+
+        when: "it is deleted without a tombstone"
+        deleteAndWait(ghost.getKey())
+        refreshAndWait(index)
+
+        then: "a delta refresh cannot see the removal"
+        index.getAll().toList()*.key.contains(ghost.getKey())
+
+        when:
+        index.resync().get(2, TimeUnit.SECONDS)
+
+        then: "a full refresh drops it"
+        !index.getAll().toList()*.key.contains(ghost.getKey())
+
+        cleanup:
+        index.destroy()
+    }
+
+    def "a snapshot written after a refresh warm-starts a fresh index"() {
+        given:
+        final File snapshot = File.createTempFile("task-index", ".snapshot")
+        snapshot.delete()
+        final TaskIndex cold = new TaskIndex(NAMESPACE_TEST)
+        cold.setSnapshotFile(snapshot)
+        final ModelTask t = testTaskOneShot("warm", epochMillis(LocalDateTime.now().plusHours(6)))
+
+        when: "a refresh completes, the snapshot is written in the background"
+        persistAndWait(t)
+        refreshAndWait(cold)
+        for (int i = 0; i < 100 && !snapshot.isFile(); i++) {
+            sleep(20)
+        }
+
+        then:
+        snapshot.isFile()
+
+        when: "a new index loads it before any query"
+        final TaskIndex warm = new TaskIndex(NAMESPACE_TEST)
+        warm.setSnapshotFile(snapshot)
+        final boolean loaded = warm.loadSnapshot()
+
+        then:
+        loaded
+        warm.getRefreshCount() == 0
+        warm.getAll().toList()*.key.contains(t.getKey())
+        warm.getActiveCount() == cold.getActiveCount()
+
+        and: "a populated index never reloads over itself"
+        !warm.loadSnapshot()
+
+        when: "an index of another namespace points at the same file"
+        final TaskIndex other = new TaskIndex(NAMESPACE_TEST + "-other")
+        other.setSnapshotFile(snapshot)
+
+        then: "it refuses the snapshot, since its refreshes would never prune those tasks"
+        !other.loadSnapshot()
+        other.getAll().isEmpty()
+
+        cleanup:
+        cold.destroy()
+        warm?.destroy()
+        other?.destroy()
+        snapshot.delete()
+    }
+
     static class TestIndex extends TaskIndex {
         AtomicInteger refreshes = new AtomicInteger(0)
         @Override
-        void refresh() {
+        CompletableFuture<Integer> refresh() {
             refreshes.incrementAndGet()
+            return CompletableFuture.completedFuture(0)
+        }
+    }
+
+    def "refresh never blocks; overlapping calls join the running refresh and queue one follow-up"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final int before = index.getRefreshCount()
+        CompletableFuture<Integer> first = null
+        CompletableFuture<Integer> second = null
+        CompletableFuture<Integer> third = null
+        boolean queued = false
+
+        when: "three refreshes are requested while the first cannot finish"
+        // refresh() re-enters the lock on this thread; the first refresh needs it to complete
+        synchronized (index.@refreshLock) {
+            first = index.refresh()
+            second = index.refresh()
+            third = index.refresh()
+            queued = index.isRefreshQueued()
         }
+        first.get(2, TimeUnit.SECONDS)
+        index.awaitRefresh(2000)
+
+        then: "concurrent callers share the running refresh's handle"
+        second.is(first)
+        third.is(first)
+
+        and: "exactly one follow-up refresh was queued, and ran"
+        queued
+        index.getRefreshCount() - before == 2
+        !index.isRefreshQueued()
+        index.getRefreshInFlight() == null
+
+        cleanup:
+        index.destroy()
+    }
+
+    def "a resync takes over a running delta refresh; destroy aborts a refresh part way"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final Double tomorrow = epochMillis(LocalDateTime.now().plusDays(1))
+        saveTasks((0..<60).collect { testTaskOneShot("page$it", tomorrow) } as ModelTask[])
+        index.resync().get(2, TimeUnit.SECONDS) // leaves a watermark, so refresh() is a delta
+
+        when: "a full resync arrives while the delta refresh pages"
+        final CompletableFuture<Integer> delta = index.refresh()
+        final CompletableFuture<Integer> full = index.resync()
+
+        then: "callers share one handle (unless the delta already finished), and it reports the full count"
+        delta.is(full) || delta.isDone()
+        full.get(2, TimeUnit.SECONDS) >= 60
+        !delta.isCompletedExceptionally()
+
+        when: "destroy lands while a refresh is running"
+        final CompletableFuture<Integer> aborted = index.refresh()
+        index.destroy()
+        final int refreshes = index.getRefreshCount()
+        sleep(200)
+
+        then: "the handle is settled at once, and the cancelled pager never finishes the refresh"
+        aborted.isDone()
+        index.getRefreshInFlight() == null
+        index.getRefreshCount() == refreshes
+    }
+
+    def "a finished refresh records its timings and pushes a metrics snapshot to the sink"() {
+        given:
+        final TaskIndex index = new TaskIndex(NAMESPACE_TEST)
+        final List<TaskIndexMetricsSnapshot> published = [].asSynchronized()
+        index.setMetricsSink({ published << it } as TaskIndexMetricsSink)
+        index.subscribe({ } as TaskEventListener)
+
+        when:
+        refreshAndWait(index)
+        final TaskIndexMetricsSnapshot snapshot = index.getMetricsSnapshot()
+
+        then:
+        published.size() == 1
+        snapshot.refreshCount == 1
+        snapshot.taskCount == index.getAll().size()
+        snapshot.get("refresh").count == 1
+        snapshot.get("query").count >= 1
+        snapshot.get("page").count >= 1
+        snapshot.get("upsert").count == snapshot.taskCount
+        snapshot.get("queueDepth").count >= 1
+        snapshot.get("deliveryLag").count == snapshot.get("queueDepth").count
+        snapshot.listeners.size() == 1
+        snapshot.bucketSizes.sum <= snapshot.taskCount
+
+        cleanup:
+        index.destroy()
     }
 
     def "startAutoRefresh triggers immediate refresh; stopAutoRefresh prevents further runs"() {
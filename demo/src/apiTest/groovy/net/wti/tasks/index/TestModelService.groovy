@@ -5,6 +5,8 @@ import net.wti.ui.demo.api.ModelSettings
 import net.wti.ui.demo.api.ModelTask
 import net.wti.ui.demo.api.ModelTaskCompletion
 import net.wti.ui.demo.api.ModelTaskDescription
+import net.wti.ui.demo.api.ModelTaskSync
+import net.wti.ui.demo.api.ModelTaskTombstone
 import net.wti.ui.demo.api.ModelTimeRecord
 import xapi.annotation.inject.SingletonOverride
 import xapi.jre.model.ModelServiceJre
@@ -31,5 +33,7 @@ final class TestModelService extends ModelServiceJre {
         INSTANCE.getOrMakeModelManifest(ModelTaskDescription)
         INSTANCE.getOrMakeModelManifest(ModelTimeRecord)
         INSTANCE.getOrMakeModelManifest(ModelSettings)
+        INSTANCE.getOrMakeModelManifest(ModelTaskSync)
+        INSTANCE.getOrMakeModelManifest(ModelTaskTombstone)
     }
 }
@@ -0,0 +1,76 @@
+package net.wti.tasks.metrics
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/// HistogramTest
+///
+/// Verifies power-of-two bucketing, percentile bounds and TaskIndexMetrics' enable switch.
+class HistogramTest extends Specification {
+
+    @Unroll
+    def "value #value lands in bucket #bucket"() {
+        expect:
+        Histogram.bucketOf(value) == bucket
+        value <= Histogram.upperBound(bucket)
+
+        where:
+        value          | bucket
+        0L             | 0
+        1L             | 1
+        2L             | 2
+        3L             | 2
+        1024L          | 11
+        Long.MAX_VALUE | 63
+    }
+
+    def "snapshots report count, mean, max and percentiles within a factor of two"() {
+        given:
+        final Histogram histogram = new Histogram("test")
+        (1..100).each { histogram.record(it) }
+        histogram.record(-5) // counted as 0
+
+        when:
+        final HistogramSnapshot snapshot = histogram.snapshot()
+
+        then:
+        snapshot.count == 101
+        snapshot.sum == 5050
+        snapshot.max == 100
+        snapshot.getPercentile(50) >= 50
+        snapshot.getPercentile(50) < 100
+        snapshot.getPercentile(100) == 100
+        snapshot.toString().startsWith("test count=101")
+
+        when:
+        histogram.reset()
+
+        then:
+        histogram.snapshot().count == 0
+        histogram.snapshot().getPercentile(99) == 0
+    }
+
+    def "disabled metrics record nothing"() {
+        given:
+        final TaskIndexMetrics metrics = new TaskIndexMetrics()
+        metrics.setEnabled(false)
+
+        when:
+        final long start = metrics.start()
+        metrics.stop(metrics.upsert, start)
+        metrics.record(metrics.queueDepth, 12)
+        metrics.stopListener(this, start)
+
+        then:
+        start == TaskIndexMetrics.NOT_TIMED
+        metrics.histograms()*.count.every { it == 0L }
+        metrics.listenerSnapshots().isEmpty()
+    }
+
+    def "gauge snapshots are built from sampled values"() {
+        expect:
+        HistogramSnapshot.of("bucketSizes", [1, 4, 2] as int[]).with {
+            it.count == 3 && it.sum == 7 && it.max == 4
+        }
+    }
+}
@@ -147,6 +147,13 @@ public final class DemoApp extends ApplicationAdapter {
             }
         }, RefreshFinishedEvent.class));
         controller = new TaskController(registry, index);
+        // Warm start: render from the last snapshot right away; the first auto-refresh reconciles it
+        // (one file per namespace: a snapshot is only ever loaded back into its own namespace)
+        final String snapshotName = index.getNamespace().isEmpty()
+                ? "task-index.snapshot"
+                : "task-index-" + index.getNamespace() + ".snapshot";
+        index.setSnapshotFile(Gdx.files.external(".wti/" + snapshotName).file());
+        index.loadSnapshot();
         cleanup = cleanup.doAfter(index.startAutoRefresh(5));
 
         // Task views
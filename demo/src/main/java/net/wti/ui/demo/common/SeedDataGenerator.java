@@ -302,6 +302,7 @@ public final class SeedDataGenerator {
 
 
     private static void persist(BasicModelTask<?> m) {
+        m.setUpdated(System.currentTimeMillis());
         X_Model.persist(m, SuccessHandler.noop());
     }
 
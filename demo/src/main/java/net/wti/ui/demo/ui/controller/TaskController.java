@@ -6,6 +6,7 @@ import net.wti.ui.demo.api.CompletionStatus;
 import net.wti.ui.demo.api.ModelTask;
 import net.wti.ui.demo.api.ModelTaskCompletion;
 import net.wti.ui.demo.api.ModelTaskDescription;
+import net.wti.ui.demo.api.ModelTaskTombstone;
 import net.wti.ui.demo.ui.dialog.TaskEditDialog;
 import net.wti.ui.demo.view.api.IsTaskView;
 import xapi.model.X_Model;
@@ -58,6 +59,8 @@ public class TaskController {
     /// If you need to distinguish "created" vs "updated", create a separate
     /// factory path that calls `taskIndex.onTaskCreated(...)`.
     public void save(ModelTask task) {
+        // stamp every write, so other indexes' delta refreshes (updated > watermark) see it
+        task.setUpdated(System.currentTimeMillis());
         X_Model.persist(task, result -> {
             // You may want to detect "new" vs "existing" here (e.g., null id prior to persist)
             taskIndex.onTaskUpdated(task);
@@ -150,6 +153,12 @@ public class TaskController {
     public void deleteTask(final ModelTask task) {
         final ModelKey key = task.getKey();
         X_Model.delete(key, r -> {
+            // Leave a tombstone, so other indexes doing delta refreshes observe the removal.
+            final ModelTaskTombstone tombstone = X_Model.create(ModelTaskTombstone.class);
+            tombstone.setKey(ModelTaskTombstone.newKey(key));
+            tombstone.setTaskKey(key);
+            tombstone.setUpdated(System.currentTimeMillis());
+            X_Model.persist(tombstone, SuccessHandler.noop());
             // Use the ModelKey overload to actually remove from the index map.
             taskIndex.onTaskDeleted(key);
         });
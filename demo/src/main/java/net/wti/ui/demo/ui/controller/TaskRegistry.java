@@ -69,6 +69,7 @@ public class TaskRegistry {
     /// Snooze a task for a period of time
     public void snooze(final ModelTask task, final double snoozeUntil) {
         task.setSnooze(snoozeUntil);
+        task.setUpdated(System.currentTimeMillis());
         X_Model.persist(task, SuccessHandler.noop());
         // need to wire in callbacks to move this out of main task list
     }
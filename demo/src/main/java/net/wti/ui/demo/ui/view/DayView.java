@@ -5,13 +5,13 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import net.wti.tasks.index.DateKey;
+import net.wti.time.api.TimeComponentsCache;
 import net.wti.ui.demo.api.ModelSettings;
 import net.wti.ui.demo.api.ModelTask;
 import net.wti.ui.demo.api.Schedule;
 import net.wti.ui.view.api.IsView;
 import xapi.string.X_String;
 import xapi.time.X_Time;
-import xapi.time.api.TimeComponents;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -92,7 +92,7 @@ public class DayView extends Table implements IsView {
                 })
                 .collect(Collectors.groupingBy(t -> {
                     Double d = t.getTask().getDeadline();
-                    return X_Time.breakdown(d.longValue(), ModelSettings.timeZone()).getHour();
+                    return TimeComponentsCache.shared().minute(d.longValue(), date.getZone()).getHour();
                 }));
 
         hasItems = !byHour.isEmpty();
@@ -125,12 +125,8 @@ public class DayView extends Table implements IsView {
     // ---- helpers ---------------------------------------------------------
 
     private DateKey bucketDate(long millis) {
-        TimeComponents tc = X_Time.breakdown(millis, ModelSettings.timeZone());
-        if (tc.getHour() < rolloverHour) {
-            millis -= rolloverHour * 60 * 60 * 1000L; // subtract rollover hours
-            tc = X_Time.breakdown(millis, ModelSettings.timeZone());
-        }
-        return DateKey.from(tc);
+        // times before rolloverHour count toward the previous date
+        return DateKey.at(millis, date.getZone(), rolloverHour);
     }
 
     private static List<Schedule> sortedByTime(List<Schedule> in) {
@@ -139,8 +135,7 @@ public class DayView extends Table implements IsView {
     }
 
     private String dateTitle(DateKey d) {
-        final TimeComponents now = X_Time.breakdown(X_Time.nowMillis(), ModelSettings.timeZone());
-        DateKey today = DateKey.from(now);
+        DateKey today = DateKey.at((long) X_Time.nowMillis(), d.getZone(), rolloverHour);
         if (d.equals(today)) return "Today";
         if (d.equals(today.minusDays(1))) return "Yesterday";
         if (d.equals(today.plusDays(1))) return "Tomorrow";
@@ -6,17 +6,19 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.Align;
 import net.wti.tasks.event.RefreshFinishedEvent;
+import net.wti.tasks.event.TaskEvent;
 import net.wti.tasks.index.DateKey;
 import net.wti.tasks.index.TaskIndex;
+import net.wti.time.api.DayIndex;
 import net.wti.ui.controls.focus.HoverScrollFocus;
-import net.wti.ui.demo.api.ModelSettings;
+import net.wti.ui.demo.api.Schedule;
 import net.wti.ui.view.api.IsView;
 import xapi.fu.Do;
 import xapi.fu.log.Log;
-import xapi.time.X_Time;
-import xapi.time.api.TimeComponents;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -84,27 +86,26 @@ public class ScheduleView extends Table implements IsView {
     }
 
     private void wireIndexSubscriptions() {
-        // 1) First refresh finished -> initialize days
-        Do a = index.subscribeEvents(evt -> {
+        // One rebuild per frame-batch of events, not one per event.
+        Do a = index.subscribeBatches(batch -> {
             if (!initialized) {
-                initialized = true;
-                initDays();
-            } else {
-                refresh();
-            }
-        }, RefreshFinishedEvent.class);
-
-        // 2) Incremental updates -> refresh (can be optimized later)
-        Do b = index.subscribe(taskEvent -> {
-            if (initialized) {
-                Log.tryLog(ScheduleView.class, this, "Refreshing due to", taskEvent);
-                refresh();
+                // 1) First refresh finished -> initialize days
+                for (TaskEvent evt : batch) {
+                    if (evt instanceof RefreshFinishedEvent) {
+                        initialized = true;
+                        initDays();
+                        return;
+                    }
+                }
+                return;
             }
+            // 2) Incremental updates -> refresh (can be optimized later)
+            Log.tryLog(ScheduleView.class, this, "Refreshing due to", batch.size(), "events");
+            refresh();
         });
 
         unsubscribeAll = () -> {
             try { a.done(); } catch (Throwable ignored) {}
-            try { b.done(); } catch (Throwable ignored) {}
         };
     }
 
@@ -112,8 +113,7 @@ public class ScheduleView extends Table implements IsView {
         dayStack.clearChildren();
         mountedDays.clear();
 
-        final TimeComponents now = X_Time.breakdown(X_Time.nowMillis(), ModelSettings.timeZone());
-        DateKey today = DateKey.from(now);
+        DateKey today = index.today();
         mountDay(today.minusDays(1), false);
         mountDay(today, false);
         mountDay(today.plusDays(1), false);
@@ -130,13 +130,23 @@ public class ScheduleView extends Table implements IsView {
         // If your definition changes, swap to getAll().
 
         if (!initialized) return;
-        for (Map.Entry<DateKey, DayView> e : mountedDays.entrySet()) {
-            e.getValue().setTasks(index.getDayWithDeadlines(e.getKey().getTime()));
-            e.getValue().refresh();
+        if (!mountedDays.isEmpty()) {
+            // Load the whole mounted window in one range query (mountedDays is kept in date order)
+            DateKey first = null, last = null;
+            for (DateKey d : mountedDays.keySet()) {
+                if (first == null) first = d;
+                last = d;
+            }
+            final Map<DayIndex, List<Schedule>> window = index.getDaysWithDeadlines(
+                    first.getDayIndex(), last.getDayIndex());
+            for (Map.Entry<DateKey, DayView> e : mountedDays.entrySet()) {
+                final List<Schedule> day = window.get(e.getKey().getDayIndex());
+                e.getValue().setTasks(day == null ? Collections.<Schedule>emptyList() : day);
+                e.getValue().refresh();
+            }
         }
         // If still empty, extend outward a bit more to find items (non-destructive).
-        final TimeComponents now = X_Time.breakdown(X_Time.nowMillis(), ModelSettings.timeZone());
-        DateKey pivot = DateKey.from(now);
+        DateKey pivot = index.today();
         ensureSomeContent(pivot, 3);
 
         invalidateHierarchy();
@@ -178,7 +188,8 @@ public class ScheduleView extends Table implements IsView {
     }
 
     private void mountDay(DateKey date, boolean prepend) {
-        DayView view = new DayView(skin, date, index.getDayWithDeadlines(date.getTime()));
+        DayView view = new DayView(skin, date, index.getDayWithDeadlines(date));
+        view.setRolloverHour(index.getRolloverHour());
         view.refresh();
         if (prepend) {
             LinkedHashMap<DateKey, DayView> tmp = new LinkedHashMap<>();
@@ -149,7 +149,8 @@ public class TodayView extends Table implements HasScrollPane {
 
     /// Re-query tasks and rebuild both lists (chronological + priority).
     public void refresh() {
-        final MappedIterable<Schedule> all = index.getActive();
+        // Already sorted by priority desc (higher first), tie-breaker title A→Z
+        final MappedIterable<Schedule> all = index.getActiveByPriority();
 
         final List<ModelTask> withDeadline = new ArrayList<>();
         final List<ModelTask> withoutDeadline = new ArrayList<>();
@@ -164,13 +165,7 @@ public class TodayView extends Table implements HasScrollPane {
         // Left is event-driven; just trigger a refresh to re-pull from index snapshot.
         deadlinesList.refresh();
 
-        // Right: priority desc (higher first). Tie-breaker: title A→Z
-        withoutDeadline.sort((a, b) -> {
-            int p = Integer.compare(b.getPriority(), a.getPriority());
-            if (p != 0) return p;
-            return safeTitle(a).compareToIgnoreCase(safeTitle(b));
-        });
-
+        // Right: priority order, maintained by the index
         goalsList.rebuild(withoutDeadline, false);
 
         invalidateHierarchy();
@@ -230,14 +225,6 @@ public class TodayView extends Table implements HasScrollPane {
         }
     }
 
-    private static String safeTitle(ModelTask t) {
-        try {
-            String s = t.getName();
-            return s == null ? "" : s;
-        } catch (Throwable ignore) {
-            return "";
-        }
-    }
 
     private static Drawable optionalDrawable(Skin skin, String... names) {
         for (String n : names) if (skin.has(n, Drawable.class)) return skin.getDrawable(n);
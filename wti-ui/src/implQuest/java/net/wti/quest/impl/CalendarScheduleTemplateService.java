@@ -0,0 +1,84 @@
+package net.wti.quest.impl;
+
+import net.wti.quest.api.QuestDefinition;
+import net.wti.quest.api.RecurrenceRule;
+import net.wti.quest.api.ScheduleTemplate;
+import net.wti.quest.api.ScheduleTemplateService;
+import net.wti.time.api.ModelDay;
+import xapi.model.api.ModelKey;
+
+import java.util.function.Function;
+
+/// CalendarScheduleTemplateService
+///
+/// ScheduleTemplateService backed by a ScheduleCalendar: a (definition, rule) is skipped on
+/// the days its definition's schedule template does not apply (off weekdays and holidays).
+/// Definitions without a template key, or whose template cannot be found, are never skipped.
+///
+/// Templates without holiday sets report a fixed weekday skip mask, so compiled RulePlans
+/// never call back per day for them. Whatever persists templates and holiday sets must call
+/// onTemplateSaved / onHolidaySetSaved afterwards: that drops the compiled bitmaps and bumps
+/// getTemplatesVersion, so plans holding an outdated mask are recompiled.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 20:35
+public class CalendarScheduleTemplateService implements ScheduleTemplateService {
+
+    private final ScheduleCalendar calendar;
+    private final Function<String, ScheduleTemplate> templates;
+
+    /// @param templates looks a template up by QuestDefinition.scheduleTemplateKey; may return null.
+    public CalendarScheduleTemplateService(ScheduleCalendar calendar, Function<String, ScheduleTemplate> templates) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("calendar must not be null");
+        }
+        if (templates == null) {
+            throw new IllegalArgumentException("templates must not be null");
+        }
+        this.calendar = calendar;
+        this.templates = templates;
+    }
+
+    @Override
+    public boolean shouldSkip(ModelDay day, QuestDefinition questDefinition, RecurrenceRule rule) {
+        final ScheduleTemplate template = templateOf(questDefinition);
+        return template != null && !calendar.appliesOn(template, day.getDayNum());
+    }
+
+    @Override
+    public int getSkipWeekdays(QuestDefinition questDefinition, RecurrenceRule rule) {
+        final ScheduleTemplate template = templateOf(questDefinition);
+        if (template == null) {
+            return 0;
+        }
+        final String[] holidaySetKeys = template.getHolidaySetKeys();
+        if (holidaySetKeys != null && holidaySetKeys.length > 0) {
+            // holidays are not weekly; ask the calendar day by day
+            return SKIP_DYNAMIC;
+        }
+        return ~ScheduleCalendar.weekdayMask(template.getWeekdaysOn()) & 0x7F;
+    }
+
+    @Override
+    public long getTemplatesVersion() {
+        return calendar.getVersion();
+    }
+
+    /// Call after the template with `templateKey` was persisted (created, edited or deleted).
+    public void onTemplateSaved(ModelKey templateKey) {
+        calendar.invalidateTemplate(templateKey);
+    }
+
+    /// Call after the holiday set `holidaySetKey` was persisted.
+    public void onHolidaySetSaved(String holidaySetKey) {
+        calendar.invalidateHolidaySet(holidaySetKey);
+    }
+
+    public ScheduleCalendar getCalendar() {
+        return calendar;
+    }
+
+    private ScheduleTemplate templateOf(QuestDefinition questDefinition) {
+        final String key = questDefinition == null ? null : questDefinition.getScheduleTemplateKey();
+        return key == null ? null : templates.apply(key);
+    }
+}
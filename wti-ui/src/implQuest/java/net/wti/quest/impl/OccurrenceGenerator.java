@@ -0,0 +1,252 @@
+package net.wti.quest.impl;
+
+import net.wti.quest.api.RecurrenceRule;
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.DurationUnit;
+import net.wti.time.api.ModelDuration;
+import net.wti.time.api.TimeAnchor;
+import net.wti.time.api.TimeAnchorKind;
+import net.wti.time.impl.DayCalendar;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.TimeAnchorUtil;
+import xapi.time.api.TimeZoneInfo;
+
+/// OccurrenceGenerator
+///
+/// Enumerates the days (and deadlines) on which a RecurrenceRule fires within a range of
+/// local day numbers, jumping straight from one occurrence to the next: O(occurrences),
+/// no per-day probing.
+///
+/// Semantics:
+/// - Days are local days in the given zone, honoring rolloverHour (ModelDay windows);
+///   a deadline is the wall-clock time the anchor's hour:minute past the day's start shows
+///   (DST-correct, not elapsed millis), exactly as TimeAnchorUtil computes DAILY deadlines.
+///   Rules without an anchor get deadline 0.
+/// - The cadence (amount, unit) is counted from the rule's phase day: the local day of
+///   activeRangeStartMillis, or DayIndex 0 when there is no start. A null cadence means
+///   "every 1" of the anchor's natural unit.
+/// - The anchor picks the day within each period:
+///   - DAILY: the phase day's position (every N days; same weekday every N weeks;
+///     same day of month every N months; same day of year every N years);
+///   - WEEKLY + WEEK cadence: anchor.dayOfWeek (0=Sunday) of every Nth week (weeks start on Sunday);
+///   - MONTHLY + MONTH cadence: anchor.dayOfMonth of every Nth month, clamped to short months;
+///   - YEARLY + YEAR cadence: anchor.dayOfYear of every Nth year, clamped to 365 in common years.
+///   Other anchor / cadence combinations are rejected with IllegalArgumentException.
+/// - Inactive rules (active == false) never fire; the active range clips the day range.
+///
+/// Calendar units are handled here with DayCalendar; TimeAnchorUtil and ModelDurationUtil
+/// still reject WEEKLY / MONTH / YEAR for single-day use.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 17:40
+public class OccurrenceGenerator {
+
+    /// Receives each occurrence, in day order.
+    public interface OccurrenceSink {
+        void onOccurrence(int dayNum, long deadlineMillis);
+    }
+
+    private final DayIndexService dayIndexService;
+
+    public OccurrenceGenerator(DayIndexService dayIndexService) {
+        if (dayIndexService == null) {
+            throw new IllegalArgumentException("dayIndexService must not be null");
+        }
+        this.dayIndexService = dayIndexService;
+    }
+
+    /// Occurrences in `[from, to]` using the default zone and rolloverHour.
+    public RecurrenceOccurrences occurrences(RecurrenceRule rule, DayIndex from, DayIndex to) {
+        return occurrences(rule, from, to, dayIndexService.getDefaultZone(), dayIndexService.getDefaultRolloverHour());
+    }
+
+    /// Occurrences in `[from, to]` (inclusive).
+    public RecurrenceOccurrences occurrences(RecurrenceRule rule, DayIndex from, DayIndex to, TimeZoneInfo zone, int rolloverHour) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to must not be null");
+        }
+        final RecurrenceOccurrences.Builder builder = new RecurrenceOccurrences.Builder();
+        forEach(rule, from.getDayNum(), to.getDayNum(), zone, rolloverHour, builder::add);
+        return builder.build();
+    }
+
+    /// @return true if `rule` fires on local day `dayNum`.
+    public boolean firesOn(RecurrenceRule rule, int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        return forEach(rule, dayNum, dayNum, zone, rolloverHour, (d, millis) -> { }) > 0;
+    }
+
+    /// Feeds every occurrence in `[fromDay, toDay]` to `sink`, in day order.
+    /// @return the number of occurrences.
+    public int forEach(RecurrenceRule rule, int fromDay, int toDay, TimeZoneInfo zone, int rolloverHour, OccurrenceSink sink) {
+        if (rule == null) {
+            throw new IllegalArgumentException("RecurrenceRule must not be null");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("zone must not be null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink must not be null");
+        }
+        if (rolloverHour < 0 || rolloverHour > 23) {
+            throw new IllegalArgumentException("rolloverHour must be 0-23, got: " + rolloverHour);
+        }
+        if (Boolean.FALSE.equals(rule.getActive())) {
+            return 0;
+        }
+
+        final TimeAnchor anchor = rule.getAnchor();
+        if (anchor != null) {
+            TimeAnchorUtil.validate(anchor);
+        }
+        final TimeAnchorKind kind = anchor == null ? TimeAnchorKind.DAILY : anchor.getKind();
+        final long anchorOffset = anchor == null ? -1 : anchorOffsetMillis(anchor);
+
+        final ModelDuration cadence = rule.getCadence();
+        final DurationUnit unit = cadence == null || cadence.getUnit() == null ? naturalUnit(kind) : cadence.getUnit();
+        final int amount = cadence == null || cadence.getAmount() == null ? 1 : cadence.getAmount();
+        if (amount < 1) {
+            throw new IllegalArgumentException("cadence amount must be positive, got: " + amount);
+        }
+        if (kind != TimeAnchorKind.DAILY && unit != naturalUnit(kind)) {
+            throw new IllegalArgumentException("TimeAnchorKind " + kind + " cannot be used with cadence unit " + unit);
+        }
+
+        // clip to the active range
+        final Long activeStart = rule.getActiveRangeStartMillis();
+        final Long activeEnd = rule.getActiveRangeEndMillis();
+        final int phase = activeStart == null ? 0 : DayIndexService.localDayNum(activeStart, zone, rolloverHour);
+        long from = fromDay;
+        long to = toDay;
+        if (activeStart != null) {
+            from = Math.max(from, phase);
+        }
+        if (activeEnd != null) {
+            to = Math.min(to, DayIndexService.localDayNum(activeEnd, zone, rolloverHour));
+        }
+        if (from > to) {
+            return 0;
+        }
+
+        final Emitter out = new Emitter(zone, rolloverHour, anchorOffset, sink);
+        switch (unit) {
+            case DAY:
+                everyDays(phase, amount, from, to, out);
+                break;
+            case WEEK:
+                final int dayOfWeek = kind == TimeAnchorKind.WEEKLY ? anchor.getDayOfWeek() : DayCalendar.dayOfWeek(phase);
+                if (dayOfWeek < 0 || dayOfWeek > 6) {
+                    throw new IllegalArgumentException("dayOfWeek must be 0-6; got " + dayOfWeek);
+                }
+                final long weekStart = (long) phase - DayCalendar.dayOfWeek(phase);
+                everyDays(weekStart + dayOfWeek, 7L * amount, from, to, out);
+                break;
+            case MONTH:
+                final int dayOfMonth = kind == TimeAnchorKind.MONTHLY ? anchor.getDayOfMonth() : DayCalendar.dayOfMonth(phase);
+                if (dayOfMonth < 1 || dayOfMonth > 31) {
+                    throw new IllegalArgumentException("dayOfMonth must be 1-31; got " + dayOfMonth);
+                }
+                everyMonths(DayCalendar.monthIndex(phase), amount, dayOfMonth, from, to, out);
+                break;
+            case YEAR:
+                final int dayOfYear = kind == TimeAnchorKind.YEARLY ? anchor.getDayOfYear() : DayCalendar.dayOfYear(phase);
+                if (dayOfYear < 1 || dayOfYear > 366) {
+                    throw new IllegalArgumentException("dayOfYear must be 1-366; got " + dayOfYear);
+                }
+                everyYears(DayCalendar.year(phase), amount, dayOfYear, from, to, out);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled DurationUnit: " + unit);
+        }
+        return out.count;
+    }
+
+    static DurationUnit naturalUnit(TimeAnchorKind kind) {
+        switch (kind) {
+            case DAILY:
+                return DurationUnit.DAY;
+            case WEEKLY:
+                return DurationUnit.WEEK;
+            case MONTHLY:
+                return DurationUnit.MONTH;
+            case YEARLY:
+                return DurationUnit.YEAR;
+            default:
+                throw new IllegalStateException("Unhandled TimeAnchorKind: " + kind);
+        }
+    }
+
+    static long anchorOffsetMillis(TimeAnchor anchor) {
+        final int hour = anchor.getHour();
+        final int minute = anchor.getMinute();
+        if (hour < 0 || hour > 23) {
+            throw new IllegalArgumentException("hour must be 0–23; got " + hour);
+        }
+        if (minute < 0 || minute > 59) {
+            throw new IllegalArgumentException("minute must be 0–59; got " + minute);
+        }
+        return ((long) hour * 60L + minute) * 60_000L;
+    }
+
+    /// Days `base + k * step` within `[from, to]`.
+    private static void everyDays(long base, long step, long from, long to, Emitter out) {
+        for (long day = base + ceilDiv(from - base, step) * step; day <= to; day += step) {
+            out.emit((int) day);
+        }
+    }
+
+    /// `dayOfMonth` (clamped) of months `phaseMonth + k * step` within `[from, to]`.
+    private static void everyMonths(int phaseMonth, int step, int dayOfMonth, long from, long to, Emitter out) {
+        final int fromMonth = DayCalendar.monthIndex((int) from);
+        for (long m = phaseMonth + ceilDiv(fromMonth - phaseMonth, step) * step; ; m += step) {
+            final int year = (int) Math.floorDiv(m, 12L);
+            final int month = (int) Math.floorMod(m, 12L) + 1;
+            final int day = DayCalendar.dayNum(year, month, Math.min(dayOfMonth, DayCalendar.lengthOfMonth(year, month)));
+            if (day > to) {
+                return;
+            }
+            if (day >= from) {
+                out.emit(day);
+            }
+        }
+    }
+
+    /// `dayOfYear` (clamped) of years `phaseYear + k * step` within `[from, to]`.
+    private static void everyYears(int phaseYear, int step, int dayOfYear, long from, long to, Emitter out) {
+        final int fromYear = DayCalendar.year((int) from);
+        for (long y = phaseYear + ceilDiv(fromYear - phaseYear, step) * step; ; y += step) {
+            final int year = (int) y;
+            final int day = DayCalendar.dayNum(year, 1, 1) + Math.min(dayOfYear, DayCalendar.lengthOfYear(year)) - 1;
+            if (day > to) {
+                return;
+            }
+            if (day >= from) {
+                out.emit(day);
+            }
+        }
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private static final class Emitter {
+        private final TimeZoneInfo zone;
+        private final int rolloverHour;
+        private final long anchorOffset;
+        private final OccurrenceSink sink;
+        private int count;
+
+        private Emitter(TimeZoneInfo zone, int rolloverHour, long anchorOffset, OccurrenceSink sink) {
+            this.zone = zone;
+            this.rolloverHour = rolloverHour;
+            this.anchorOffset = anchorOffset;
+            this.sink = sink;
+        }
+
+        void emit(int dayNum) {
+            final long deadline = anchorOffset < 0 ? 0L
+                    : DayIndexService.localWallTime(dayNum, anchorOffset, zone, rolloverHour);
+            count++;
+            sink.onOccurrence(dayNum, deadline);
+        }
+    }
+}
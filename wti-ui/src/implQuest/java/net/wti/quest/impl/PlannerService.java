@@ -6,6 +6,13 @@ import net.wti.time.api.ModelDay;
 import net.wti.time.api.TimeAnchor;
 import net.wti.time.impl.TimeAnchorUtil;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /// PlannerService
 ///
 /// Core materialization logic for a single (Definition × Rule × ModelDay).
@@ -18,7 +25,11 @@ import net.wti.time.impl.TimeAnchorUtil;
 /// - Otherwise:
 ///   - Compute deadlineMillis from rule.anchor + ModelDay window.
 ///   - Apply supplied skip flag (from schedule template).
-///   - Delegate to LiveQuestStore to create and persist a new instance.
+///   - Build a new instance via LiveQuestStore and persist it with saveIfAbsent, so
+///     concurrent callers for the same (day, LiveKey) all get the one stored instance.
+///
+/// ensureLiveQuestsForDay does the same for many (Definition × Rule) pairs of one day,
+/// with one batched store read and one batched write.
 ///
 /// Higher-level orchestration (iterating all defs/rules for a user, etc.)
 /// can be built on top of this unit.
@@ -59,21 +70,10 @@ public class PlannerService {
             throw new IllegalArgumentException("QuestDefinition must not be null");
         }
 
-        // If the definition itself is inactive, do nothing.
-        if (Boolean.FALSE.equals(definition.getActive())) {
+        if (!shouldMaterialize(definition, rule)) {
             return null;
         }
 
-        // If we have a rule, enforce its flags.
-        if (rule != null) {
-            if (Boolean.FALSE.equals(rule.getActive())) {
-                return null;
-            }
-            if (Boolean.FALSE.equals(rule.getAutoMaterialize())) {
-                return null;
-            }
-        }
-
         final String liveKey = QuestKeyUtil.liveKeyFor(definition, rule);
 
         // If already exists for this day, just return it.
@@ -82,24 +82,116 @@ public class PlannerService {
             return existing;
         }
 
-        // Compute deadlineMillis from rule anchor if present; otherwise, 0.
-        long deadlineMillis = 0L;
-        if (rule != null) {
-            final TimeAnchor anchor = rule.getAnchor();
-            if (anchor != null) {
-                deadlineMillis = TimeAnchorUtil.computeDeadlineMillis(day, anchor);
-            }
-        }
-
-        LiveQuest created = liveQuestStore.createLiveQuest(
+        final LiveQuest created = liveQuestStore.newLiveQuest(
                 day,
                 definition,
                 rule,
-                deadlineMillis,
+                deadlineFor(day, rule),
                 skip
         );
+        fillDefaults(created, day, definition, rule, liveKey, skip);
+
+        // Another thread may have created it since the find above; the store decides who wins.
+        return liveQuestStore.saveIfAbsent(day, created);
+    }
+
+    /**
+     * Batch form of ensureLiveQuestForDay: ensures every planned (definition × rule) for one day
+     * with a single LiveQuestStore.findLiveQuests read and a single saveLiveQuestsIfAbsent
+     * write (skipped entirely when nothing is missing).
+     *
+     * @param day     ModelDay window.
+     * @param planned the (definition, rule, skip) entries for this day.
+     *
+     * @return existing or newly created LiveQuests, in the order planned; entries that should
+     *         not be materialized are left out, and duplicate LiveKeys share one instance.
+     */
+    public List<LiveQuest> ensureLiveQuestsForDay(ModelDay day, List<PlannedQuest> planned) {
+        if (day == null) {
+            throw new IllegalArgumentException("ModelDay must not be null");
+        }
+        if (planned == null) {
+            throw new IllegalArgumentException("planned must not be null");
+        }
+
+        final List<PlannedQuest> wanted = new ArrayList<>(planned.size());
+        final Set<String> liveKeys = new LinkedHashSet<>();
+        for (PlannedQuest plan : planned) {
+            if (plan == null || !shouldMaterialize(plan.definition, plan.rule)) {
+                continue;
+            }
+            wanted.add(plan);
+            liveKeys.add(plan.liveKey);
+        }
+        if (wanted.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Map<String, LiveQuest> byKey = new HashMap<>(liveQuestStore.findLiveQuests(day, liveKeys));
+        final List<String> createdKeys = new ArrayList<>();
+        final List<LiveQuest> created = new ArrayList<>();
+        for (PlannedQuest plan : wanted) {
+            if (byKey.containsKey(plan.liveKey)) {
+                continue;
+            }
+            final LiveQuest quest = liveQuestStore.newLiveQuest(
+                    day,
+                    plan.definition,
+                    plan.rule,
+                    plan.deadlineMillis == PlannedQuest.COMPUTE_DEADLINE ? deadlineFor(day, plan.rule) : plan.deadlineMillis,
+                    plan.skip
+            );
+            fillDefaults(quest, day, plan.definition, plan.rule, plan.liveKey, plan.skip);
+            byKey.put(plan.liveKey, quest);
+            createdKeys.add(plan.liveKey);
+            created.add(quest);
+        }
+
+        if (!created.isEmpty()) {
+            // create-if-absent: instances created concurrently elsewhere win over ours
+            final List<LiveQuest> saved = liveQuestStore.saveLiveQuestsIfAbsent(day, created);
+            for (int i = 0; i < createdKeys.size(); i++) {
+                byKey.put(createdKeys.get(i), saved.get(i));
+            }
+        }
 
-        // Basic sanity: ensure key fields.
+        final List<LiveQuest> results = new ArrayList<>(wanted.size());
+        for (PlannedQuest plan : wanted) {
+            results.add(byKey.get(plan.liveKey));
+        }
+        return results;
+    }
+
+    private static boolean shouldMaterialize(QuestDefinition definition, RecurrenceRule rule) {
+        // If the definition itself is inactive, do nothing.
+        if (Boolean.FALSE.equals(definition.getActive())) {
+            return false;
+        }
+        // If we have a rule, enforce its flags.
+        if (rule != null) {
+            if (Boolean.FALSE.equals(rule.getActive())) {
+                return false;
+            }
+            if (Boolean.FALSE.equals(rule.getAutoMaterialize())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /// Compute deadlineMillis from rule anchor if present; otherwise, 0.
+    private static long deadlineFor(ModelDay day, RecurrenceRule rule) {
+        if (rule != null) {
+            final TimeAnchor anchor = rule.getAnchor();
+            if (anchor != null) {
+                return TimeAnchorUtil.computeDeadlineMillis(day, anchor);
+            }
+        }
+        return 0L;
+    }
+
+    /// Basic sanity: ensure key fields.
+    private void fillDefaults(LiveQuest created, ModelDay day, QuestDefinition definition, RecurrenceRule rule, String liveKey, boolean skip) {
         if (created.getLiveKey() == null) {
             created.setLiveKey(liveKey);
         }
@@ -121,7 +213,53 @@ public class PlannerService {
         if (rule != null && created.getSourceRuleKey() == null) {
             created.setSourceRuleKey(rule.getKey());
         }
+    }
+
+    /// One (definition × rule) to ensure, with its schedule-template skip flag and,
+    /// optionally, a deadline already computed by the caller (e.g. from a RulePlan).
+    public static final class PlannedQuest {
+        /// deadlineMillis value meaning "compute it from the rule's anchor".
+        public static final long COMPUTE_DEADLINE = Long.MIN_VALUE;
+
+        private final QuestDefinition definition;
+        private final RecurrenceRule rule;
+        private final boolean skip;
+        private final long deadlineMillis;
+        private final String liveKey;
+
+        public PlannedQuest(QuestDefinition definition, RecurrenceRule rule, boolean skip) {
+            this(definition, rule, skip, COMPUTE_DEADLINE);
+        }
+
+        public PlannedQuest(QuestDefinition definition, RecurrenceRule rule, boolean skip, long deadlineMillis) {
+            if (definition == null) {
+                throw new IllegalArgumentException("QuestDefinition must not be null");
+            }
+            this.definition = definition;
+            this.rule = rule;
+            this.skip = skip;
+            this.deadlineMillis = deadlineMillis;
+            this.liveKey = QuestKeyUtil.liveKeyFor(definition, rule);
+        }
 
-        return liveQuestStore.save(created);
+        public QuestDefinition getDefinition() {
+            return definition;
+        }
+
+        public RecurrenceRule getRule() {
+            return rule;
+        }
+
+        public boolean isSkip() {
+            return skip;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public String getLiveKey() {
+            return liveKey;
+        }
     }
 }
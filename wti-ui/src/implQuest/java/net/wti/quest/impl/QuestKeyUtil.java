@@ -37,4 +37,13 @@ public final class QuestKeyUtil {
         }
         return defId + "/" + ruleId;
     }
+
+    /// Key for one LiveQuest instance across days: `{dayIndex}:{liveKey}`.
+    /// Stores use it to make create-if-absent atomic (compare-and-set / lock striping).
+    public static String dayLiveKey(int dayIndex, String liveKey) {
+        if (liveKey == null) {
+            throw new IllegalArgumentException("liveKey must not be null");
+        }
+        return dayIndex + ":" + liveKey;
+    }
 }
@@ -0,0 +1,65 @@
+package net.wti.quest.impl;
+
+import net.wti.quest.api.QuestDefinition;
+import net.wti.quest.api.RecurrenceRule;
+import net.wti.time.api.ModelDay;
+
+/// QuestPlaceholder
+///
+/// A read-only projection of a LiveQuest expected on a day: what ensureDay would create,
+/// computed in memory and never persisted. Pass it to TodayPlannerService.materialize when
+/// the user touches it (starts, completes or edits it) to get the real LiveQuest.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 20:55
+public final class QuestPlaceholder {
+
+    private final ModelDay day;
+    private final QuestDefinition definition;
+    private final RecurrenceRule rule;
+    private final String liveKey;
+    private final long deadlineMillis;
+    private final boolean skip;
+
+    QuestPlaceholder(ModelDay day, QuestDefinition definition, RecurrenceRule rule, long deadlineMillis, boolean skip) {
+        this.day = day;
+        this.definition = definition;
+        this.rule = rule;
+        this.liveKey = QuestKeyUtil.liveKeyFor(definition, rule);
+        this.deadlineMillis = deadlineMillis;
+        this.skip = skip;
+    }
+
+    public ModelDay getDay() {
+        return day;
+    }
+
+    public int getDayNum() {
+        return day.getDayNum();
+    }
+
+    public QuestDefinition getDefinition() {
+        return definition;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public String getLiveKey() {
+        return liveKey;
+    }
+
+    /// @return the absolute deadline, or 0 when the rule has no anchor.
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public boolean isSkip() {
+        return skip;
+    }
+
+    @Override
+    public String toString() {
+        return "QuestPlaceholder{" + liveKey + " @ " + day.getDayNum() + (skip ? ", skip" : "") + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package net.wti.quest.impl;
+
+import net.wti.time.api.ModelDay;
+import net.wti.time.impl.ModelDayRange;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/// RangePlan
+///
+/// The quests expected on each day of `[fromDay, toDay]`, as returned by
+/// TodayPlannerService.ensureRange: a read-only projection, nothing is written.
+///
+/// Stored flat: per day, a slice of RulePlan entry indexes with their deadlines and skip
+/// flags. QuestPlaceholder objects are only built when a day's list is read.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 21:00
+public final class RangePlan {
+
+    private final RulePlan rulePlan;
+    private final ModelDayRange days;
+    /// Day `d` (offset from fromDay) owns entries `[dayStarts[d], dayStarts[d + 1])`.
+    private final int[] dayStarts;
+    private final int[] entries;
+    private final long[] deadlines;
+    private final BitSet skips;
+
+    RangePlan(RulePlan rulePlan, ModelDayRange days, int[] dayStarts, int[] entries, long[] deadlines, BitSet skips) {
+        this.rulePlan = rulePlan;
+        this.days = days;
+        this.dayStarts = dayStarts;
+        this.entries = entries;
+        this.deadlines = deadlines;
+        this.skips = skips;
+    }
+
+    public int getFromDay() {
+        return days.getFromDay();
+    }
+
+    public int getToDay() {
+        return days.getToDay();
+    }
+
+    /// @return the ModelDay windows of the range (cached, never persisted).
+    public ModelDayRange getDays() {
+        return days;
+    }
+
+    /// @return the total number of placeholders in the range.
+    public int size() {
+        return dayStarts[dayStarts.length - 1];
+    }
+
+    /// @return how many quests are expected on `dayNum`.
+    public int countOn(int dayNum) {
+        final int d = offset(dayNum);
+        return dayStarts[d + 1] - dayStarts[d];
+    }
+
+    /// @return the placeholders expected on `dayNum`, in plan order (an unmodifiable view).
+    public List<QuestPlaceholder> getPlaceholders(int dayNum) {
+        final int d = offset(dayNum);
+        final int from = dayStarts[d];
+        final int to = dayStarts[d + 1];
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        final ModelDay day = days.get(d);
+        return new AbstractList<QuestPlaceholder>() {
+            @Override
+            public QuestPlaceholder get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("index " + index + " not in [0, " + (to - from) + ")");
+                }
+                final int n = from + index;
+                final int i = entries[n];
+                return new QuestPlaceholder(day, rulePlan.getDefinition(i), rulePlan.getRule(i), deadlines[n], skips.get(n));
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    private int offset(int dayNum) {
+        if (dayNum < days.getFromDay() || dayNum > days.getToDay()) {
+            throw new IllegalArgumentException("day " + dayNum + " not in [" + days.getFromDay() + ", " + days.getToDay() + "]");
+        }
+        return dayNum - days.getFromDay();
+    }
+}
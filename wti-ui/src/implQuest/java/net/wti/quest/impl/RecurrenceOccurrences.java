@@ -0,0 +1,98 @@
+package net.wti.quest.impl;
+
+import net.wti.time.api.DayIndex;
+
+import java.util.Arrays;
+
+/// RecurrenceOccurrences
+///
+/// The occurrences of one RecurrenceRule over a day range, as parallel primitive arrays
+/// sorted by day: `getDayNum(i)` is the local day number, `getDeadlineMillis(i)` the
+/// absolute deadline inside that day's window.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 17:30
+public final class RecurrenceOccurrences {
+
+    static final RecurrenceOccurrences EMPTY = new RecurrenceOccurrences(new int[0], new long[0], 0);
+
+    private final int[] dayNums;
+    private final long[] deadlines;
+    private final int size;
+
+    RecurrenceOccurrences(final int[] dayNums, final long[] deadlines, final int size) {
+        this.dayNums = dayNums;
+        this.deadlines = deadlines;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getDayNum(final int i) {
+        checkIndex(i);
+        return dayNums[i];
+    }
+
+    public DayIndex getDayIndex(final int i) {
+        return DayIndex.of(getDayNum(i));
+    }
+
+    public long getDeadlineMillis(final int i) {
+        checkIndex(i);
+        return deadlines[i];
+    }
+
+    /// @return a copy of the day numbers.
+    public int[] toDayNums() {
+        return Arrays.copyOf(dayNums, size);
+    }
+
+    /// @return a copy of the deadlines.
+    public long[] toDeadlineMillis() {
+        return Arrays.copyOf(deadlines, size);
+    }
+
+    private void checkIndex(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " not in [0, " + size + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder("RecurrenceOccurrences{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                b.append(", ");
+            }
+            b.append(dayNums[i]).append('@').append(deadlines[i]);
+        }
+        return b.append('}').toString();
+    }
+
+    /// Growable buffer used while generating.
+    static final class Builder {
+        private int[] dayNums = new int[8];
+        private long[] deadlines = new long[8];
+        private int size;
+
+        void add(final int dayNum, final long deadline) {
+            if (size == dayNums.length) {
+                dayNums = Arrays.copyOf(dayNums, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            dayNums[size] = dayNum;
+            deadlines[size] = deadline;
+            size++;
+        }
+
+        RecurrenceOccurrences build() {
+            return size == 0 ? EMPTY : new RecurrenceOccurrences(dayNums, deadlines, size);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package net.wti.quest.impl;
+
+import net.wti.time.api.ModelDay;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.ModelDayService;
+import xapi.fu.log.Log;
+import xapi.model.api.ModelKey;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+/// RolloverScheduler
+///
+/// Fires a callback for each registered user exactly at their next day boundary, i.e. at
+/// `computeDayStart(today + 1, zone, rolloverHour)`, then re-arms for the boundary after
+/// that (recomputed from the zone's transition table each time, so 23h / 25h DST days are
+/// exact).
+///
+/// Users are grouped by (zone id, rolloverHour): every user in a group shares one boundary,
+/// so thousands of users cost one queue entry per distinct zone/rollover pair. The groups sit
+/// in a delay queue (a PriorityQueue ordered by next boundary) served by a single daemon
+/// thread, which sleeps until the earliest boundary and is woken early only when a
+/// registration moves that boundary; there is no polling.
+///
+/// If boundaries were missed (the process was suspended), each missed day fires in order.
+/// Callbacks run on the scheduler thread (outside its lock); an exception from one user's
+/// callback is logged and does not affect the others.
+///
+/// `fireDue(now)` runs the same logic synchronously, for tests or for callers that drive
+/// time themselves instead of calling `start()`.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 18:20
+public class RolloverScheduler {
+
+    /// Called once per user per boundary crossed.
+    public interface RolloverHandler {
+        /// @param closedDayNum the local day that just ended
+        /// @param boundaryMillis the instant the day `closedDayNum + 1` began
+        void onRollover(ModelKey userKey, TimeZoneInfo zone, int rolloverHour, int closedDayNum, long boundaryMillis, long nowMillis);
+    }
+
+    /// A handler that runs RolloverService.runRollover (fail overdue quests, then materialize the new day).
+    public static RolloverHandler runningRollover(final RolloverService rolloverService, final ModelDayService modelDayService) {
+        if (rolloverService == null || modelDayService == null) {
+            throw new IllegalArgumentException("rolloverService and modelDayService must not be null");
+        }
+        return (userKey, zone, rolloverHour, closedDayNum, boundaryMillis, nowMillis) -> {
+            final ModelDay closed = modelDayService.getOrCreateModelDayNum(closedDayNum, zone, rolloverHour);
+            rolloverService.runRollover(userKey, closed, nowMillis);
+        };
+    }
+
+    private final RolloverHandler handler;
+    private final LongSupplier clock;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Group> queue = new PriorityQueue<>((a, b) -> Long.compare(a.nextBoundary, b.nextBoundary));
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<ModelKey, Group> groupOfUser = new HashMap<>();
+    private Thread thread;
+    private volatile boolean running;
+
+    public RolloverScheduler(RolloverHandler handler) {
+        this(handler, System::currentTimeMillis);
+    }
+
+    public RolloverScheduler(RolloverHandler handler, LongSupplier clock) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("clock must not be null");
+        }
+        this.handler = handler;
+        this.clock = clock;
+    }
+
+    /// Registers (or moves) a user; their first callback fires at the start of their next local day.
+    public void register(ModelKey userKey, TimeZoneInfo zone, int rolloverHour) {
+        if (userKey == null) {
+            throw new IllegalArgumentException("userKey must not be null");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("zone must not be null");
+        }
+        if (rolloverHour < 0 || rolloverHour > 23) {
+            throw new IllegalArgumentException("rolloverHour must be 0-23, got: " + rolloverHour);
+        }
+        final long now = clock.getAsLong();
+        synchronized (lock) {
+            removeUser(userKey);
+            final String id = zone.getId() + "|" + rolloverHour;
+            Group group = groups.get(id);
+            if (group == null) {
+                group = new Group(id, zone, rolloverHour);
+                group.arm(DayIndexService.localDayNum(now, zone, rolloverHour));
+                groups.put(id, group);
+                queue.add(group);
+            }
+            group.users.add(userKey);
+            groupOfUser.put(userKey, group);
+            if (queue.peek() == group) {
+                // the earliest boundary may have moved; let the thread re-plan its sleep
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /// @return true if the user was registered.
+    public boolean unregister(ModelKey userKey) {
+        synchronized (lock) {
+            return removeUser(userKey);
+        }
+    }
+
+    /// @return the next boundary at which `userKey` will roll over, or -1 if not registered.
+    public long getNextBoundary(ModelKey userKey) {
+        synchronized (lock) {
+            final Group group = groupOfUser.get(userKey);
+            return group == null ? -1 : group.nextBoundary;
+        }
+    }
+
+    /// @return the earliest pending boundary, or Long.MAX_VALUE if nobody is registered.
+    public long getEarliestBoundary() {
+        synchronized (lock) {
+            final Group next = queue.peek();
+            return next == null ? Long.MAX_VALUE : next.nextBoundary;
+        }
+    }
+
+    public int getUserCount() {
+        synchronized (lock) {
+            return groupOfUser.size();
+        }
+    }
+
+    /// @return how many distinct (zone, rolloverHour) boundaries are queued.
+    public int getGroupCount() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /// Fires every boundary at or before `nowMillis` (re-arming each group), in boundary order.
+    /// @return the number of callbacks made.
+    public int fireDue(long nowMillis) {
+        int fired = 0;
+        while (true) {
+            final Group group;
+            final int closedDay;
+            final long boundary;
+            final List<ModelKey> users;
+            synchronized (lock) {
+                group = queue.peek();
+                if (group == null || group.nextBoundary > nowMillis) {
+                    return fired;
+                }
+                queue.poll();
+                closedDay = group.openingDay - 1;
+                boundary = group.nextBoundary;
+                users = new ArrayList<>(group.users);
+                group.arm(group.openingDay);
+                queue.add(group);
+            }
+            for (ModelKey user : users) {
+                try {
+                    handler.onRollover(user, group.zone, group.rolloverHour, closedDay, boundary, nowMillis);
+                } catch (Throwable t) {
+                    Log.tryLog(RolloverScheduler.class, this, "Rollover failed for", user, "at", boundary, t);
+                }
+                fired++;
+            }
+        }
+    }
+
+    /// Starts the scheduler thread (idempotent).
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            thread = new Thread(this::loop, "rollover-scheduler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /// Stops the scheduler thread; registrations are kept.
+    public void stop() {
+        final Thread t;
+        synchronized (lock) {
+            running = false;
+            t = thread;
+            thread = null;
+            lock.notifyAll();
+        }
+        if (t != null && t != Thread.currentThread()) {
+            try {
+                t.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            fireDue(clock.getAsLong());
+            synchronized (lock) {
+                if (!running) {
+                    return;
+                }
+                final Group next = queue.peek();
+                final long delay = next == null ? 0 : next.nextBoundary - clock.getAsLong();
+                if (next != null && delay <= 0) {
+                    continue;
+                }
+                try {
+                    // 0 = wait for a registration
+                    lock.wait(next == null ? 0 : delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean removeUser(ModelKey userKey) {
+        final Group group = groupOfUser.remove(userKey);
+        if (group == null) {
+            return false;
+        }
+        group.users.remove(userKey);
+        if (group.users.isEmpty()) {
+            groups.remove(group.id);
+            queue.remove(group);
+        }
+        return true;
+    }
+
+    /// Users sharing a zone and rollover hour, and so a day boundary.
+    private static final class Group {
+        private final String id;
+        private final TimeZoneInfo zone;
+        private final int rolloverHour;
+        private final LinkedHashSet<ModelKey> users = new LinkedHashSet<>();
+        /// The day that begins at nextBoundary.
+        private int openingDay;
+        private long nextBoundary;
+
+        private Group(String id, TimeZoneInfo zone, int rolloverHour) {
+            this.id = id;
+            this.zone = zone;
+            this.rolloverHour = rolloverHour;
+        }
+
+        /// Arms for the start of the day after `today` (callers re-queue the group).
+        void arm(int today) {
+            openingDay = today + 1;
+            nextBoundary = DayIndexService.localDayStart(openingDay, zone, rolloverHour);
+        }
+    }
+}
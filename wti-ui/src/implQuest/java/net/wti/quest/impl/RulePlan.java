@@ -0,0 +1,351 @@
+package net.wti.quest.impl;
+
+import net.wti.quest.api.QuestDefinition;
+import net.wti.quest.api.QuestDefinitionSource;
+import net.wti.quest.api.RecurrenceRule;
+import net.wti.quest.api.ScheduleTemplateService;
+import net.wti.time.api.DurationUnit;
+import net.wti.time.api.ModelDuration;
+import net.wti.time.api.TimeAnchor;
+import net.wti.time.api.TimeAnchorKind;
+import net.wti.time.impl.DayCalendar;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.TimeAnchorUtil;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// RulePlan
+///
+/// A user's materializable rules, compiled once into flat, immutable primitive arrays:
+/// one entry per (definition, rule index) that is active and auto-materialized, holding its
+/// cadence (unit, step, phase base), anchor position and time-of-day offset, active day range
+/// and schedule-template weekday skip mask.
+///
+/// `evaluate(dayNum, out)` is then a tight loop over those arrays (no allocation, no model
+/// getters) that picks the entries firing on a day, with the same semantics as
+/// OccurrenceGenerator. Day numbers, phases and active ranges are local days in the zone /
+/// rolloverHour the plan was compiled for; TodayPlannerService rebuilds the plan when the
+/// QuestDefinitionSource version, the ScheduleTemplateService templates version (the weekday
+/// skip masks), zone or rolloverHour changes.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 19:40
+public final class RulePlan {
+
+    static final int UNIT_DAY = 0;
+    static final int UNIT_WEEK = 1;
+    static final int UNIT_MONTH = 2;
+    static final int UNIT_YEAR = 3;
+
+    private final long version;
+    private final long templatesVersion;
+    private final TimeZoneInfo zone;
+    private final String zoneId;
+    private final int rolloverHour;
+    private final int size;
+
+    private final QuestDefinition[] definitions;
+    private final RecurrenceRule[] rules;
+    private final String[] definitionIds;
+    private final int[] ruleIndexes;
+    private final int[] units;
+    private final int[] steps;
+    /// DAY: phase day; WEEK: first day of the phase week; MONTH: phase month index; YEAR: phase year.
+    private final int[] bases;
+    /// WEEK: day of week; MONTH: day of month; YEAR: day of year (clamped when evaluated).
+    private final int[] positions;
+    private final int[] fromDays;
+    private final int[] toDays;
+    /// Wall-clock millis past the day's start, or -1 for rules without an anchor (deadline 0).
+    private final long[] anchorOffsets;
+    private final int[] skipWeekdays;
+
+    private RulePlan(long version, long templatesVersion, TimeZoneInfo zone, int rolloverHour, Builder b) {
+        this.version = version;
+        this.templatesVersion = templatesVersion;
+        this.zone = zone;
+        this.zoneId = zone.getId();
+        this.rolloverHour = rolloverHour;
+        this.size = b.definitions.size();
+        this.definitions = b.definitions.toArray(new QuestDefinition[size]);
+        this.rules = b.rules.toArray(new RecurrenceRule[size]);
+        this.definitionIds = b.definitionIds.toArray(new String[size]);
+        this.ruleIndexes = b.ints(b.ruleIndexes);
+        this.units = b.ints(b.units);
+        this.steps = b.ints(b.steps);
+        this.bases = b.ints(b.bases);
+        this.positions = b.ints(b.positions);
+        this.fromDays = b.ints(b.fromDays);
+        this.toDays = b.ints(b.toDays);
+        this.anchorOffsets = new long[size];
+        for (int i = 0; i < size; i++) {
+            anchorOffsets[i] = b.anchorOffsets.get(i);
+        }
+        this.skipWeekdays = b.ints(b.skipWeekdays);
+    }
+
+    /// Compiles `definitions` (null and inactive entries are dropped) for one zone / rolloverHour.
+    ///
+    /// @param version   QuestDefinitionSource.getDefinitionsVersion at the time definitions were read.
+    /// @param templates consulted once per entry for a fixed weekday skip mask; its
+    ///                  getTemplatesVersion is recorded first, so an edit racing the compile
+    ///                  leaves the plan outdated rather than silently current.
+    /// @throws IllegalArgumentException for a rule whose anchor and cadence do not fit together.
+    public static RulePlan compile(
+            Iterable<QuestDefinition> definitions,
+            long version,
+            ScheduleTemplateService templates,
+            TimeZoneInfo zone,
+            int rolloverHour
+    ) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone must not be null");
+        }
+        if (templates == null) {
+            throw new IllegalArgumentException("templates must not be null");
+        }
+        if (rolloverHour < 0 || rolloverHour > 23) {
+            throw new IllegalArgumentException("rolloverHour must be 0-23, got: " + rolloverHour);
+        }
+        final long templatesVersion = templates.getTemplatesVersion();
+        final Builder b = new Builder();
+        if (definitions != null) {
+            for (QuestDefinition definition : definitions) {
+                if (definition == null || Boolean.FALSE.equals(definition.getActive())) {
+                    continue;
+                }
+                final RecurrenceRule[] rules = definition.getRules();
+                if (rules == null) {
+                    continue;
+                }
+                final String definitionId = QuestKeyUtil.liveKeyFor(definition, null);
+                for (int r = 0; r < rules.length; r++) {
+                    final RecurrenceRule rule = rules[r];
+                    if (rule == null
+                            || Boolean.FALSE.equals(rule.getActive())
+                            || Boolean.FALSE.equals(rule.getAutoMaterialize())) {
+                        continue;
+                    }
+                    b.add(definition, definitionId, r, rule, templates.getSkipWeekdays(definition, rule), zone, rolloverHour);
+                }
+            }
+        }
+        return new RulePlan(version, templatesVersion, zone, rolloverHour, b);
+    }
+
+    /// @return true if this plan was compiled from definitions `version` and templates
+    ///         `templatesVersion`, for the given zone and rolloverHour.
+    public boolean isCurrent(long version, long templatesVersion, TimeZoneInfo zone, int rolloverHour) {
+        return version != QuestDefinitionSource.UNVERSIONED
+                && this.version == version
+                && this.templatesVersion == templatesVersion
+                && this.rolloverHour == rolloverHour
+                && zoneId.equals(zone.getId());
+    }
+
+    /// Writes the indexes of every entry firing on local day `dayNum` into `out`, in plan order.
+    ///
+    /// @param out must hold at least size() ints.
+    /// @return how many indexes were written.
+    public int evaluate(int dayNum, int[] out) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("out must hold " + size + " entries, got: " + out.length);
+        }
+        // calendar fields of the day, once
+        final int dayOfWeek = DayCalendar.dayOfWeek(dayNum);
+        final int year = DayCalendar.year(dayNum);
+        final int month = DayCalendar.month(dayNum);
+        final int monthIndex = DayCalendar.monthIndex(dayNum);
+        final int dayOfMonth = DayCalendar.dayOfMonth(dayNum);
+        final int monthLength = DayCalendar.lengthOfMonth(year, month);
+        final int dayOfYear = DayCalendar.dayOfYear(dayNum);
+        final int yearLength = DayCalendar.lengthOfYear(year);
+
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            if (dayNum < fromDays[i] || dayNum > toDays[i]) {
+                continue;
+            }
+            final long step = steps[i];
+            switch (units[i]) {
+                case UNIT_DAY:
+                    if (Math.floorMod((long) dayNum - bases[i], step) != 0) {
+                        continue;
+                    }
+                    break;
+                case UNIT_WEEK:
+                    if (dayOfWeek != positions[i]
+                            || Math.floorMod(Math.floorDiv((long) dayNum - bases[i], 7L), step) != 0) {
+                        continue;
+                    }
+                    break;
+                case UNIT_MONTH:
+                    if (dayOfMonth != Math.min(positions[i], monthLength)
+                            || Math.floorMod((long) monthIndex - bases[i], step) != 0) {
+                        continue;
+                    }
+                    break;
+                default:
+                    if (dayOfYear != Math.min(positions[i], yearLength)
+                            || Math.floorMod((long) year - bases[i], step) != 0) {
+                        continue;
+                    }
+                    break;
+            }
+            out[found++] = i;
+        }
+        return found;
+    }
+
+    /// @return the deadline of entry `i` on local day `dayNum` (wall-clock, DST-correct),
+    ///         or 0 without an anchor.
+    public long deadlineMillis(int i, int dayNum) {
+        final long offset = anchorOffsets[i];
+        return offset < 0 ? 0L : DayIndexService.localWallTime(dayNum, offset, zone, rolloverHour);
+    }
+
+    /// @return true / false when entry `i`'s weekday mask decides skipping on `dayNum`;
+    ///         null when the ScheduleTemplateService must be asked (SKIP_DYNAMIC).
+    public Boolean skipOn(int i, int dayNum) {
+        final int mask = skipWeekdays[i];
+        if (mask == ScheduleTemplateService.SKIP_DYNAMIC) {
+            return null;
+        }
+        return ((mask >>> DayCalendar.dayOfWeek(dayNum)) & 1) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTemplatesVersion() {
+        return templatesVersion;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public int getRolloverHour() {
+        return rolloverHour;
+    }
+
+    public QuestDefinition getDefinition(int i) {
+        return definitions[i];
+    }
+
+    public RecurrenceRule getRule(int i) {
+        return rules[i];
+    }
+
+    public String getDefinitionId(int i) {
+        return definitionIds[i];
+    }
+
+    /// @return the index of entry `i`'s rule within its definition's rules array.
+    public int getRuleIndex(int i) {
+        return ruleIndexes[i];
+    }
+
+    /// Growable columns used while compiling.
+    private static final class Builder {
+        private final List<QuestDefinition> definitions = new ArrayList<>();
+        private final List<RecurrenceRule> rules = new ArrayList<>();
+        private final List<String> definitionIds = new ArrayList<>();
+        private final List<Integer> ruleIndexes = new ArrayList<>();
+        private final List<Integer> units = new ArrayList<>();
+        private final List<Integer> steps = new ArrayList<>();
+        private final List<Integer> bases = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<Integer> fromDays = new ArrayList<>();
+        private final List<Integer> toDays = new ArrayList<>();
+        private final List<Long> anchorOffsets = new ArrayList<>();
+        private final List<Integer> skipWeekdays = new ArrayList<>();
+
+        void add(QuestDefinition definition, String definitionId, int ruleIndex, RecurrenceRule rule, int skipMask, TimeZoneInfo zone, int rolloverHour) {
+            final TimeAnchor anchor = rule.getAnchor();
+            if (anchor != null) {
+                TimeAnchorUtil.validate(anchor);
+            }
+            final TimeAnchorKind kind = anchor == null ? TimeAnchorKind.DAILY : anchor.getKind();
+
+            final ModelDuration cadence = rule.getCadence();
+            final DurationUnit unit = cadence == null || cadence.getUnit() == null
+                    ? OccurrenceGenerator.naturalUnit(kind) : cadence.getUnit();
+            final int step = cadence == null || cadence.getAmount() == null ? 1 : cadence.getAmount();
+            if (step < 1) {
+                throw new IllegalArgumentException("cadence amount must be positive, got: " + step + " (rule " + rule.getRuleId() + ")");
+            }
+            if (kind != TimeAnchorKind.DAILY && unit != OccurrenceGenerator.naturalUnit(kind)) {
+                throw new IllegalArgumentException("TimeAnchorKind " + kind + " cannot be used with cadence unit " + unit + " (rule " + rule.getRuleId() + ")");
+            }
+
+            final Long activeStart = rule.getActiveRangeStartMillis();
+            final Long activeEnd = rule.getActiveRangeEndMillis();
+            final int phase = activeStart == null ? 0 : DayIndexService.localDayNum(activeStart, zone, rolloverHour);
+
+            final int unitCode;
+            final int base;
+            final int position;
+            switch (unit) {
+                case DAY:
+                    unitCode = UNIT_DAY;
+                    base = phase;
+                    position = 0;
+                    break;
+                case WEEK:
+                    unitCode = UNIT_WEEK;
+                    base = phase - DayCalendar.dayOfWeek(phase);
+                    position = kind == TimeAnchorKind.WEEKLY ? anchor.getDayOfWeek() : DayCalendar.dayOfWeek(phase);
+                    if (position < 0 || position > 6) {
+                        throw new IllegalArgumentException("dayOfWeek must be 0-6; got " + position);
+                    }
+                    break;
+                case MONTH:
+                    unitCode = UNIT_MONTH;
+                    base = DayCalendar.monthIndex(phase);
+                    position = kind == TimeAnchorKind.MONTHLY ? anchor.getDayOfMonth() : DayCalendar.dayOfMonth(phase);
+                    if (position < 1 || position > 31) {
+                        throw new IllegalArgumentException("dayOfMonth must be 1-31; got " + position);
+                    }
+                    break;
+                case YEAR:
+                    unitCode = UNIT_YEAR;
+                    base = DayCalendar.year(phase);
+                    position = kind == TimeAnchorKind.YEARLY ? anchor.getDayOfYear() : DayCalendar.dayOfYear(phase);
+                    if (position < 1 || position > 366) {
+                        throw new IllegalArgumentException("dayOfYear must be 1-366; got " + position);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled DurationUnit: " + unit);
+            }
+
+            definitions.add(definition);
+            rules.add(rule);
+            definitionIds.add(definitionId);
+            ruleIndexes.add(ruleIndex);
+            units.add(unitCode);
+            steps.add(step);
+            bases.add(base);
+            positions.add(position);
+            fromDays.add(activeStart == null ? Integer.MIN_VALUE : phase);
+            toDays.add(activeEnd == null ? Integer.MAX_VALUE : DayIndexService.localDayNum(activeEnd, zone, rolloverHour));
+            anchorOffsets.add(anchor == null ? -1L : OccurrenceGenerator.anchorOffsetMillis(anchor));
+            skipWeekdays.add(skipMask == ScheduleTemplateService.SKIP_DYNAMIC ? skipMask : skipMask & 0x7F);
+        }
+
+        int[] ints(List<Integer> column) {
+            final int[] out = new int[column.size()];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = column.get(i);
+            }
+            return out;
+        }
+    }
+}
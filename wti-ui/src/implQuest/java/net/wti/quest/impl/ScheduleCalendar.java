@@ -0,0 +1,198 @@
+package net.wti.quest.impl;
+
+import net.wti.quest.api.HolidaySetSource;
+import net.wti.quest.api.ScheduleTemplate;
+import net.wti.time.impl.DayCalendar;
+import xapi.model.api.ModelKey;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// ScheduleCalendar
+///
+/// Compiles ScheduleTemplates into per-year day bitmaps: `weekdaysOn AND NOT holidays`,
+/// so "does the template apply on day N" is a single bit test, and a range of days is
+/// counted with word-level bit operations.
+///
+/// Conventions:
+/// - Days are local day numbers; weekdays are DayCalendar's 0=Sunday..6=Saturday
+///   (7 is also accepted as Sunday, for 1-7 ISO style templates).
+/// - A template without weekdaysOn applies on every day (minus holidays).
+/// - Holiday sets are resolved through a HolidaySetSource.
+///
+/// Bitmaps are cached per template key and year, built lazily. The cache is NOT notified
+/// of model changes by itself: call invalidateTemplate when a template is edited and
+/// invalidateHolidaySet when a holiday set changes (CalendarScheduleTemplateService's
+/// onTemplateSaved / onHolidaySetSaved do both, for the code persisting them). Each
+/// invalidation bumps getVersion. Templates without a key are compiled on every call and
+/// never cached.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 20:20
+public class ScheduleCalendar {
+
+    private final HolidaySetSource holidays;
+    private final ConcurrentHashMap<ModelKey, Compiled> cache = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public ScheduleCalendar() {
+        this(HolidaySetSource.NONE);
+    }
+
+    public ScheduleCalendar(HolidaySetSource holidays) {
+        if (holidays == null) {
+            throw new IllegalArgumentException("holidays must not be null");
+        }
+        this.holidays = holidays;
+    }
+
+    /// @return true if `template` applies (is "on") on local day `dayNum`.
+    public boolean appliesOn(ScheduleTemplate template, int dayNum) {
+        return yearBitmap(template, DayCalendar.year(dayNum)).isSet(dayNum);
+    }
+
+    /// @return how many days in `[fromDay, toDay]` the template applies on.
+    public int countApplies(ScheduleTemplate template, int fromDay, int toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        int count = 0;
+        final int lastYear = DayCalendar.year(toDay);
+        for (int year = DayCalendar.year(fromDay); year <= lastYear; year++) {
+            count += yearBitmap(template, year).count(fromDay, toDay);
+        }
+        return count;
+    }
+
+    /// @return true if the template applies on every day of `[fromDay, toDay]`.
+    public boolean appliesOnAll(ScheduleTemplate template, int fromDay, int toDay) {
+        return countApplies(template, fromDay, toDay) == (long) toDay - fromDay + 1;
+    }
+
+    /// @return the compiled bitmap of `template` for `year` (cached when the template has a key).
+    public YearBitmap yearBitmap(ScheduleTemplate template, int year) {
+        if (template == null) {
+            throw new IllegalArgumentException("ScheduleTemplate must not be null");
+        }
+        final ModelKey key = template.getKey();
+        if (key == null) {
+            return compile(template, year);
+        }
+        Compiled compiled = cache.get(key);
+        if (compiled == null) {
+            final Compiled created = new Compiled(template.getHolidaySetKeys());
+            compiled = cache.putIfAbsent(key, created);
+            if (compiled == null) {
+                compiled = created;
+            }
+        }
+        final YearBitmap cached = compiled.years.get(year);
+        if (cached != null) {
+            return cached;
+        }
+        final YearBitmap built = compile(template, year);
+        final YearBitmap raced = compiled.years.putIfAbsent(year, built);
+        return raced == null ? built : raced;
+    }
+
+    /// Drops every compiled year of the template with `templateKey`.
+    public void invalidateTemplate(ModelKey templateKey) {
+        if (templateKey != null) {
+            cache.remove(templateKey);
+            version.incrementAndGet();
+        }
+    }
+
+    /// Drops every compiled template that references `holidaySetKey`.
+    public void invalidateHolidaySet(String holidaySetKey) {
+        if (holidaySetKey == null) {
+            return;
+        }
+        cache.entrySet().removeIf(e -> e.getValue().references(holidaySetKey));
+        version.incrementAndGet();
+    }
+
+    public void clear() {
+        cache.clear();
+        version.incrementAndGet();
+    }
+
+    /// @return a counter bumped by every invalidation (see ScheduleTemplateService.getTemplatesVersion).
+    public long getVersion() {
+        return version.get();
+    }
+
+    /// @return how many templates currently have compiled years.
+    public int getCachedTemplateCount() {
+        return cache.size();
+    }
+
+    /// Builds one year: the weekday pattern, then each holiday cleared.
+    YearBitmap compile(ScheduleTemplate template, int year) {
+        final int firstDay = DayCalendar.dayNum(year, 1, 1);
+        final int length = DayCalendar.lengthOfYear(year);
+        final long[] words = YearBitmap.newWords(year);
+
+        final int weekdays = weekdayMask(template.getWeekdaysOn());
+        int dayOfWeek = DayCalendar.dayOfWeek(firstDay);
+        for (int d = 0; d < length; d++) {
+            if ((weekdays & (1 << dayOfWeek)) != 0) {
+                words[d >>> 6] |= 1L << d;
+            }
+            dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+        }
+
+        final String[] holidaySetKeys = template.getHolidaySetKeys();
+        if (holidaySetKeys != null) {
+            final int lastDay = firstDay + length - 1;
+            for (String holidaySetKey : holidaySetKeys) {
+                if (holidaySetKey == null) {
+                    continue;
+                }
+                final int[] days = holidays.findHolidayDays(holidaySetKey, firstDay, lastDay);
+                if (days == null) {
+                    continue;
+                }
+                for (int day : days) {
+                    final int d = day - firstDay;
+                    if (d >= 0 && d < length) {
+                        words[d >>> 6] &= ~(1L << d);
+                    }
+                }
+            }
+        }
+        return new YearBitmap(year, words);
+    }
+
+    /// weekdaysOn -> 7-bit mask (bit 0 = Sunday); null means every day.
+    static int weekdayMask(Integer[] weekdaysOn) {
+        if (weekdaysOn == null) {
+            return 0x7F;
+        }
+        int mask = 0;
+        for (Integer weekday : weekdaysOn) {
+            if (weekday == null) {
+                continue;
+            }
+            if (weekday < 0 || weekday > 7) {
+                throw new IllegalArgumentException("weekdaysOn entries must be 0-6 (or 7 for Sunday), got: " + weekday);
+            }
+            mask |= 1 << (weekday % 7);
+        }
+        return mask;
+    }
+
+    /// The compiled years of one template, plus the holiday sets they were built from.
+    private static final class Compiled {
+        private final String[] holidaySetKeys;
+        private final ConcurrentHashMap<Integer, YearBitmap> years = new ConcurrentHashMap<>();
+
+        private Compiled(String[] holidaySetKeys) {
+            this.holidaySetKeys = holidaySetKeys == null ? new String[0] : holidaySetKeys.clone();
+        }
+
+        boolean references(String holidaySetKey) {
+            return Arrays.asList(holidaySetKeys).contains(holidaySetKey);
+        }
+    }
+}
@@ -8,13 +8,17 @@ import net.wti.quest.api.ScheduleTemplateService;
 import net.wti.time.api.DayIndex;
 import net.wti.time.api.ModelDay;
 import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.ModelDayRange;
 import net.wti.time.impl.ModelDayService;
 import xapi.model.api.ModelKey;
 import xapi.time.api.TimeZoneInfo;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /// TodayPlannerService
 ///
@@ -22,10 +26,15 @@ import java.util.List;
 ///
 /// Responsibilities:
 ///  - Resolve today's DayIndex and ModelDay (zone + rollover-aware).
-///  - Load relevant QuestDefinitions for a user.
-///  - For each active definition and rule:
-///      - Ask ScheduleTemplateService whether to skip.
-///      - Delegate to PlannerService.ensureLiveQuestForDay.
+///  - Compile the user's QuestDefinitions into a RulePlan (flat arrays of the active,
+///    auto-materialized rules), rebuilt only when QuestDefinitionSource reports a new version.
+///  - For each rule of the plan that fires on the day (cadence + anchor):
+///      - Take the skip flag from the plan's weekday mask, or ask ScheduleTemplateService.
+///  - Delegate the whole day to PlannerService.ensureLiveQuestsForDay
+///    (one batched store read, one batched write).
+///  - For a range of days (ensureRange), project the same quests as QuestPlaceholders,
+///    in memory only; a placeholder becomes a real LiveQuest via materialize, when the user
+///    touches it.
 ///
 /// This class does NOT:
 ///  - Talk to storage directly (it uses PlannerService and QuestDefinitionSource).
@@ -40,6 +49,8 @@ public class TodayPlannerService {
     private final QuestDefinitionSource definitionSource;
     private final ScheduleTemplateService scheduleTemplateService;
     private final PlannerService plannerService;
+    /// Compiled rules per user; see getRulePlan.
+    private final ConcurrentHashMap<ModelKey, RulePlan> rulePlans = new ConcurrentHashMap<>();
 
     public TodayPlannerService(
             DayIndexService dayIndexService,
@@ -73,10 +84,15 @@ public class TodayPlannerService {
     /// Ensures "today" is materialized for the given user using the default
     /// zone and rolloverHour configured in DayIndexService.
     ///
+    /// Today is the local day (the ModelDay window containing now), the same numbering
+    /// RulePlan evaluates weekdays and months in.
+    ///
     /// @return List of LiveQuest instances that were created or found.
     public List<LiveQuest> ensureToday(ModelKey userKey) {
-        final DayIndex todayIndex = dayIndexService.today();
-        final ModelDay today = modelDayService.getOrCreateModelDay(todayIndex);
+        final TimeZoneInfo zone = dayIndexService.getDefaultZone();
+        final int rolloverHour = dayIndexService.getDefaultRolloverHour();
+        final DayIndex todayIndex = dayIndexService.computeLocalDayIndex(System.currentTimeMillis(), zone, rolloverHour);
+        final ModelDay today = modelDayService.getOrCreateModelDay(todayIndex, zone, rolloverHour);
         return ensureDay(userKey, today);
     }
 
@@ -84,19 +100,20 @@ public class TodayPlannerService {
     /// using a custom zone and rolloverHour.
     ///
     /// Useful for "what will my day look like on X date in Y zone?"
+    /// The day is the local one whose window contains epochMillis.
     public List<LiveQuest> ensureDayForEpoch(
             ModelKey userKey,
             double epochMillis,
             TimeZoneInfo zone,
             int rolloverHour
     ) {
-        DayIndex dayIndex = dayIndexService.computeDayIndex(epochMillis, zone, rolloverHour);
+        DayIndex dayIndex = dayIndexService.computeLocalDayIndex((long) epochMillis, zone, rolloverHour);
         ModelDay day = modelDayService.getOrCreateModelDay(dayIndex, zone, rolloverHour);
         return ensureDay(userKey, day);
     }
 
     /// Core entrypoint: given a user and a concrete ModelDay window,
-    /// materialize all active rules for that day.
+    /// materialize all rules of the user's RulePlan that fire on that day.
     public List<LiveQuest> ensureDay(ModelKey userKey, ModelDay day) {
         if (userKey == null) {
             throw new IllegalArgumentException("userKey must not be null");
@@ -105,51 +122,145 @@ public class TodayPlannerService {
             throw new IllegalArgumentException("day must not be null");
         }
 
-        final Iterable<QuestDefinition> definitions = definitionSource.findDefinitionsForUser(userKey);
-        if (definitions == null) {
-            return Collections.emptyList();
+        final RulePlan plan = getRulePlan(userKey, day.zone(), day.rolloverHour());
+        if (plan.size() == 0) {
+            return new ArrayList<>();
         }
 
-        final List<LiveQuest> results = new ArrayList<>();
+        final int dayNum = day.getDayNum();
+        final int[] firing = new int[plan.size()];
+        final int count = plan.evaluate(dayNum, firing);
 
-        for (QuestDefinition questDefinition : definitions) {
-            if (questDefinition == null) {
-                continue;
-            }
-            if (Boolean.FALSE.equals(questDefinition.getActive())) {
-                continue;
-            }
+        final List<PlannerService.PlannedQuest> planned = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            final int i = firing[n];
+            final QuestDefinition questDefinition = plan.getDefinition(i);
+            final RecurrenceRule rule = plan.getRule(i);
+            final Boolean fixedSkip = plan.skipOn(i, dayNum);
+            final boolean skip = fixedSkip != null
+                    ? fixedSkip
+                    : scheduleTemplateService.shouldSkip(day, questDefinition, rule);
+            planned.add(new PlannerService.PlannedQuest(questDefinition, rule, skip, plan.deadlineMillis(i, dayNum)));
+        }
 
-            RecurrenceRule[] rules = questDefinition.getRules();
-            if (rules == null || rules.length == 0) {
-                /// No rules: definition can still be started manually; ensureToday does nothing.
-                continue;
-            }
+        /// One store read and (at most) one store write for the whole day.
+        return plannerService.ensureLiveQuestsForDay(day, planned);
+    }
 
-            for (RecurrenceRule rule : rules) {
-                if (rule == null) {
-                    continue;
-                }
-                /// Inactive / non-autoMaterialize rules are already filtered in PlannerService,
-                /// but we can short-circuit here as well.
-                if (Boolean.FALSE.equals(rule.getActive())) {
-                    continue;
-                }
-                if (Boolean.FALSE.equals(rule.getAutoMaterialize())) {
-                    continue;
-                }
+    /// Projects the quests expected on every day of `[from, to]` (inclusive), using the default
+    /// zone and rolloverHour configured in DayIndexService. See the overload for details.
+    public RangePlan ensureRange(ModelKey userKey, DayIndex from, DayIndex to) {
+        return ensureRange(userKey, from, to, dayIndexService.getDefaultZone(), dayIndexService.getDefaultRolloverHour());
+    }
 
-                final boolean skip = scheduleTemplateService.shouldSkip(day, questDefinition, rule);
+    /// Projects the quests expected on every day of `[from, to]` (inclusive) for one zone and
+    /// rolloverHour: the same (definition, rule, skip, deadline) ensureDay would materialize,
+    /// as read-only QuestPlaceholders.
+    ///
+    /// Nothing is read from or written to the LiveQuestStore; quests already stored for those
+    /// days are not overlaid. Call materialize when the user starts, completes or edits one.
+    public RangePlan ensureRange(
+            ModelKey userKey,
+            DayIndex from,
+            DayIndex to,
+            TimeZoneInfo zone,
+            int rolloverHour
+    ) {
+        if (userKey == null) {
+            throw new IllegalArgumentException("userKey must not be null");
+        }
+        final ModelDayRange days = modelDayService.getOrCreateModelDays(from, to, zone, rolloverHour);
+        final RulePlan plan = getRulePlan(userKey, zone, rolloverHour);
 
-                LiveQuest liveQuest =
-                        plannerService.ensureLiveQuestForDay(day, questDefinition, rule, skip);
+        final int dayCount = days.size();
+        final int[] dayStarts = new int[dayCount + 1];
+        final int[] firing = new int[plan.size()];
+        int[] entries = new int[Math.max(16, plan.size() * 2)];
+        long[] deadlines = new long[entries.length];
+        final BitSet skips = new BitSet();
+        int total = 0;
 
-                if (liveQuest != null) {
-                    results.add(liveQuest);
+        for (int d = 0; d < dayCount; d++) {
+            dayStarts[d] = total;
+            if (plan.size() == 0) {
+                continue;
+            }
+            final ModelDay day = days.get(d);
+            final int dayNum = day.getDayNum();
+            final int count = plan.evaluate(dayNum, firing);
+            if (total + count > entries.length) {
+                final int grown = Math.max(entries.length * 2, total + count);
+                entries = Arrays.copyOf(entries, grown);
+                deadlines = Arrays.copyOf(deadlines, grown);
+            }
+            for (int n = 0; n < count; n++) {
+                final int i = firing[n];
+                final Boolean fixedSkip = plan.skipOn(i, dayNum);
+                final boolean skip = fixedSkip != null
+                        ? fixedSkip
+                        : scheduleTemplateService.shouldSkip(day, plan.getDefinition(i), plan.getRule(i));
+                entries[total] = i;
+                deadlines[total] = plan.deadlineMillis(i, dayNum);
+                if (skip) {
+                    skips.set(total);
                 }
+                total++;
             }
         }
+        dayStarts[dayCount] = total;
+        return new RangePlan(plan, days, dayStarts, entries, deadlines, skips);
+    }
+
+    /// Turns a placeholder into a real LiveQuest (created if absent, found otherwise), through
+    /// the same PlannerService path as ensureDay. Call this when the user touches the quest.
+    ///
+    /// @return the LiveQuest, or null if PlannerService declined to materialize it.
+    public LiveQuest materialize(QuestPlaceholder placeholder) {
+        if (placeholder == null) {
+            throw new IllegalArgumentException("placeholder must not be null");
+        }
+        final List<LiveQuest> quests = plannerService.ensureLiveQuestsForDay(
+                placeholder.getDay(),
+                Collections.singletonList(new PlannerService.PlannedQuest(
+                        placeholder.getDefinition(),
+                        placeholder.getRule(),
+                        placeholder.isSkip(),
+                        placeholder.getDeadlineMillis()
+                ))
+        );
+        return quests.isEmpty() ? null : quests.get(0);
+    }
+
+    /// Returns the user's compiled RulePlan for a zone / rolloverHour, reusing the cached one
+    /// while neither QuestDefinitionSource.getDefinitionsVersion nor
+    /// ScheduleTemplateService.getTemplatesVersion reports a change. Unversioned sources
+    /// are re-read and recompiled on every call.
+    public RulePlan getRulePlan(ModelKey userKey, TimeZoneInfo zone, int rolloverHour) {
+        if (userKey == null) {
+            throw new IllegalArgumentException("userKey must not be null");
+        }
+        final long version = definitionSource.getDefinitionsVersion(userKey);
+        final RulePlan cached = rulePlans.get(userKey);
+        if (cached != null && cached.isCurrent(version, scheduleTemplateService.getTemplatesVersion(), zone, rolloverHour)) {
+            return cached;
+        }
+        final RulePlan plan = RulePlan.compile(
+                definitionSource.findDefinitionsForUser(userKey),
+                version,
+                scheduleTemplateService,
+                zone,
+                rolloverHour
+        );
+        if (version == QuestDefinitionSource.UNVERSIONED) {
+            rulePlans.remove(userKey);
+        } else {
+            rulePlans.put(userKey, plan);
+        }
+        return plan;
+    }
 
-        return results;
+    /// Drops the user's cached RulePlan, e.g. when definitions changed behind an unversioned source.
+    public void invalidateRulePlan(ModelKey userKey) {
+        rulePlans.remove(userKey);
     }
 }
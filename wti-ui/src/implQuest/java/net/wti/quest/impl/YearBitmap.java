@@ -0,0 +1,84 @@
+package net.wti.quest.impl;
+
+import net.wti.time.impl.DayCalendar;
+
+/// YearBitmap
+///
+/// One bit per day of a calendar year (bit `d` = local day `firstDay + d`), packed into
+/// six longs. A single day is one bit test; ranges are counted a word at a time.
+///
+/// Instances are immutable once built by ScheduleCalendar.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 20:15
+public final class YearBitmap {
+
+    private final int year;
+    private final int firstDay;
+    private final int length;
+    private final long[] words;
+
+    YearBitmap(int year, long[] words) {
+        this.year = year;
+        this.firstDay = DayCalendar.dayNum(year, 1, 1);
+        this.length = DayCalendar.lengthOfYear(year);
+        this.words = words;
+    }
+
+    /// An all-clear bitmap sized for `year`.
+    static long[] newWords(int year) {
+        return new long[(DayCalendar.lengthOfYear(year) + 63) >>> 6];
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /// @return the local day number of January 1st.
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /// @return the local day number of December 31st.
+    public int getLastDay() {
+        return firstDay + length - 1;
+    }
+
+    /// @return true if the bit for local day `dayNum` is set (false outside this year).
+    public boolean isSet(int dayNum) {
+        final int bit = dayNum - firstDay;
+        if (bit < 0 || bit >= length) {
+            return false;
+        }
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /// @return how many days in `[fromDay, toDay]` (clipped to this year) are set.
+    public int count(int fromDay, int toDay) {
+        final int lo = Math.max(fromDay, firstDay) - firstDay;
+        final int hi = Math.min(toDay, getLastDay()) - firstDay;
+        if (lo > hi) {
+            return 0;
+        }
+        final int loWord = lo >>> 6;
+        final int hiWord = hi >>> 6;
+        final long loMask = -1L << lo;
+        final long hiMask = -1L >>> (63 - (hi & 63));
+        if (loWord == hiWord) {
+            return Long.bitCount(words[loWord] & loMask & hiMask);
+        }
+        int count = Long.bitCount(words[loWord] & loMask);
+        for (int w = loWord + 1; w < hiWord; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count + Long.bitCount(words[hiWord] & hiMask);
+    }
+
+    /// @return how many days of the year are set.
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -8,20 +8,52 @@ import net.wti.quest.api.RecurrenceRule
 import net.wti.time.api.ModelDay
 import xapi.model.X_Model
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
 // -------------------------------------------------------------------------
-// Simple in-memory implementation of LiveQuestStore for tests
+// Simple in-memory implementation of LiveQuestStore for tests.
+// Create-if-absent is a compare-and-set (putIfAbsent) on QuestKeyUtil.dayLiveKey,
+// so it is safe to hammer from many threads.
 // -------------------------------------------------------------------------
 class InMemoryLiveQuestStore implements LiveQuestStore {
 
-    final List<LiveQuest> all = new ArrayList<>()
+    /// every stored LiveQuest, in insertion order
+    final List<LiveQuest> all = new CopyOnWriteArrayList<>()
+    final ConcurrentMap<String, LiveQuest> byDayLiveKey = new ConcurrentHashMap<>()
+    /// store round trips, so specs can assert on batching
+    final AtomicInteger reads = new AtomicInteger()
+    final AtomicInteger writes = new AtomicInteger()
 
     @Override
     LiveQuest findByDayAndLiveKey(final ModelDay day, final String liveKey) {
-        return all.find { it.dayIndex == day.getDayNum() && liveKey == it.liveKey }
+        reads.incrementAndGet()
+        return byDayLiveKey.get(QuestKeyUtil.dayLiveKey(day.getDayNum(), liveKey))
+    }
+
+    @Override
+    Map<String, LiveQuest> findLiveQuests(final ModelDay day, final Collection<String> liveKeys) {
+        reads.incrementAndGet()
+        final Map<String, LiveQuest> found = [:]
+        liveKeys.each { key ->
+            final LiveQuest quest = byDayLiveKey.get(QuestKeyUtil.dayLiveKey(day.getDayNum(), key))
+            if (quest != null) {
+                found.put(key, quest)
+            }
+        }
+        return found
     }
 
     @Override
     LiveQuest createLiveQuest(final ModelDay day, final QuestDefinition definition, final RecurrenceRule rule, final long deadlineMillis, final boolean skip) {
+        writes.incrementAndGet()
+        return putIfAbsent(newLiveQuest(day, definition, rule, deadlineMillis, skip))
+    }
+
+    @Override
+    LiveQuest newLiveQuest(final ModelDay day, final QuestDefinition definition, final RecurrenceRule rule, final long deadlineMillis, final boolean skip) {
         final LiveQuest lv = X_Model.create(LiveQuest)
         lv.setParentDayKey(ModelDay.newKey(day.getDayNum()))
         lv.setDayIndex(day.getDayNum())
@@ -35,8 +67,6 @@ class InMemoryLiveQuestStore implements LiveQuestStore {
         lv.setStatus(QuestStatus.ACTIVE)
         lv.setCreatedAtMillis(System.currentTimeMillis())
         lv.setUpdatedAtMillis(lv.createdAtMillis)
-
-        all.add(lv)
         return lv
     }
 
@@ -45,4 +75,34 @@ class InMemoryLiveQuestStore implements LiveQuestStore {
         // in-memory: already in list
         return quest
     }
+
+    @Override
+    List<LiveQuest> saveLiveQuests(final Collection<LiveQuest> quests) {
+        writes.incrementAndGet()
+        quests.each { putIfAbsent(it) }
+        return new ArrayList<>(quests)
+    }
+
+    @Override
+    LiveQuest saveIfAbsent(final ModelDay day, final LiveQuest candidate) {
+        writes.incrementAndGet()
+        return putIfAbsent(candidate)
+    }
+
+    @Override
+    List<LiveQuest> saveLiveQuestsIfAbsent(final ModelDay day, final Collection<LiveQuest> candidates) {
+        writes.incrementAndGet()
+        return candidates.collect { putIfAbsent(it) }
+    }
+
+    /// the CAS: the first instance stored for a (dayIndex, liveKey) wins and is returned to everyone
+    private LiveQuest putIfAbsent(final LiveQuest candidate) {
+        final String key = QuestKeyUtil.dayLiveKey(candidate.dayIndex, candidate.liveKey)
+        final LiveQuest winner = byDayLiveKey.putIfAbsent(key, candidate)
+        if (winner != null) {
+            return winner
+        }
+        all.add(candidate)
+        return candidate
+    }
 }
@@ -0,0 +1,195 @@
+package net.wti.quest.impl
+
+import net.wti.quest.api.RecurrenceRule
+import net.wti.time.api.DayIndex
+import net.wti.time.api.DurationUnit
+import net.wti.time.api.ModelDuration
+import net.wti.time.api.TimeAnchor
+import net.wti.time.api.TimeAnchorKind
+import net.wti.time.impl.DayCalendar
+import net.wti.time.impl.DayIndexService
+import net.wti.time.impl.ModelDayService
+import net.wti.time.impl.TimeAnchorUtil
+import spock.lang.Specification
+import spock.lang.Unroll
+import xapi.model.X_Model
+import xapi.time.api.TimeZoneInfo
+
+import java.time.LocalDate
+import java.time.YearMonth
+import java.time.ZoneId
+import java.time.temporal.ChronoUnit
+
+/// OccurrenceGeneratorSpec
+///
+/// The generator must produce exactly the days a per-day check would accept (checked against
+/// java.time), with DAILY deadlines identical to TimeAnchorUtil's, in any zone and rollover.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class OccurrenceGeneratorSpec extends Specification {
+
+    TimeZoneInfo utcZone = new TimeZoneInfo("UTC", "UTC", 0, false)
+    TimeZoneInfo estZone = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+    DayIndexService indexService = new DayIndexService(utcZone, 4)
+    OccurrenceGenerator generator = new OccurrenceGenerator(indexService)
+
+    static RecurrenceRule rule(TimeAnchorKind kind, Integer position, DurationUnit unit, int amount, Long activeStart = null) {
+        final TimeAnchor anchor = X_Model.create(TimeAnchor)
+        anchor.setKind(kind)
+        anchor.setHour(9)
+        anchor.setMinute(30)
+        switch (kind) {
+            case TimeAnchorKind.WEEKLY: anchor.setDayOfWeek(position); break
+            case TimeAnchorKind.MONTHLY: anchor.setDayOfMonth(position); break
+            case TimeAnchorKind.YEARLY: anchor.setDayOfYear(position); break
+        }
+        final ModelDuration cadence = X_Model.create(ModelDuration)
+        cadence.setAmount(amount)
+        cadence.setUnit(unit)
+
+        final RecurrenceRule rule = X_Model.create(RecurrenceRule)
+        rule.setRuleId("r")
+        rule.setActive(true)
+        rule.setAnchor(anchor)
+        rule.setCadence(cadence)
+        rule.setActiveRangeStartMillis(activeStart)
+        return rule
+    }
+
+    /// The per-day definition the generator must agree with.
+    static boolean expected(RecurrenceRule rule, int phase, int dayNum) {
+        final LocalDate date = LocalDate.ofEpochDay(DayCalendar.EPOCH_DAY + dayNum)
+        final LocalDate start = LocalDate.ofEpochDay(DayCalendar.EPOCH_DAY + phase)
+        if (dayNum < (rule.activeRangeStartMillis == null ? Integer.MIN_VALUE : phase)) {
+            return false
+        }
+        final TimeAnchor anchor = rule.anchor
+        final int n = rule.cadence.amount
+        switch (rule.cadence.unit) {
+            case DurationUnit.DAY:
+                return Math.floorMod(dayNum - phase, n) == 0
+            case DurationUnit.WEEK:
+                final int dow = anchor.kind == TimeAnchorKind.WEEKLY ? anchor.dayOfWeek : start.dayOfWeek.value % 7
+                final LocalDate sunday = date.minusDays(date.dayOfWeek.value % 7)
+                final LocalDate phaseSunday = start.minusDays(start.dayOfWeek.value % 7)
+                return date.dayOfWeek.value % 7 == dow && Math.floorMod(ChronoUnit.WEEKS.between(phaseSunday, sunday), (long) n) == 0
+            case DurationUnit.MONTH:
+                final int dom = anchor.kind == TimeAnchorKind.MONTHLY ? anchor.dayOfMonth : start.dayOfMonth
+                final long months = ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(date))
+                return Math.floorMod(months, (long) n) == 0 && date.dayOfMonth == Math.min(dom, date.lengthOfMonth())
+            case DurationUnit.YEAR:
+                final int doy = anchor.kind == TimeAnchorKind.YEARLY ? anchor.dayOfYear : start.dayOfYear
+                return Math.floorMod(date.year - start.year, n) == 0 && date.dayOfYear == Math.min(doy, date.lengthOfYear())
+        }
+        throw new IllegalStateException()
+    }
+
+    @Unroll
+    def "#kind every #amount #unit (position #position) matches per-day probing in #zoneName, rollover #rollover"() {
+        given:
+        final TimeZoneInfo zone = zoneName == "UTC" ? utcZone : estZone
+        final long activeStart = DayIndex.EPOCH_MILLIS + 123 * 86_400_000L + 5 * 3_600_000L
+        final RecurrenceRule r = rule(kind, position, unit, amount, activeStart)
+        final int phase = DayIndexService.localDayNum(activeStart, zone, rollover)
+        final int from = -400, to = 1500
+
+        when:
+        final RecurrenceOccurrences found = generator.occurrences(r, DayIndex.of(from), DayIndex.of(to), zone, rollover)
+
+        then: "exactly the expected days"
+        found.toDayNums() as List == (from..to).findAll { expected(r, phase, it) }
+
+        and: "deadlines sit at the anchor time past each day's DST-correct start"
+        (0..<found.size()).every {
+            found.getDeadlineMillis(it) == indexService.computeDayStart(found.getDayNum(it), zone, rollover) + (9 * 60 + 30) * 60_000L
+        }
+
+        where:
+        kind                   | position | unit               | amount | zoneName | rollover
+        TimeAnchorKind.DAILY   | null     | DurationUnit.DAY   | 1      | "UTC"    | 4
+        TimeAnchorKind.DAILY   | null     | DurationUnit.DAY   | 3      | "EST"    | 0
+        TimeAnchorKind.DAILY   | null     | DurationUnit.WEEK  | 2      | "EST"    | 4
+        TimeAnchorKind.DAILY   | null     | DurationUnit.MONTH | 1      | "UTC"    | 23
+        TimeAnchorKind.WEEKLY  | 1        | DurationUnit.WEEK  | 1      | "EST"    | 4
+        TimeAnchorKind.WEEKLY  | 6        | DurationUnit.WEEK  | 3      | "UTC"    | 0
+        TimeAnchorKind.MONTHLY | 31       | DurationUnit.MONTH | 1      | "EST"    | 4
+        TimeAnchorKind.MONTHLY | 15       | DurationUnit.MONTH | 5      | "UTC"    | 12
+        TimeAnchorKind.YEARLY  | 366      | DurationUnit.YEAR  | 1      | "EST"    | 4
+        TimeAnchorKind.YEARLY  | 60       | DurationUnit.YEAR  | 2      | "UTC"    | 4
+    }
+
+    def "DAILY deadlines are exactly what TimeAnchorUtil computes for the same ModelDay"() {
+        given:
+        final ModelDayService days = new ModelDayService(indexService)
+        final RecurrenceRule r = rule(TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+
+        when:
+        final RecurrenceOccurrences found = generator.occurrences(r, DayIndex.of(0), DayIndex.of(365), estZone, 4)
+
+        then:
+        found.size() == 366
+        (0..<found.size()).every {
+            found.getDeadlineMillis(it) == TimeAnchorUtil.computeDeadlineMillis(
+                    days.getOrCreateModelDayNum(found.getDayNum(it), estZone, 4), r.anchor)
+        }
+    }
+
+    @Unroll
+    def "a 09:30 deadline stays at 09:30 on the wall clock on #date in New York"() {
+        given: "rollover at midnight, so the DST switch (02:00) falls between the day's start and the deadline"
+        final RecurrenceRule r = rule(TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+        final int dayNum = (int) (date.toEpochDay() - DayCalendar.EPOCH_DAY)
+
+        when:
+        final RecurrenceOccurrences found = generator.occurrences(r, DayIndex.of(dayNum), DayIndex.of(dayNum), estZone, 0)
+
+        then:
+        found.size() == 1
+        found.getDeadlineMillis(0) == date.atTime(9, 30).atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli()
+        found.getDeadlineMillis(0) - DayIndexService.localDayStart(dayNum, estZone, 0) == elapsedHours * 3_600_000L + 30 * 60_000L
+
+        where:
+        date                      | elapsedHours
+        LocalDate.of(2026, 3, 8)  | 8  // spring forward: 23-hour day
+        LocalDate.of(2026, 11, 1) | 10 // fall back: 25-hour day
+        LocalDate.of(2026, 6, 1)  | 9
+    }
+
+    def "inactive rules and empty or clipped ranges yield nothing"() {
+        given:
+        final RecurrenceRule r = rule(TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+        r.setActiveRangeEndMillis(DayIndex.EPOCH_MILLIS + 10 * 86_400_000L + 5 * 3_600_000L)
+
+        expect:
+        generator.occurrences(r, DayIndex.of(20), DayIndex.of(30)).isEmpty()
+        generator.occurrences(r, DayIndex.of(5), DayIndex.of(4)).isEmpty()
+        generator.occurrences(r, DayIndex.of(5), DayIndex.of(30)).toDayNums() as List == (5..10).toList()
+
+        when:
+        r.setActive(false)
+
+        then:
+        !generator.firesOn(r, 7, utcZone, 4)
+    }
+
+    def "mismatched anchor and cadence are rejected"() {
+        when:
+        generator.occurrences(rule(TimeAnchorKind.WEEKLY, 2, DurationUnit.MONTH, 1), DayIndex.of(0), DayIndex.of(10))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "a sparse rule over a long range only visits its occurrences"() {
+        given: "yearly, over ~270 years"
+        final RecurrenceRule r = rule(TimeAnchorKind.YEARLY, 1, DurationUnit.YEAR, 1)
+        int calls = 0
+
+        when:
+        final int count = generator.forEach(r, -50_000, 50_000, utcZone, 4, { d, millis -> calls++ } as OccurrenceGenerator.OccurrenceSink)
+
+        then:
+        count == calls
+        count in [273, 274]
+    }
+}
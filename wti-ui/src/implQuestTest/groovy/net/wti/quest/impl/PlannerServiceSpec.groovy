@@ -13,6 +13,16 @@ import spock.lang.Specification
 import xapi.model.X_Model
 import xapi.time.api.TimeZoneInfo
 
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
 /// PlannerServiceSpec
 ///
 /// Tests for PlannerService.ensureLiveQuestForDay:
@@ -21,6 +31,9 @@ import xapi.time.api.TimeZoneInfo
 /// - Reuses existing LiveQuest for same (day, LiveKey)
 /// - Computes deadlineMillis from TimeAnchor + ModelDay
 /// - Sets basic fields (liveKey, dayIndex, parentDayKey, skip, status)
+/// - ensureLiveQuestsForDay batches a day into one store read and one write
+/// - Concurrent single and batch calls create exactly one LiveQuest per (day, LiveKey)
+/// - A store relying on LiveQuestStore's defaults persists once per quest and never clobbers
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 08/12/2025 @ 01:04
 class PlannerServiceSpec extends Specification {
@@ -196,4 +209,169 @@ class PlannerServiceSpec extends Specification {
         lv.sourceRuleKey == null
     }
 
-}
\ No newline at end of file
+    def "ensureLiveQuestsForDay batches one read and one write, reusing existing instances"() {
+        given:
+        final ModelDay day = dayService.getOrCreateModelDay(DayIndex.of(0))
+        final QuestDefinition qdef = newDefinition("def-batch", true)
+        final RecurrenceRule existingRule = newRule("existing", true, true)
+        final RecurrenceRule freshRule = newRule("new", true, true, 9, 0)
+        final RecurrenceRule offRule = newRule("off", true, false)
+        final LiveQuest existing = planner.ensureLiveQuestForDay(day, qdef, existingRule, false)
+        store.reads.set(0)
+        store.writes.set(0)
+
+        when:
+        final List<LiveQuest> results = planner.ensureLiveQuestsForDay(day, [
+                new PlannerService.PlannedQuest(qdef, existingRule, false),
+                new PlannerService.PlannedQuest(qdef, freshRule, true),
+                new PlannerService.PlannedQuest(qdef, offRule, false),
+                new PlannerService.PlannedQuest(qdef, freshRule, true),
+        ])
+
+        then: "in planned order, the autoMaterialize=false rule left out, duplicates shared"
+        results.size() == 3
+        results[0].is(existing)
+        results[1].is(results[2])
+        results[1].liveKey == QuestKeyUtil.liveKeyFor(qdef, freshRule)
+        results[1].skip
+        results[1].deadlineMillis == day.startTimestamp() + 9 * 3_600_000L
+        store.all.size() == 2
+        store.reads.get() == 1
+        store.writes.get() == 1
+    }
+
+    def "a store relying on the interface defaults persists each new LiveQuest once, through saveIfAbsent"() {
+        given:
+        final MinimalLiveQuestStore minimal = new MinimalLiveQuestStore()
+        final PlannerService minimalPlanner = new PlannerService(minimal)
+        final ModelDay day = dayService.getOrCreateModelDay(DayIndex.of(0))
+        final QuestDefinition qdef = newDefinition("def-minimal", true)
+        final List<RecurrenceRule> rules = (0..<3).collect { newRule("minimal" + it, true, true, 9, 0) }
+
+        when:
+        final LiveQuest single = minimalPlanner.ensureLiveQuestForDay(day, qdef, rules[0], false)
+        final List<LiveQuest> batch = minimalPlanner.ensureLiveQuestsForDay(day,
+                rules.collect { new PlannerService.PlannedQuest(qdef, it, true) })
+
+        then: "newLiveQuest never persisted; one conditional write per new quest"
+        minimal.creates.get() == 0
+        minimal.saves.get() == 0
+        minimal.savesIfAbsent.get() == 3
+        minimal.stored.size() == 3
+        batch[0].is(single)
+
+        and: "the default instance carries everything PlannerService needs"
+        batch[1].liveKey == QuestKeyUtil.liveKeyFor(qdef, rules[1])
+        batch[1].dayIndex == day.dayNum
+        batch[1].parentDayKey == ModelDay.newKey(day.dayNum)
+        batch[1].sourceDefinitionKey == qdef.key
+        batch[1].sourceRuleKey == rules[1].key
+        batch[1].deadlineMillis == day.startTimestamp() + 9 * 3_600_000L
+        batch[1].skip
+        batch[1].status == QuestStatus.ACTIVE
+    }
+
+    def "an instance stored after the planner's read wins over the planner's own"() {
+        given: "a read that misses an instance another caller stored in the meantime"
+        final MinimalLiveQuestStore minimal = new MinimalLiveQuestStore()
+        final PlannerService minimalPlanner = new PlannerService(minimal)
+        final ModelDay day = dayService.getOrCreateModelDay(DayIndex.of(0))
+        final QuestDefinition qdef = newDefinition("def-stale", true)
+        final RecurrenceRule rule = newRule("stale", true, true)
+        final LiveQuest winner = minimalPlanner.ensureLiveQuestForDay(day, qdef, rule, false)
+        winner.setStatus(QuestStatus.PAUSED)
+        minimal.staleReads = true
+
+        when:
+        final LiveQuest single = minimalPlanner.ensureLiveQuestForDay(day, qdef, rule, false)
+        final List<LiveQuest> batch = minimalPlanner.ensureLiveQuestsForDay(day, [new PlannerService.PlannedQuest(qdef, rule, false)])
+
+        then:
+        single.is(winner)
+        batch[0].is(winner)
+        minimal.stored.size() == 1
+        minimal.stored.values().first().status == QuestStatus.PAUSED
+    }
+
+    def "concurrent materialization creates exactly one LiveQuest per day and LiveKey"() {
+        given: "50 rules over 4 days, raced by 16 threads mixing single and batch calls"
+        final QuestDefinition qdef = newDefinition("def-race", true)
+        final List<RecurrenceRule> rules = (0..<50).collect { newRule("race" + it, true, true) }
+        final List<ModelDay> days = (0..<4).collect { dayService.getOrCreateModelDay(DayIndex.of(it)) }
+        final int threads = 16
+        final CountDownLatch go = new CountDownLatch(1)
+        final ExecutorService pool = Executors.newFixedThreadPool(threads)
+
+        when:
+        final List<Future<List<LiveQuest>>> futures = (0..<threads).collect { t ->
+            pool.submit({
+                go.await()
+                final List<LiveQuest> mine = []
+                final Random random = new Random(t)
+                for (int round = 0; round < 5; round++) {
+                    for (ModelDay day : days.shuffled(random)) {
+                        if ((t + round) % 2 == 0) {
+                            for (RecurrenceRule rule : rules.shuffled(random)) {
+                                mine << planner.ensureLiveQuestForDay(day, qdef, rule, false)
+                            }
+                        } else {
+                            mine.addAll(planner.ensureLiveQuestsForDay(day,
+                                    rules.shuffled(random).collect { new PlannerService.PlannedQuest(qdef, it, false) }))
+                        }
+                    }
+                }
+                return mine
+            } as Callable<List<LiveQuest>>)
+        }
+        go.countDown()
+        final List<LiveQuest> seen = futures.collectMany { it.get(30, TimeUnit.SECONDS) }
+        pool.shutdown()
+
+        then: "one stored instance per key"
+        store.all.size() == 200
+        store.byDayLiveKey.size() == 200
+        store.all.collect { QuestKeyUtil.dayLiveKey(it.dayIndex, it.liveKey) }.toSet().size() == 200
+
+        and: "every caller got the stored instance, never a losing duplicate"
+        seen.size() == threads * 5 * 200
+        seen.every { it.is(store.byDayLiveKey.get(QuestKeyUtil.dayLiveKey(it.dayIndex, it.liveKey))) }
+    }
+
+    /// Implements only what LiveQuestStore requires; newLiveQuest and the batch methods are the defaults.
+    static class MinimalLiveQuestStore implements LiveQuestStore {
+
+        final ConcurrentMap<String, LiveQuest> stored = new ConcurrentHashMap<>()
+        /// when set, finds miss everything, as if another caller stored it after our read
+        volatile boolean staleReads
+        final AtomicInteger creates = new AtomicInteger()
+        final AtomicInteger saves = new AtomicInteger()
+        final AtomicInteger savesIfAbsent = new AtomicInteger()
+
+        @Override
+        LiveQuest findByDayAndLiveKey(final ModelDay day, final String liveKey) {
+            return staleReads ? null : stored.get(QuestKeyUtil.dayLiveKey(day.dayNum, liveKey))
+        }
+
+        @Override
+        LiveQuest createLiveQuest(final ModelDay day, final QuestDefinition definition, final RecurrenceRule rule, final long deadlineMillis, final boolean skip) {
+            creates.incrementAndGet()
+            final LiveQuest quest = newLiveQuest(day, definition, rule, deadlineMillis, skip)
+            quest.setLiveKey(QuestKeyUtil.liveKeyFor(definition, rule))
+            return saveIfAbsent(day, quest)
+        }
+
+        @Override
+        LiveQuest save(final LiveQuest quest) {
+            saves.incrementAndGet()
+            stored.put(QuestKeyUtil.dayLiveKey(quest.dayIndex, quest.liveKey), quest)
+            return quest
+        }
+
+        @Override
+        LiveQuest saveIfAbsent(final ModelDay day, final LiveQuest candidate) {
+            savesIfAbsent.incrementAndGet()
+            final LiveQuest winner = stored.putIfAbsent(QuestKeyUtil.dayLiveKey(day.dayNum, candidate.liveKey), candidate)
+            return winner == null ? candidate : winner
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package net.wti.quest.impl
+
+import net.wti.time.impl.DayIndexService
+import spock.lang.Specification
+import xapi.model.X_Model
+import xapi.model.api.ModelKey
+import xapi.time.api.TimeZoneInfo
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/// RolloverSchedulerSpec
+///
+/// Boundaries must land exactly on each group's next DST-correct day start, missed days must
+/// fire in order, and users sharing a zone and rolloverHour must share one queue entry.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class RolloverSchedulerSpec extends Specification {
+
+    TimeZoneInfo utcZone = new TimeZoneInfo("UTC", "UTC", 0, false)
+    TimeZoneInfo estZone = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+
+    AtomicLong now = new AtomicLong()
+    List<List> calls = []
+    RolloverScheduler scheduler = new RolloverScheduler(
+            { user, zone, rollover, closedDay, boundary, nowMillis -> calls << [user, closedDay, boundary] } as RolloverScheduler.RolloverHandler,
+            { now.get() })
+
+    static ModelKey user(String id) {
+        return X_Model.newKey("user", id)
+    }
+
+    def "fires exactly at the start of the user's next local day"() {
+        given:
+        now.set(DayIndexService.localDayStart(100, estZone, 4) + 5 * 3_600_000L)
+        final long boundary = DayIndexService.localDayStart(101, estZone, 4)
+        scheduler.register(user("u1"), estZone, 4)
+
+        expect:
+        scheduler.getNextBoundary(user("u1")) == boundary
+        scheduler.fireDue(boundary - 1) == 0
+        calls.isEmpty()
+
+        when:
+        final int fired = scheduler.fireDue(boundary)
+
+        then:
+        fired == 1
+        calls == [[user("u1"), 100, boundary]]
+        scheduler.getNextBoundary(user("u1")) == DayIndexService.localDayStart(102, estZone, 4)
+    }
+
+    def "re-arms on DST-correct boundaries for a year of days"() {
+        given:
+        now.set(DayIndexService.localDayStart(0, estZone, 4))
+        scheduler.register(user("u1"), estZone, 4)
+        final Set<Long> lengths = [] as Set
+
+        when:
+        long previous = DayIndexService.localDayStart(0, estZone, 4)
+        for (int day = 1; day <= 366; day++) {
+            final long boundary = scheduler.getNextBoundary(user("u1"))
+            assert boundary == DayIndexService.localDayStart(day, estZone, 4)
+            lengths << (boundary - previous)
+            previous = boundary
+            scheduler.fireDue(boundary)
+        }
+
+        then:
+        calls.size() == 366
+        calls*.getAt(1) == (0..365).toList()
+        lengths == [23L, 24L, 25L].collect { it * 3_600_000L } as Set
+    }
+
+    def "missed boundaries fire once per day, in order"() {
+        given:
+        now.set(DayIndexService.localDayStart(10, utcZone, 4))
+        scheduler.register(user("u1"), utcZone, 4)
+
+        when: "the process wakes up three and a half days later"
+        final int fired = scheduler.fireDue(DayIndexService.localDayStart(13, utcZone, 4) + 12 * 3_600_000L)
+
+        then:
+        fired == 3
+        calls*.getAt(1) == [10, 11, 12]
+        calls*.getAt(2) == [11, 12, 13].collect { DayIndexService.localDayStart(it, utcZone, 4) }
+        scheduler.getNextBoundary(user("u1")) == DayIndexService.localDayStart(14, utcZone, 4)
+    }
+
+    def "users sharing a zone and rolloverHour share one queue entry"() {
+        given:
+        now.set(DayIndexService.localDayStart(50, utcZone, 4))
+
+        when:
+        (0..<1000).each { scheduler.register(user("u$it"), utcZone, 4) }
+        scheduler.register(user("east"), estZone, 4)
+        scheduler.register(user("late"), utcZone, 6)
+
+        then:
+        scheduler.getUserCount() == 1002
+        scheduler.getGroupCount() == 3
+        scheduler.getEarliestBoundary() == DayIndexService.localDayStart(51, utcZone, 4)
+
+        when:
+        final int fired = scheduler.fireDue(DayIndexService.localDayStart(51, utcZone, 4))
+
+        then:
+        fired == 1000
+        calls*.getAt(0) as Set == (0..<1000).collect { user("u$it") } as Set
+    }
+
+    def "unregistering and re-registering moves or drops a user"() {
+        given:
+        now.set(DayIndexService.localDayStart(20, utcZone, 4))
+        scheduler.register(user("u1"), utcZone, 4)
+        scheduler.register(user("u2"), utcZone, 4)
+
+        when: "u2 moves zone, u1 leaves"
+        scheduler.register(user("u2"), estZone, 0)
+        final boolean removed = scheduler.unregister(user("u1"))
+
+        then:
+        removed
+        !scheduler.unregister(user("u1"))
+        scheduler.getNextBoundary(user("u1")) == -1
+        scheduler.getGroupCount() == 1
+        scheduler.getNextBoundary(user("u2")) ==
+                DayIndexService.localDayStart(DayIndexService.localDayNum(now.get(), estZone, 0) + 1, estZone, 0)
+    }
+
+    def "a failing callback does not stop the others"() {
+        given:
+        final List<ModelKey> seen = []
+        final RolloverScheduler failing = new RolloverScheduler(
+                { u, zone, rollover, closedDay, boundary, nowMillis ->
+                    seen << u
+                    if (u == user("bad")) {
+                        throw new IllegalStateException("boom")
+                    }
+                } as RolloverScheduler.RolloverHandler,
+                { now.get() })
+        now.set(DayIndexService.localDayStart(5, utcZone, 4))
+        failing.register(user("bad"), utcZone, 4)
+        failing.register(user("good"), utcZone, 4)
+
+        expect:
+        failing.fireDue(DayIndexService.localDayStart(6, utcZone, 4)) == 2
+        seen == [user("bad"), user("good")]
+    }
+
+    def "the scheduler thread wakes for the boundary without polling"() {
+        given: "a clock that reaches the next boundary ~200ms from now"
+        final long boundary = DayIndexService.localDayStart(300, utcZone, 4)
+        final long offset = boundary - 200 - System.currentTimeMillis()
+        final CountDownLatch latch = new CountDownLatch(1)
+        final RolloverScheduler live = new RolloverScheduler(
+                { u, zone, rollover, closedDay, b, nowMillis -> latch.countDown() } as RolloverScheduler.RolloverHandler,
+                { System.currentTimeMillis() + offset })
+        live.register(user("u1"), utcZone, 4)
+
+        when:
+        live.start()
+        final boolean woke = latch.await(5, TimeUnit.SECONDS)
+
+        then:
+        woke
+        live.getNextBoundary(user("u1")) == DayIndexService.localDayStart(301, utcZone, 4)
+
+        cleanup:
+        live.stop()
+    }
+}
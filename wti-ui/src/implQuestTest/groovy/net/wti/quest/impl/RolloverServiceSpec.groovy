@@ -337,23 +337,19 @@ class RolloverServiceSpec extends Specification {
 
         @Override
         LiveQuest createLiveQuest(final ModelDay day, final QuestDefinition questDefinition, final RecurrenceRule rule, final long deadlineMillis, final boolean skip) {
-            final LiveQuest liveQuest = X_Model.create(LiveQuest)
-            liveQuest.setParentDayKey(ModelDay.newKey(day.dayNum))
-            liveQuest.setDayIndex(day.dayNum)
+            final LiveQuest liveQuest = newLiveQuest(day, questDefinition, rule, deadlineMillis, skip)
             liveQuest.setLiveKey(QuestKeyUtil.liveKeyFor(questDefinition, rule))
-            liveQuest.setSourceDefinitionKey(questDefinition.key)
-            if (rule != null) {
-                liveQuest.setSourceRuleKey(rule.key)
+            return saveIfAbsent(day, liveQuest)
+        }
+
+        @Override
+        LiveQuest saveIfAbsent(final ModelDay day, final LiveQuest candidate) {
+            final LiveQuest existing = findByDayAndLiveKey(day, candidate.liveKey)
+            if (existing != null) {
+                return existing
             }
-            liveQuest.setDeadlineMillis(deadlineMillis)
-            liveQuest.setSkip(skip)
-            liveQuest.setStatus(QuestStatus.ACTIVE)
-            final long now = System.currentTimeMillis()
-            liveQuest.setCreatedAtMillis(now)
-            liveQuest.setUpdatedAtMillis(now)
-
-            all.add(liveQuest)
-            return liveQuest
+            all.add(candidate)
+            return candidate
         }
 
         @Override
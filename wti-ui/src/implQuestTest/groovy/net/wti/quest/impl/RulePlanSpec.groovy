@@ -0,0 +1,143 @@
+package net.wti.quest.impl
+
+import net.wti.quest.api.QuestDefinition
+import net.wti.quest.api.RecurrenceRule
+import net.wti.quest.api.ScheduleTemplateService
+import net.wti.time.api.DayIndex
+import net.wti.time.api.DurationUnit
+import net.wti.time.api.ModelDay
+import net.wti.time.api.TimeAnchorKind
+import net.wti.time.impl.DayCalendar
+import net.wti.time.impl.DayIndexService
+import spock.lang.Specification
+import spock.lang.Unroll
+import xapi.model.X_Model
+import xapi.time.api.TimeZoneInfo
+
+/// RulePlanSpec
+///
+/// A compiled RulePlan must pick exactly the rules OccurrenceGenerator says fire on each day,
+/// drop rules that never materialize, and honor fixed weekday skip masks.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class RulePlanSpec extends Specification {
+
+    TimeZoneInfo utcZone = new TimeZoneInfo("UTC", "UTC", 0, false)
+    TimeZoneInfo estZone = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+    OccurrenceGenerator generator = new OccurrenceGenerator(new DayIndexService(utcZone, 4))
+
+    ScheduleTemplateService dynamicTemplates = { ModelDay day, QuestDefinition d, RecurrenceRule r -> false } as ScheduleTemplateService
+
+    static QuestDefinition definition(String id, RecurrenceRule... rules) {
+        final QuestDefinition questDefinition = X_Model.create(QuestDefinition)
+        questDefinition.setKey(QuestDefinition.KEY_BUILDER_DEF.buildKey(id))
+        questDefinition.setActive(true)
+        questDefinition.setRules(rules)
+        return questDefinition
+    }
+
+    static RecurrenceRule rule(String id, TimeAnchorKind kind, Integer position, DurationUnit unit, int amount, Long activeStart = null) {
+        final RecurrenceRule rule = OccurrenceGeneratorSpec.rule(kind, position, unit, amount, activeStart)
+        rule.setRuleId(id)
+        return rule
+    }
+
+    @Unroll
+    def "evaluate picks exactly the rules OccurrenceGenerator fires, in #zoneName"() {
+        given:
+        final TimeZoneInfo zone = zoneName == "UTC" ? utcZone : estZone
+        final long start = DayIndex.EPOCH_MILLIS + 77 * 86_400_000L + 7 * 3_600_000L
+        final List<RecurrenceRule> rules = [
+                rule("daily", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1),
+                rule("every3", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 3, start),
+                rule("fortnight", TimeAnchorKind.DAILY, null, DurationUnit.WEEK, 2, start),
+                rule("tuesdays", TimeAnchorKind.WEEKLY, 2, DurationUnit.WEEK, 1),
+                rule("every3wks", TimeAnchorKind.WEEKLY, 5, DurationUnit.WEEK, 3, start),
+                rule("monthEnd", TimeAnchorKind.MONTHLY, 31, DurationUnit.MONTH, 1),
+                rule("quarterly", TimeAnchorKind.MONTHLY, 15, DurationUnit.MONTH, 3, start),
+                rule("leapDay", TimeAnchorKind.YEARLY, 366, DurationUnit.YEAR, 1),
+                rule("biennial", TimeAnchorKind.DAILY, null, DurationUnit.YEAR, 2, start),
+        ]
+        rules[1].setActiveRangeEndMillis(start + 400 * 86_400_000L)
+        final RulePlan plan = RulePlan.compile([definition("d1", *rules)], 1, dynamicTemplates, zone, 4)
+        final int[] out = new int[plan.size()]
+
+        expect:
+        plan.size() == rules.size()
+        (-400..1500).every { int day ->
+            final int count = plan.evaluate(day, out)
+            final List<String> fired = (0..<count).collect { plan.getRule(out[it]).ruleId }
+            fired == rules.findAll { generator.firesOn(it, day, zone, 4) }*.ruleId
+        }
+
+        and: "deadlines match the generator's"
+        (0..<plan.size()).every { i ->
+            final RecurrenceOccurrences occ = generator.occurrences(plan.getRule(i), DayIndex.of(0), DayIndex.of(60), zone, 4)
+            (0..<occ.size()).every {
+                plan.deadlineMillis(i, occ.getDayNum(it)) == occ.getDeadlineMillis(it)
+            }
+        }
+
+        where:
+        zoneName << ["UTC", "EST"]
+    }
+
+    def "inactive, non-auto and null rules and definitions are not compiled"() {
+        given:
+        final RecurrenceRule off = rule("off", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+        off.setActive(false)
+        final RecurrenceRule manual = rule("manual", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+        manual.setAutoMaterialize(false)
+        final RecurrenceRule kept = rule("kept", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1)
+        final QuestDefinition inactive = definition("inactive", rule("x", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1))
+        inactive.setActive(false)
+
+        when:
+        final RulePlan plan = RulePlan.compile([null, inactive, definition("d1", off, null, manual, kept)], 7, dynamicTemplates, utcZone, 4)
+
+        then:
+        plan.size() == 1
+        plan.getRule(0).is(kept)
+        plan.getRuleIndex(0) == 3
+        plan.getDefinitionId(0) == "d1"
+        plan.isCurrent(7, 0, utcZone, 4)
+        !plan.isCurrent(8, 0, utcZone, 4)
+        !plan.isCurrent(7, 1, utcZone, 4)
+        !plan.isCurrent(7, 0, estZone, 4)
+        !plan.isCurrent(7, 0, utcZone, 0)
+    }
+
+    def "a fixed weekday mask decides skipping without asking per day"() {
+        given: "weekends (Sunday = bit 0, Saturday = bit 6) skipped"
+        final ScheduleTemplateService weekends = new ScheduleTemplateService() {
+            @Override
+            boolean shouldSkip(ModelDay day, QuestDefinition d, RecurrenceRule r) {
+                throw new AssertionError("should not be asked")
+            }
+
+            @Override
+            int getSkipWeekdays(QuestDefinition d, RecurrenceRule r) {
+                return 0b1000001
+            }
+        }
+        final RulePlan plan = RulePlan.compile([definition("d1", rule("daily", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1))], 1, weekends, utcZone, 4)
+
+        expect:
+        (0..<14).every { int day ->
+            final int dow = DayCalendar.dayOfWeek(day)
+            plan.skipOn(0, day) == (dow == 0 || dow == 6)
+        }
+
+        and: "the default mask is dynamic"
+        RulePlan.compile([definition("d1", rule("daily", TimeAnchorKind.DAILY, null, DurationUnit.DAY, 1))], 1, dynamicTemplates, utcZone, 4)
+                .skipOn(0, 0) == null
+    }
+
+    def "rules whose anchor and cadence do not fit are rejected at compile time"() {
+        when:
+        RulePlan.compile([definition("d1", rule("bad", TimeAnchorKind.WEEKLY, 2, DurationUnit.MONTH, 1))], 1, dynamicTemplates, utcZone, 4)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,152 @@
+package net.wti.quest.impl
+
+import net.wti.quest.api.HolidaySetSource
+import net.wti.quest.api.QuestDefinition
+import net.wti.quest.api.ScheduleTemplate
+import net.wti.quest.api.ScheduleTemplateService
+import net.wti.time.api.ModelDay
+import net.wti.time.impl.DayCalendar
+import spock.lang.Specification
+import xapi.model.X_Model
+
+import java.time.LocalDate
+
+/// ScheduleCalendarSpec
+///
+/// Compiled template bitmaps must agree with a per-day weekday / holiday check, count
+/// ranges across year boundaries exactly, and be rebuilt after invalidation.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class ScheduleCalendarSpec extends Specification {
+
+    /// holiday set key -> local day numbers
+    Map<String, Set<Integer>> holidaySets = [:]
+    int holidayLookups
+    HolidaySetSource holidays = { String key, int from, int to ->
+        holidayLookups++
+        (holidaySets[key] ?: [] as Set).findAll { it >= from && it <= to } as int[]
+    } as HolidaySetSource
+    ScheduleCalendar calendar = new ScheduleCalendar(holidays)
+
+    static ScheduleTemplate template(String id, List<Integer> weekdaysOn, List<String> holidaySetKeys = null) {
+        final ScheduleTemplate template = X_Model.create(ScheduleTemplate)
+        template.setKey(ScheduleTemplate.newKey(id))
+        template.setName(id)
+        template.setWeekdaysOn(weekdaysOn as Integer[])
+        template.setHolidaySetKeys(holidaySetKeys as String[])
+        return template
+    }
+
+    static int dayNum(LocalDate date) {
+        return (int) (date.toEpochDay() - DayCalendar.EPOCH_DAY)
+    }
+
+    def "a weekday template applies exactly on its weekdays, minus holidays"() {
+        given: "Monday to Friday, with new year's day and christmas off"
+        final Set<Integer> offDays = (2024..2030).collectMany {
+            [dayNum(LocalDate.of(it, 1, 1)), dayNum(LocalDate.of(it, 12, 25))]
+        } as Set
+        holidaySets["civic"] = offDays
+        final ScheduleTemplate workdays = template("workday", [1, 2, 3, 4, 5], ["civic"])
+
+        expect:
+        (dayNum(LocalDate.of(2024, 1, 1))..dayNum(LocalDate.of(2030, 12, 31))).every { int day ->
+            final int isoDow = LocalDate.ofEpochDay(DayCalendar.EPOCH_DAY + day).dayOfWeek.value
+            calendar.appliesOn(workdays, day) == (isoDow <= 5 && !offDays.contains(day))
+        }
+    }
+
+    def "range counts match per-day checks, across year boundaries"() {
+        given:
+        holidaySets["h"] = [dayNum(LocalDate.of(2025, 12, 31)), dayNum(LocalDate.of(2026, 1, 2))] as Set
+        final ScheduleTemplate template = template("t", [0, 3, 6], ["h"])
+        final Random random = new Random(7)
+        final int base = dayNum(LocalDate.of(2024, 6, 1))
+
+        expect:
+        (0..<300).every {
+            final int from = base + random.nextInt(1200)
+            final int to = from + random.nextInt(500)
+            calendar.countApplies(template, from, to) == (from..to).count { calendar.appliesOn(template, it as int) }
+        }
+        calendar.countApplies(template, 10, 9) == 0
+
+        and: "whole weeks without holidays hold exactly three days per week"
+        final int sunday = (base..base + 6).find { DayCalendar.dayOfWeek(it) == 0 }
+        calendar.countApplies(template, sunday, sunday + 7 * 10 - 1) == 30
+        !calendar.appliesOnAll(template, sunday, sunday + 1)
+        calendar.appliesOnAll(template, sunday, sunday)
+    }
+
+    def "templates without weekdays apply every day, and 7 is accepted as Sunday"() {
+        given:
+        final ScheduleTemplate always = template("always", null)
+        final ScheduleTemplate sundays = template("sundays", [7])
+        final int year = 2027
+        final int first = DayCalendar.dayNum(year, 1, 1)
+
+        expect:
+        calendar.yearBitmap(always, year).cardinality() == 365
+        calendar.countApplies(sundays, first, first + 364) == 52
+        ScheduleCalendar.weekdayMask([0, 7] as Integer[]) == 1
+    }
+
+    def "compiled years are cached until the template or a holiday set it uses is invalidated"() {
+        given:
+        holidaySets["h"] = [] as Set
+        final ScheduleTemplate template = template("t", [1, 2, 3, 4, 5], ["h"])
+        final ScheduleTemplate other = template("other", [1], ["unrelated"])
+        final int monday = dayNum(LocalDate.of(2026, 3, 2))
+
+        when:
+        final YearBitmap first = calendar.yearBitmap(template, 2026)
+        calendar.yearBitmap(other, 2026)
+        final int lookups = holidayLookups
+
+        then:
+        calendar.yearBitmap(template, 2026).is(first)
+        calendar.appliesOn(template, monday)
+        holidayLookups == lookups
+
+        when: "the holiday set changes"
+        holidaySets["h"] = [monday] as Set
+        calendar.invalidateHolidaySet("h")
+
+        then: "only templates using it are rebuilt, and the version moves"
+        !calendar.appliesOn(template, monday)
+        calendar.getCachedTemplateCount() == 2
+        calendar.getVersion() == 1
+
+        when: "the template is edited"
+        template.setWeekdaysOn([2] as Integer[])
+        calendar.invalidateTemplate(template.key)
+
+        then:
+        !calendar.appliesOn(template, monday)
+        calendar.appliesOn(template, monday + 1)
+        !calendar.appliesOn(template, monday + 2)
+        calendar.getVersion() == 2
+    }
+
+    def "CalendarScheduleTemplateService skips off days and reports fixed weekday masks"() {
+        given:
+        final Map<String, ScheduleTemplate> templates = [
+                "workday": template("workday", [1, 2, 3, 4, 5]),
+                "holidays": template("holidays", [1, 2, 3, 4, 5], ["civic"]),
+        ]
+        final CalendarScheduleTemplateService service = new CalendarScheduleTemplateService(calendar, { templates[it] })
+        final QuestDefinition workday = X_Model.create(QuestDefinition).setScheduleTemplateKey("workday")
+        final QuestDefinition holiday = X_Model.create(QuestDefinition).setScheduleTemplateKey("holidays")
+        final QuestDefinition free = X_Model.create(QuestDefinition)
+        final int saturday = dayNum(LocalDate.of(2026, 10, 17))
+        final ModelDay day = X_Model.create(ModelDay)
+        day.setDayNum(saturday)
+
+        expect:
+        service.getSkipWeekdays(workday, null) == 0b1000001
+        service.getSkipWeekdays(holiday, null) == ScheduleTemplateService.SKIP_DYNAMIC
+        service.getSkipWeekdays(free, null) == 0
+        service.shouldSkip(day, workday, null)
+        !service.shouldSkip(day, free, null)
+    }
+}
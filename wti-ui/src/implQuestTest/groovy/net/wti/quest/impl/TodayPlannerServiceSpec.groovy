@@ -8,6 +8,7 @@ import net.wti.time.api.ModelDay
 import net.wti.time.api.ModelDuration
 import net.wti.time.api.TimeAnchor
 import net.wti.time.api.TimeAnchorKind
+import net.wti.time.impl.DayCalendar
 import net.wti.time.impl.DayIndexService
 import net.wti.time.impl.ModelDayService
 import spock.lang.Specification
@@ -16,14 +17,19 @@ import xapi.model.X_Model
 import xapi.model.api.ModelKey
 import xapi.time.api.TimeZoneInfo
 
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
 /// TodayPlannerServiceSpec
 ///
 /// Tests orchestration of ensureToday(user):
 ///  - Uses DayIndexService + ModelDayService to obtain today's ModelDay.
-///  - Iterates active definitions & rules.
+///  - Compiles active definitions & rules into a RulePlan, cached per definitions and templates version.
+///  - Materializes only the rules whose cadence fires on the day.
 ///  - Applies ScheduleTemplateService.shouldSkip.
-///  - Delegates to PlannerService.ensureLiveQuestForDay.
+///  - Delegates to PlannerService.ensureLiveQuestsForDay (one store read, one store write).
 ///  - Is idempotent under repeated calls.
+///  - ensureRange projects placeholders in memory; materialize persists one when touched.
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 08/12/2025 @ 01:45
 class TodayPlannerServiceSpec extends Specification {
@@ -186,6 +192,270 @@ class TodayPlannerServiceSpec extends Specification {
         liveStore.all.size() == 1
     }
 
+    def "ensureDayForEpoch resolves the local day, so a Monday rule fires on a Monday evening west of UTC"() {
+        given: "a Monday-only rule (0 = Sunday)"
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        final RecurrenceRule mondays = newRule("mon", true, true, 21, 0)
+        mondays.anchor.setKind(TimeAnchorKind.WEEKLY)
+        mondays.anchor.setDayOfWeek(1)
+        mondays.cadence.setUnit(DurationUnit.WEEK)
+        questDefinition.setRules([mondays] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+
+        and: "Monday 2026-03-09 20:00 in New York (midnight rollover), already Tuesday in UTC"
+        final TimeZoneInfo est = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+        final ZonedDateTime mondayEvening = ZonedDateTime.of(2026, 3, 9, 20, 0, 0, 0, ZoneId.of("America/New_York"))
+        final int monday = (int) (mondayEvening.toLocalDate().toEpochDay() - DayCalendar.EPOCH_DAY)
+
+        when:
+        final List<LiveQuest> results = todayPlannerService.ensureDayForEpoch(
+                userKey, (double) mondayEvening.toInstant().toEpochMilli(), est, 0)
+
+        then:
+        DayCalendar.dayOfWeek(monday) == 1
+        results.size() == 1
+        results[0].dayIndex == monday
+        results[0].deadlineMillis == ZonedDateTime.of(2026, 3, 9, 21, 0, 0, 0, ZoneId.of("America/New_York")).toInstant().toEpochMilli()
+    }
+
+    def "ensureToday materializes the local day containing now in a non-UTC default zone"() {
+        given:
+        final TimeZoneInfo est = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+        final DayIndexService estIndex = new DayIndexService(est, 4)
+        final TodayPlannerService estPlanner = new TodayPlannerService(
+                estIndex, new ModelDayService(estIndex), definitionSource, scheduleService, plannerService)
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        questDefinition.setRules([newRule("r1")] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+
+        when:
+        final int before = DayIndexService.localDayNum(System.currentTimeMillis(), est, 4)
+        final List<LiveQuest> results = estPlanner.ensureToday(userKey)
+        final int after = DayIndexService.localDayNum(System.currentTimeMillis(), est, 4)
+
+        then:
+        results.size() == 1
+        results[0].dayIndex in [before, after]
+        results[0].deadlineMillis == DayIndexService.localWallTime(results[0].dayIndex, 10 * 3_600_000L, est, 4)
+    }
+
+    def "ensureToday reads and writes the store once per day, however many rules there are"() {
+        given: "300 definitions with two rules each"
+        definitionSource.definitions = (0..<300).collect { i ->
+            final QuestDefinition questDefinition = newQuestDefinition("d" + i, true)
+            questDefinition.setRules([newRule("a" + i), newRule("b" + i)] as RecurrenceRule[])
+            questDefinition
+        }
+
+        when:
+        final List<LiveQuest> first = todayPlannerService.ensureToday(userKey)
+
+        then:
+        first.size() == 600
+        liveStore.all.size() == 600
+        liveStore.batchReads == 1
+        liveStore.batchWrites == 1
+        liveStore.singleReads == 0
+        liveStore.singleWrites == 0
+
+        and: "the default newLiveQuest built all 600 without persisting any"
+        liveStore.creates == 0
+
+        when: "everything already exists"
+        final List<LiveQuest> second = todayPlannerService.ensureToday(userKey)
+
+        then: "one read and no write"
+        second.size() == 600
+        (0..<600).every { first[it].is(second[it]) }
+        liveStore.batchReads == 2
+        liveStore.batchWrites == 1
+        liveStore.all.size() == 600
+    }
+
+    def "the compiled rule plan is reused until the definition source reports a change"() {
+        given:
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        questDefinition.setRules([newRule("r1")] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+        definitionSource.version = 1
+
+        when:
+        todayPlannerService.ensureToday(userKey)
+        todayPlannerService.ensureToday(userKey)
+        final RulePlan plan = todayPlannerService.getRulePlan(userKey, utcZone, 4)
+
+        then: "definitions were read once"
+        definitionSource.reads == 1
+        plan.size() == 1
+
+        when: "a rule is added and the version bumped"
+        questDefinition.setRules([newRule("r1"), newRule("r2")] as RecurrenceRule[])
+        definitionSource.version = 2
+        final List<LiveQuest> results = todayPlannerService.ensureToday(userKey)
+
+        then:
+        definitionSource.reads == 2
+        results.size() == 2
+        !todayPlannerService.getRulePlan(userKey, utcZone, 4).is(plan)
+
+        when: "another zone needs its own plan"
+        todayPlannerService.getRulePlan(userKey, new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true), 4)
+
+        then:
+        definitionSource.reads == 3
+    }
+
+    def "ensureDay only materializes rules whose cadence fires that day"() {
+        given: "a Tuesday-only rule (0 = Sunday) and a daily one"
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        final RecurrenceRule tuesdays = newRule("tue", true, true, 18, 30)
+        tuesdays.anchor.setKind(TimeAnchorKind.WEEKLY)
+        tuesdays.anchor.setDayOfWeek(2)
+        tuesdays.cadence.setUnit(DurationUnit.WEEK)
+        questDefinition.setRules([tuesdays, newRule("daily")] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+
+        when:
+        final Map<Integer, List<LiveQuest>> week = (0..<7).collectEntries { int dayNum ->
+            [(dayNum): todayPlannerService.ensureDay(userKey, dayService.getOrCreateModelDay(DayIndex.of(dayNum)))]
+        }
+
+        then:
+        week.every { dayNum, quests -> quests.size() == (DayCalendar.dayOfWeek(dayNum) == 2 ? 2 : 1) }
+
+        and: "the weekly deadline is the anchor time past that day's start"
+        final int tuesday = (0..<7).find { DayCalendar.dayOfWeek(it) == 2 }
+        final LiveQuest weekly = week[tuesday].find { it.liveKey == QuestKeyUtil.liveKeyFor(questDefinition, tuesdays) }
+        weekly.deadlineMillis == dayService.getOrCreateModelDay(DayIndex.of(tuesday)).startTimestamp() + (18 * 60 + 30) * 60_000L
+    }
+
+    def "ensureRange projects a month of quests without touching the store"() {
+        given: "200 definitions with a daily rule each"
+        definitionSource.definitions = (0..<200).collect { i ->
+            final QuestDefinition questDefinition = newQuestDefinition("d" + i, true)
+            questDefinition.setRules([newRule("r" + i)] as RecurrenceRule[])
+            questDefinition
+        }
+
+        when:
+        final RangePlan range = todayPlannerService.ensureRange(userKey, DayIndex.of(1000), DayIndex.of(1030))
+
+        then:
+        range.size() == 31 * 200
+        (1000..1030).every { range.countOn(it) == 200 }
+        range.getPlaceholders(1015)*.liveKey as Set == definitionSource.definitions.collect {
+            QuestKeyUtil.liveKeyFor(it, it.rules[0])
+        } as Set
+
+        and: "nothing was read or written"
+        liveStore.all.isEmpty()
+        liveStore.batchReads == 0
+        liveStore.singleReads == 0
+        liveStore.batchWrites == 0
+        liveStore.singleWrites == 0
+
+        when: "a day outside the range is asked for"
+        range.getPlaceholders(1031)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "ensureRange placeholders match what ensureDay materializes"() {
+        given: "a Tuesday-only rule, a daily rule, and a skipped daily rule"
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        final RecurrenceRule tuesdays = newRule("tue", true, true, 18, 30)
+        tuesdays.anchor.setKind(TimeAnchorKind.WEEKLY)
+        tuesdays.anchor.setDayOfWeek(2)
+        tuesdays.cadence.setUnit(DurationUnit.WEEK)
+        final RecurrenceRule skipped = newRule("skipped")
+        questDefinition.setRules([tuesdays, newRule("daily"), skipped] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+        scheduleService.skippedPairs << (questDefinition.key.id.toString() + ":" + skipped.ruleId)
+
+        when:
+        final RangePlan range = todayPlannerService.ensureRange(userKey, DayIndex.of(0), DayIndex.of(13))
+
+        then:
+        (0..13).every { int dayNum ->
+            final List<QuestPlaceholder> placeholders = range.getPlaceholders(dayNum)
+            final List<LiveQuest> quests = todayPlannerService.ensureDay(userKey, range.getDays().day(dayNum))
+            placeholders*.liveKey == quests*.liveKey &&
+                    placeholders*.deadlineMillis == quests*.deadlineMillis &&
+                    placeholders*.skip == quests*.skip &&
+                    placeholders.every { it.dayNum == dayNum }
+        }
+    }
+
+    def "materialize persists only the touched placeholder, once"() {
+        given:
+        definitionSource.definitions = (0..<10).collect { i ->
+            final QuestDefinition questDefinition = newQuestDefinition("d" + i, true)
+            questDefinition.setRules([newRule("r" + i)] as RecurrenceRule[])
+            questDefinition
+        }
+        final RangePlan range = todayPlannerService.ensureRange(userKey, DayIndex.of(500), DayIndex.of(506))
+        final QuestPlaceholder touched = range.getPlaceholders(503)[4]
+
+        when:
+        final LiveQuest quest = todayPlannerService.materialize(touched)
+
+        then:
+        liveStore.all.size() == 1
+        quest.liveKey == touched.liveKey
+        quest.dayIndex == 503
+        quest.deadlineMillis == touched.deadlineMillis
+
+        when: "touched again, or the whole day is ensured"
+        final LiveQuest again = todayPlannerService.materialize(touched)
+        final List<LiveQuest> day = todayPlannerService.ensureDay(userKey, touched.day)
+
+        then: "the same instance is reused"
+        again.is(quest)
+        day.find { it.liveKey == touched.liveKey }.is(quest)
+        liveStore.all.size() == 10
+    }
+
+    def "a saved template edit reaches the cached rule plan's weekday mask"() {
+        given: "a Monday-Friday template behind a ScheduleCalendar, and versioned definitions"
+        final ScheduleTemplate workdays = X_Model.create(ScheduleTemplate)
+        workdays.setKey(ScheduleTemplate.newKey("work"))
+        workdays.setWeekdaysOn([1, 2, 3, 4, 5] as Integer[])
+        final CalendarScheduleTemplateService calendarTemplates = new CalendarScheduleTemplateService(
+                new ScheduleCalendar(), { String key -> key == "work" ? workdays : null })
+        final TodayPlannerService calendarPlanner = new TodayPlannerService(
+                indexService, dayService, definitionSource, calendarTemplates, plannerService)
+        final QuestDefinition questDefinition = newQuestDefinition("d1", true)
+        questDefinition.setScheduleTemplateKey("work")
+        questDefinition.setRules([newRule("r1")] as RecurrenceRule[])
+        definitionSource.definitions = [questDefinition]
+        definitionSource.version = 1
+        final int saturday = (0..<7).find { DayCalendar.dayOfWeek(it) == 6 }
+
+        when:
+        final RulePlan before = calendarPlanner.getRulePlan(userKey, utcZone, 4)
+
+        then:
+        before.skipOn(0, saturday)
+        calendarPlanner.getRulePlan(userKey, utcZone, 4).is(before)
+
+        when: "Saturday becomes a workday and the template is saved"
+        workdays.setWeekdaysOn([1, 2, 3, 4, 5, 6] as Integer[])
+        calendarTemplates.onTemplateSaved(workdays.getKey())
+        final RulePlan after = calendarPlanner.getRulePlan(userKey, utcZone, 4)
+
+        then: "the plan is recompiled with the new mask, without a definitions change"
+        !after.is(before)
+        !after.skipOn(0, saturday)
+        !calendarPlanner.ensureRange(userKey, DayIndex.of(saturday), DayIndex.of(saturday)).getPlaceholders(saturday)[0].skip
+
+        when: "a holiday set is saved"
+        calendarTemplates.onHolidaySetSaved("civic")
+
+        then:
+        !calendarPlanner.getRulePlan(userKey, utcZone, 4).is(after)
+    }
+
     @Unroll
     def "ensureDay can be called explicitly for dayIndex #dayNum"() {
         given:
@@ -214,11 +484,19 @@ class TodayPlannerServiceSpec extends Specification {
 
     static class InMemoryQuestDefinitionSource implements QuestDefinitionSource {
         Iterable<QuestDefinition> definitions = Collections.emptyList()
+        long version = UNVERSIONED
+        int reads
 
         @Override
         Iterable<QuestDefinition> findDefinitionsForUser(final ModelKey userKey) {
+            reads++
             return definitions
         }
+
+        @Override
+        long getDefinitionsVersion(final ModelKey userKey) {
+            return version
+        }
     }
 
     static class InMemoryScheduleTemplateService implements ScheduleTemplateService {
@@ -239,35 +517,58 @@ class TodayPlannerServiceSpec extends Specification {
     static class InMemoryLiveQuestStore implements LiveQuestStore {
 
         final List<LiveQuest> all = new ArrayList<>()
+        int singleReads
+        int batchReads
+        int singleWrites
+        int batchWrites
+        int creates
 
         @Override
         LiveQuest findByDayAndLiveKey(final ModelDay day, final String liveKey) {
+            singleReads++
             return all.find { it.dayIndex == day.dayNum && liveKey == it.liveKey }
         }
 
+        @Override
+        Map<String, LiveQuest> findLiveQuests(final ModelDay day, final Collection<String> liveKeys) {
+            batchReads++
+            final Set<String> wanted = new HashSet<>(liveKeys)
+            return all.findAll { it.dayIndex == day.dayNum && wanted.contains(it.liveKey) }
+                    .collectEntries { [(it.liveKey): it] }
+        }
+
+        @Override
+        List<LiveQuest> saveLiveQuestsIfAbsent(final ModelDay day, final Collection<LiveQuest> candidates) {
+            batchWrites++
+            return candidates.collect { addIfAbsent(day, it) }
+        }
+
+        @Override
+        LiveQuest saveIfAbsent(final ModelDay day, final LiveQuest candidate) {
+            singleWrites++
+            return addIfAbsent(day, candidate)
+        }
+
         @Override
         LiveQuest createLiveQuest(final ModelDay day, final QuestDefinition questDefinition, final RecurrenceRule rule, final long deadlineMillis, final boolean skip) {
-            final LiveQuest liveQuest = X_Model.create(LiveQuest)
-            liveQuest.setParentDayKey(ModelDay.newKey(day.dayNum))
-            liveQuest.setDayIndex(day.dayNum)
+            creates++
+            final LiveQuest liveQuest = newLiveQuest(day, questDefinition, rule, deadlineMillis, skip)
             liveQuest.setLiveKey(QuestKeyUtil.liveKeyFor(questDefinition, rule))
-            liveQuest.setSourceDefinitionKey(questDefinition.key)
-            if (rule != null) {
-                liveQuest.setSourceRuleKey(rule.key)
+            return saveIfAbsent(day, liveQuest)
+        }
+
+        private LiveQuest addIfAbsent(final ModelDay day, final LiveQuest candidate) {
+            final LiveQuest existing = all.find { it.dayIndex == day.dayNum && candidate.liveKey == it.liveKey }
+            if (existing != null) {
+                return existing
             }
-            liveQuest.setDeadlineMillis(deadlineMillis)
-            liveQuest.setSkip(skip)
-            liveQuest.setStatus(QuestStatus.ACTIVE)
-            final long now = System.currentTimeMillis()
-            liveQuest.setCreatedAtMillis(now)
-            liveQuest.setUpdatedAtMillis(now)
-
-            all.add(liveQuest)
-            return liveQuest
+            all.add(candidate)
+            return candidate
         }
 
         @Override
         LiveQuest save(final LiveQuest quest) {
+            singleWrites++
             /// In-memory: already in list
             return quest
         }
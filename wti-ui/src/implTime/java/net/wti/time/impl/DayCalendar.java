@@ -0,0 +1,116 @@
+package net.wti.time.impl;
+
+import net.wti.time.api.DayIndex;
+
+/// DayCalendar
+///
+/// Allocation-free proleptic Gregorian calendar math over local day numbers
+/// (the numbering of DayIndexService.computeLocalDayNum / computeDayStart):
+/// local day `n` is the date with epoch day `EPOCH_DAY + n` (days since 1970-01-01).
+///
+/// The date is derived from DayIndex.EPOCH_MILLIS itself (as every day window is),
+/// so day 0 is the UTC date of that instant.
+///
+/// Conventions match ModelDay / TimeAnchor: dayOfWeek 0=Sunday..6=Saturday,
+/// month 1-12, dayOfMonth 1-31, dayOfYear 1-366.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 17:10
+public final class DayCalendar {
+
+    /// The epoch day (days since 1970-01-01, as in java.time) of local day 0.
+    public static final int EPOCH_DAY = (int) Math.floorDiv(DayIndex.EPOCH_MILLIS, 86400000L);
+
+    private DayCalendar() {
+        // utility
+    }
+
+    /// 0=Sunday .. 6=Saturday (1970-01-01 was a Thursday).
+    public static int dayOfWeek(int dayNum) {
+        return (int) Math.floorMod((long) EPOCH_DAY + dayNum + 4, 7L);
+    }
+
+    public static int year(int dayNum) {
+        return unpackYear(civil(dayNum));
+    }
+
+    /// 1-12
+    public static int month(int dayNum) {
+        return unpackMonth(civil(dayNum));
+    }
+
+    /// 1-31
+    public static int dayOfMonth(int dayNum) {
+        return unpackDay(civil(dayNum));
+    }
+
+    /// 1-366
+    public static int dayOfYear(int dayNum) {
+        return dayNum - dayNum(year(dayNum), 1, 1) + 1;
+    }
+
+    /// Months since year 0 (`year * 12 + month - 1`), handy for "every N months" arithmetic.
+    public static int monthIndex(int dayNum) {
+        final long packed = civil(dayNum);
+        return unpackYear(packed) * 12 + unpackMonth(packed) - 1;
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int lengthOfYear(int year) {
+        return isLeapYear(year) ? 366 : 365;
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /// The local day number of a calendar date; `month` 1-12, `dayOfMonth` 1-31 (not range checked).
+    public static int dayNum(int year, int month, int dayOfMonth) {
+        // Howard Hinnant's days_from_civil
+        final long y = month <= 2 ? year - 1L : year;
+        final long era = Math.floorDiv(y, 400L);
+        final long yoe = y - era * 400;
+        final long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+        final long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return (int) (era * 146097 + doe - 719468 - EPOCH_DAY);
+    }
+
+    /// year << 9 | month << 5 | day, so one conversion serves all three fields.
+    private static long civil(int dayNum) {
+        // Howard Hinnant's civil_from_days
+        final long z = (long) dayNum + EPOCH_DAY + 719468;
+        final long era = Math.floorDiv(z, 146097L);
+        final long doe = z - era * 146097;
+        final long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final long mp = (5 * doy + 2) / 153;
+        final long d = doy - (153 * mp + 2) / 5 + 1;
+        final long m = mp < 10 ? mp + 3 : mp - 9;
+        final long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return y << 9 | m << 5 | d;
+    }
+
+    private static int unpackYear(long packed) {
+        return (int) (packed >> 9);
+    }
+
+    private static int unpackMonth(long packed) {
+        return (int) (packed >> 5) & 15;
+    }
+
+    private static int unpackDay(long packed) {
+        return (int) packed & 31;
+    }
+}
@@ -4,18 +4,21 @@ package net.wti.time.impl;
 import net.wti.time.api.DayIndex;
 import xapi.time.api.TimeZoneInfo;
 
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
 /// DayIndexService
 ///
 /// Service for computing DayIndex from timestamps using timezone and rolloverHour.
 ///
-/// The core algorithm:
-/// 1. Convert epoch millis to user's local time (UTC + timezone offset at that moment)
-/// 2. Subtract rolloverHour to get "logical day time"
-///    (e.g., 3:30am with rolloverHour=4 becomes previous day's 23:30)
-/// 3. Count days since app epoch in this adjusted timeline
+/// Day numbers are local: day `n` runs from rolloverHour *local* time on epoch+n until
+/// rolloverHour the next local day, so `computeDayIndex(computeDayStart(n, zone, r), zone, r)`
+/// is `n` in every zone. This is the numbering ModelDay windows, DateKey, RulePlan and
+/// RolloverScheduler use. Offsets come from a shared ZoneTransitions table, and day starts
+/// are exact even on days when the clocks change.
 ///
-/// Handles DST correctly by using TimeZoneInfo.getOffsetAt() which accounts
-/// for daylight saving time at the specific moment.
+/// `computeDayIndex` / `computeDayNum` / `computeDayNums` and their `computeLocal*` twins
+/// return the same values.
 ///
 /// Created by James X. Nelson (James@WeTheInter.net) on 2025-11-18 @ 22:20
 public class DayIndexService {
@@ -48,82 +51,163 @@ public class DayIndexService {
     public DayIndex computeDayIndex(double epochMillis, TimeZoneInfo zone) {
         return computeDayIndex(epochMillis, zone, defaultRolloverHour);
     }
-    /// Computes DayIndex for the given epoch millis with custom zone and rolloverHour.
-    ///
-    /// Algorithm:
-    /// 1. Get timezone offset at this moment (including DST)
-    /// 2. Compute local millis = UTC millis + offset
-    /// 3. Subtract rolloverHour to get "logical day time"
-    /// 4. Count days since epoch
+    /// Computes the local DayIndex of `epochMillis` in `zone`: the day whose window
+    /// (rolloverHour local time to rolloverHour the next local day) contains it.
     public DayIndex computeDayIndex(double epochMillis, TimeZoneInfo zone, int rolloverHour) {
-        // Get offset at this specific moment (handles DST)
-        int offsetMillis = zone.getOffsetAt(epochMillis);
-
-        // Convert to local time
-        long localMillis = (long) epochMillis + offsetMillis;
-
-        // Subtract rollover offset to shift the day boundary
-        long rolloverOffsetMillis = rolloverHour * 3600000L;
-        long adjustedMillis = localMillis - rolloverOffsetMillis;
-
-        // Compute the adjusted epoch:
-        // Day 0 starts at rolloverHour on the epoch date in the user's timezone
-        // In UTC terms: EPOCH_MILLIS (midnight) + offsetMillis (to local) + rolloverOffsetMillis
-        // But wait - we need to think about this differently:
-        // - adjustedMillis represents "time since rolloverHour on current day"
-        // - We want day 0 to start when adjustedMillis = EPOCH_MILLIS + offsetMillis
-        // - So epochAdjusted = EPOCH_MILLIS + offsetMillis
-        long epochAdjusted = DayIndex.EPOCH_MILLIS + offsetMillis;
-
-        // Compute days since adjusted epoch
-        long daysSinceEpoch = (adjustedMillis - epochAdjusted) / 86400000L;
-
-        // Handle negative case properly (floor division)
-        if (adjustedMillis < epochAdjusted && (adjustedMillis - epochAdjusted) % 86400000L != 0) {
-            daysSinceEpoch--;
+        return DayIndex.of(computeDayNum((long) epochMillis, zone, rolloverHour));
+    }
+
+    /// computeDayNum using default zone and rolloverHour.
+    public int computeDayNum(long epochMillis) {
+        return computeDayNum(epochMillis, defaultZone, defaultRolloverHour);
+    }
+
+    /// computeDayNum with custom zone.
+    public int computeDayNum(long epochMillis, TimeZoneInfo zone) {
+        return computeDayNum(epochMillis, zone, defaultRolloverHour);
+    }
+
+    /// Primitive form of computeDayIndex: the same local day number, without a DayIndex.
+    public int computeDayNum(long epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        return localDayNum(epochMillis, zone, rolloverHour);
+    }
+
+    /// Computes the local (wall-clock) day number of `epochMillis` in `zone`.
+    ///
+    /// Day `n` runs from rolloverHour local time on epoch+n until rolloverHour the next
+    /// local day. This is the inverse of computeDayStart; with rolloverHour=0 it is the
+    /// local calendar date.
+    public int computeLocalDayNum(long epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        return localDayNum(epochMillis, zone, rolloverHour);
+    }
+
+    /// Static form of computeLocalDayNum, for value types that carry their own zone.
+    public static int localDayNum(long epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        final long localMillis = epochMillis + ZoneTransitions.forZone(zone).offsetAt(epochMillis) - rolloverHour * 3600000L;
+        return (int) Math.floorDiv(localMillis - DayIndex.EPOCH_MILLIS, 86400000L);
+    }
+
+    /// Static form of computeDayStart: the instant local day `dayNum` begins at rolloverHour in `zone`.
+    public static long localDayStart(int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        return localWallTime(dayNum, 0L, zone, rolloverHour);
+    }
+
+    /// The instant the wall clock of local day `dayNum` reads `offsetMillis` past the day's start
+    /// (e.g. 09:00 is rolloverHour + 9h on the wall clock, not 9 elapsed hours after the start,
+    /// which is an hour off on DST days). A wall time skipped by a DST gap lands on the transition.
+    public static long localWallTime(int dayNum, long offsetMillis, TimeZoneInfo zone, int rolloverHour) {
+        // Wall-clock time, as "local millis"
+        long localMillis = DayIndex.EPOCH_MILLIS + (dayNum * 86400000L) + rolloverHour * 3600000L + offsetMillis;
+
+        // Find the UTC instant showing that wall time, using the zone's transition table
+        return ZoneTransitions.forZone(zone).toEpochMillis(localMillis);
+    }
+
+    /// DayIndex form of computeLocalDayNum.
+    public DayIndex computeLocalDayIndex(long epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        return DayIndex.of(computeLocalDayNum(epochMillis, zone, rolloverHour));
+    }
+
+    // -------------------------------------------------------------------------
+    // Bulk / streaming day numbers (no DayIndex allocation, offset reused per DST segment)
+    // -------------------------------------------------------------------------
+
+    /// Fills `dayNums[i]` with `computeDayNum(epochMillis[i], zone, rolloverHour)`;
+    /// same as computeLocalDayNums.
+    public void computeDayNums(long[] epochMillis, int[] dayNums, TimeZoneInfo zone, int rolloverHour) {
+        computeLocalDayNums(epochMillis, dayNums, zone, rolloverHour);
+    }
+
+    /// Bulk computeDayNums with the default zone and rolloverHour; returns a new array.
+    public int[] computeDayNums(long[] epochMillis) {
+        final int[] dayNums = new int[epochMillis.length];
+        computeDayNums(epochMillis, dayNums, defaultZone, defaultRolloverHour);
+        return dayNums;
+    }
+
+    /// Fills `dayNums[i]` with `computeLocalDayNum(epochMillis[i], zone, rolloverHour)`.
+    ///
+    /// Sorted or clustered input is fastest: consecutive timestamps in one DST segment
+    /// share a single offset lookup (see DayNumCounter).
+    public void computeLocalDayNums(long[] epochMillis, int[] dayNums, TimeZoneInfo zone, int rolloverHour) {
+        checkBulk(epochMillis, dayNums);
+        final DayNumCounter counter = new DayNumCounter(zone, rolloverHour);
+        for (int i = 0; i < epochMillis.length; i++) {
+            dayNums[i] = counter.localDayNum(epochMillis[i]);
         }
+    }
 
-        return DayIndex.of((int)daysSinceEpoch); // an integer number of day is >10million years.
+    /// Streaming form of computeDayNums; same as computeLocalDayNums.
+    public IntStream computeDayNums(LongStream epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        return computeLocalDayNums(epochMillis, zone, rolloverHour);
     }
 
-    /// Computes the current DayIndex using default zone and rolloverHour.
-    public DayIndex today() {
-        return computeDayIndex(System.currentTimeMillis());
+    /// Streaming form of computeLocalDayNums; the stream is made sequential, as it shares one counter.
+    public IntStream computeLocalDayNums(LongStream epochMillis, TimeZoneInfo zone, int rolloverHour) {
+        final DayNumCounter counter = new DayNumCounter(zone, rolloverHour);
+        return epochMillis.sequential().mapToInt(counter::localDayNum);
     }
 
-    /// Computes the current DayIndex using custom zone.
-    public DayIndex today(TimeZoneInfo zone) {
-        return computeDayIndex(System.currentTimeMillis(), zone);
+    /// A reusable counter, for callers that feed timestamps one at a time (i.e. while iterating models).
+    public DayNumCounter newCounter(TimeZoneInfo zone, int rolloverHour) {
+        return new DayNumCounter(zone, rolloverHour);
     }
 
-    /// Computes the start timestamp (epoch millis) for the given DayIndex.
-    /// This is the moment when the day begins (at rolloverHour in user's local time).
-    public long computeDayStart(DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
-        // Start with epoch
-        long epochAdjusted = DayIndex.EPOCH_MILLIS;
+    private static void checkBulk(long[] epochMillis, int[] dayNums) {
+        if (epochMillis == null || dayNums == null) {
+            throw new IllegalArgumentException("epochMillis and dayNums cannot be null");
+        }
+        if (dayNums.length < epochMillis.length) {
+            throw new IllegalArgumentException("dayNums (" + dayNums.length
+                    + ") is shorter than epochMillis (" + epochMillis.length + ")");
+        }
+    }
 
-        // Add days
-        long targetMillis = epochAdjusted + (dayIndex.getDayNum() * 86400000L);
+    /// Computes the current local DayIndex using default zone and rolloverHour.
+    public DayIndex today() {
+        return today(defaultZone);
+    }
 
-        // We need to find the exact moment when this day starts in the user's zone
-        // This requires iterating because DST transitions can shift the boundary
+    /// Computes the current local DayIndex in `zone` (with the default rolloverHour):
+    /// the day whose ModelDay window contains now.
+    public DayIndex today(TimeZoneInfo zone) {
+        return computeLocalDayIndex(System.currentTimeMillis(), zone, defaultRolloverHour);
+    }
 
-        // Approximate: use offset at target time
-        int offsetMillis = zone.getOffsetAt(targetMillis);
+    /// Primitive form of today().
+    public int todayNum() {
+        return todayNum(defaultZone);
+    }
 
-        // Adjust for timezone and rollover
-        long rolloverOffsetMillis = rolloverHour * 3600000L;
+    /// Primitive form of today(zone).
+    public int todayNum(TimeZoneInfo zone) {
+        return computeLocalDayNum(System.currentTimeMillis(), zone, defaultRolloverHour);
+    }
 
-        // The day starts at: epoch + days - timezone_offset + rolloverHour
-        long startMillis = targetMillis - offsetMillis + rolloverOffsetMillis;
+    /// Computes the start timestamp (epoch millis) for the given DayIndex.
+    /// This is the moment when the day begins (at rolloverHour in user's local time).
+    ///
+    /// Exact across DST transitions: if rolloverHour happens twice that day (clocks going back),
+    /// the day starts at the first one; if it is skipped (clocks jumping forward), the day starts
+    /// at the jump.
+    public long computeDayStart(DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
+        return computeDayStart(dayIndex.getDayNum(), zone, rolloverHour);
+    }
 
-        return startMillis;
+    /// computeDayStart for a primitive day number.
+    public long computeDayStart(int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        return localDayStart(dayNum, zone, rolloverHour);
     }
 
     /// Computes the end timestamp (epoch millis) for the given DayIndex.
     /// This is one millisecond before the start of the next day.
     public long computeDayEnd(DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
-        long nextDayStart = computeDayStart(dayIndex.plusDays(1), zone, rolloverHour);
+        return computeDayEnd(dayIndex.getDayNum(), zone, rolloverHour);
+    }
+
+    /// computeDayEnd for a primitive day number.
+    public long computeDayEnd(int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        long nextDayStart = computeDayStart(dayNum + 1, zone, rolloverHour);
         return nextDayStart - 1;
     }
 
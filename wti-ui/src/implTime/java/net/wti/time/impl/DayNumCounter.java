@@ -0,0 +1,73 @@
+package net.wti.time.impl;
+
+import net.wti.time.api.DayIndex;
+import xapi.time.api.TimeZoneInfo;
+
+/// DayNumCounter
+///
+/// Stateful helper behind DayIndexService's bulk and streaming day-number APIs.
+/// Produces exactly what the scalar methods would, without a DayIndex allocation per
+/// timestamp, and without a ZoneTransitions lookup per timestamp:
+///
+/// It remembers one DST segment, `[segmentStart, segmentEnd]`, over which the zone's offset
+/// is known to be constant. Timestamps inside it reuse the offset. On a miss, the offset and
+/// the next transition are read from the zone's ZoneTransitions table, and the span up to
+/// that transition becomes the new segment; sorted or clustered input thus costs about one
+/// table lookup per DST segment (or table chunk) it touches.
+///
+/// Not thread safe: use one counter per thread (or per stream).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 12:10
+public final class DayNumCounter {
+
+    static final long DAY_MILLIS = 86400000L;
+
+    private final TimeZoneInfo zone;
+    private final ZoneTransitions transitions;
+    private final long rolloverMillis;
+
+    private long segmentStart = Long.MAX_VALUE;
+    private long segmentEnd = Long.MIN_VALUE;
+    private int segmentOffset;
+    private int lookups;
+
+    public DayNumCounter(final TimeZoneInfo zone, final int rolloverHour) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone cannot be null");
+        }
+        if (rolloverHour < 0 || rolloverHour > 23) {
+            throw new IllegalArgumentException("rolloverHour must be 0-23, got: " + rolloverHour);
+        }
+        this.zone = zone;
+        this.transitions = ZoneTransitions.forZone(zone);
+        this.rolloverMillis = rolloverHour * 3600000L;
+    }
+
+    /// Same value as `DayIndexService.computeDayNum` / `computeLocalDayNum(epochMillis, zone, rolloverHour)`.
+    public int localDayNum(final long epochMillis) {
+        final long localMillis = epochMillis + offsetAt(epochMillis) - rolloverMillis;
+        return (int) Math.floorDiv(localMillis - DayIndex.EPOCH_MILLIS, DAY_MILLIS);
+    }
+
+    /// @return how many offset lookups this counter made (for tests and tuning).
+    public int getLookups() {
+        return lookups;
+    }
+
+    public TimeZoneInfo getZone() {
+        return zone;
+    }
+
+    int offsetAt(final long epochMillis) {
+        if (epochMillis >= segmentStart && epochMillis <= segmentEnd) {
+            return segmentOffset;
+        }
+        lookups++;
+        final int offset = transitions.offsetAt(epochMillis);
+        final long next = transitions.nextBoundary(epochMillis);
+        segmentStart = epochMillis;
+        segmentEnd = next == Long.MAX_VALUE ? epochMillis : next - 1;
+        segmentOffset = offset;
+        return offset;
+    }
+}
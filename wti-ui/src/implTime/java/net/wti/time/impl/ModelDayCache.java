@@ -0,0 +1,284 @@
+package net.wti.time.impl;
+
+import net.wti.time.api.ModelDay;
+
+import java.util.Arrays;
+
+/// ModelDayCache
+///
+/// A bounded ModelDay cache keyed by a packed primitive `long`:
+/// `dayNum` in the high 32 bits, then an interned zone index, then the rollover hour (5 bits);
+/// see `pack`. Lookups never allocate (no String or boxed key).
+///
+/// Layout:
+/// - a CLOCK ring (`ringKeys` / `ringValues` / `referenced`) holding at most `maxSize` days;
+///   a hit sets the slot's reference bit, and eviction sweeps the hand past referenced slots
+///   (clearing their bit), evicting the first unreferenced, unpinned one.
+/// - an open-addressing `long -> ring slot` index (linear probing, backward-shift deletes).
+///
+/// Pinned windows (one `[fromDay, toDay]` per zone and rollover hour; ModelDayService pins
+/// today ± 1) are never evicted; if only pinned days remain, the ring grows past `maxSize`.
+///
+/// All methods synchronize on the cache; hit / miss / eviction counters are exposed for tuning.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 14:00
+public final class ModelDayCache {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxSize;
+
+    // ---- CLOCK ring ----
+    private long[] ringKeys;
+    private ModelDay[] ringValues;
+    private boolean[] referenced;
+    private int size;
+    private int hand;
+
+    // ---- key -> slot index; indexSlots holds slot + 1, 0 = empty ----
+    private long[] indexKeys;
+    private int[] indexSlots;
+    private int indexMask;
+
+    // ---- pinned windows; one per (zone, rolloverHour) ----
+    private int[] pinZoneHour = new int[0];
+    private int[] pinFrom = new int[0];
+    private int[] pinTo = new int[0];
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ModelDayCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ModelDayCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive, got: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        allocate(Math.min(maxSize, INITIAL_CAPACITY));
+    }
+
+    /// Packs a cache key; `zoneIndex` must be below 2^27 and `rolloverHour` within 0-23.
+    public static long pack(final int dayNum, final int zoneIndex, final int rolloverHour) {
+        return ((long) dayNum << 32) | ((long) zoneHour(zoneIndex, rolloverHour) & 0xffffffffL);
+    }
+
+    static int zoneHour(final int zoneIndex, final int rolloverHour) {
+        return zoneIndex << 5 | rolloverHour;
+    }
+
+    static int dayNumOf(final long key) {
+        return (int) (key >> 32);
+    }
+
+    static int zoneHourOf(final long key) {
+        return (int) key;
+    }
+
+    /// @return the cached day, or null (counting a hit or a miss).
+    public synchronized ModelDay get(final long key) {
+        final int slot = slotOf(key);
+        if (slot < 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        referenced[slot] = true;
+        return ringValues[slot];
+    }
+
+    /// Caches `day` unless another thread cached one for `key` first.
+    /// @return whichever instance is cached for `key` afterwards.
+    public synchronized ModelDay putIfAbsent(final long key, final ModelDay day) {
+        final int existing = slotOf(key);
+        if (existing >= 0) {
+            referenced[existing] = true;
+            return ringValues[existing];
+        }
+        int slot;
+        if (size < ringKeys.length) {
+            slot = size++;
+        } else if (size < maxSize) {
+            grow(Math.min(maxSize, size * 2));
+            slot = size++;
+        } else if ((slot = victim()) >= 0) {
+            indexRemove(ringKeys[slot]);
+            evictions++;
+        } else {
+            // everything left is pinned; exceed maxSize rather than drop a pinned day
+            grow(size * 2);
+            slot = size++;
+        }
+        ringKeys[slot] = key;
+        ringValues[slot] = day;
+        referenced[slot] = false;
+        indexPut(key, slot);
+        return day;
+    }
+
+    /// Protects `[fromDay, toDay]` for one zone and rollover hour, replacing its previous window.
+    public synchronized void pin(final int zoneIndex, final int rolloverHour, final int fromDay, final int toDay) {
+        final int zh = zoneHour(zoneIndex, rolloverHour);
+        for (int i = 0; i < pinZoneHour.length; i++) {
+            if (pinZoneHour[i] == zh) {
+                pinFrom[i] = fromDay;
+                pinTo[i] = toDay;
+                return;
+            }
+        }
+        final int n = pinZoneHour.length;
+        pinZoneHour = Arrays.copyOf(pinZoneHour, n + 1);
+        pinFrom = Arrays.copyOf(pinFrom, n + 1);
+        pinTo = Arrays.copyOf(pinTo, n + 1);
+        pinZoneHour[n] = zh;
+        pinFrom[n] = fromDay;
+        pinTo[n] = toDay;
+    }
+
+    public synchronized void unpinAll() {
+        pinZoneHour = new int[0];
+        pinFrom = new int[0];
+        pinTo = new int[0];
+    }
+
+    public synchronized boolean isPinned(final long key) {
+        final int zh = zoneHourOf(key);
+        final int day = dayNumOf(key);
+        for (int i = 0; i < pinZoneHour.length; i++) {
+            if (pinZoneHour[i] == zh && day >= pinFrom[i] && day <= pinTo[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /// Drops every cached day (pins and counters are kept).
+    public synchronized void clear() {
+        size = 0;
+        hand = 0;
+        allocate(Math.min(maxSize, INITIAL_CAPACITY));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    // ---------------------------------------------------------------------
+    // CLOCK
+    // ---------------------------------------------------------------------
+
+    /// @return an unpinned, unreferenced slot to reuse, or -1 if every slot is pinned.
+    private int victim() {
+        // two passes: the first may only clear reference bits
+        for (int i = 0, n = size * 2; i < n; i++) {
+            final int slot = hand;
+            hand = hand + 1 == size ? 0 : hand + 1;
+            if (isPinned(ringKeys[slot])) {
+                continue;
+            }
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            return slot;
+        }
+        return -1;
+    }
+
+    private void allocate(final int capacity) {
+        ringKeys = new long[capacity];
+        ringValues = new ModelDay[capacity];
+        referenced = new boolean[capacity];
+        allocateIndex(capacity);
+    }
+
+    private void grow(final int capacity) {
+        ringKeys = Arrays.copyOf(ringKeys, capacity);
+        ringValues = Arrays.copyOf(ringValues, capacity);
+        referenced = Arrays.copyOf(referenced, capacity);
+        allocateIndex(capacity);
+        for (int slot = 0; slot < size; slot++) {
+            indexPut(ringKeys[slot], slot);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // long -> slot index
+    // ---------------------------------------------------------------------
+
+    private void allocateIndex(final int capacity) {
+        // keep the load factor at or under 1/2
+        final int tableSize = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) << 1;
+        indexKeys = new long[tableSize];
+        indexSlots = new int[tableSize];
+        indexMask = tableSize - 1;
+    }
+
+    private static int hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int slotOf(final long key) {
+        for (int i = hash(key) & indexMask; ; i = (i + 1) & indexMask) {
+            final int slot = indexSlots[i];
+            if (slot == 0) {
+                return -1;
+            }
+            if (indexKeys[i] == key) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private void indexPut(final long key, final int slot) {
+        int i = hash(key) & indexMask;
+        while (indexSlots[i] != 0 && indexKeys[i] != key) {
+            i = (i + 1) & indexMask;
+        }
+        indexKeys[i] = key;
+        indexSlots[i] = slot + 1;
+    }
+
+    private void indexRemove(final long key) {
+        int i = hash(key) & indexMask;
+        while (indexSlots[i] != 0 && indexKeys[i] != key) {
+            i = (i + 1) & indexMask;
+        }
+        if (indexSlots[i] == 0) {
+            return;
+        }
+        indexSlots[i] = 0;
+        // backward-shift: pull later entries of the probe run into the hole
+        for (int j = (i + 1) & indexMask; indexSlots[j] != 0; j = (j + 1) & indexMask) {
+            final int home = hash(indexKeys[j]) & indexMask;
+            final boolean homeInHoleToJ = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+            if (!homeInHoleToJ) {
+                indexKeys[i] = indexKeys[j];
+                indexSlots[i] = indexSlots[j];
+                indexSlots[j] = 0;
+                i = j;
+            }
+        }
+    }
+}
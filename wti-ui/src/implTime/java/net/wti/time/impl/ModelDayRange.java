@@ -0,0 +1,82 @@
+package net.wti.time.impl;
+
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.ModelDay;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/// ModelDayRange
+///
+/// A read-only, array-backed view of consecutive ModelDays `[fromDay, toDay]`,
+/// as returned by ModelDayService.getOrCreateModelDays.
+///
+/// Besides List access by position, it can look a day up by day number (`day(int)`),
+/// or find the day containing an instant with a binary search over the day starts (`dayAt(long)`).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 15:00
+public final class ModelDayRange extends AbstractList<ModelDay> implements RandomAccess {
+
+    private final int fromDay;
+    private final ModelDay[] days;
+    /// starts[i] is days[i]'s start; starts[days.length] is the end of the range + 1.
+    private final long[] starts;
+
+    ModelDayRange(final int fromDay, final ModelDay[] days, final long[] starts) {
+        this.fromDay = fromDay;
+        this.days = days;
+        this.starts = starts;
+    }
+
+    @Override
+    public ModelDay get(final int index) {
+        return days[index];
+    }
+
+    @Override
+    public int size() {
+        return days.length;
+    }
+
+    public int getFromDay() {
+        return fromDay;
+    }
+
+    public int getToDay() {
+        return fromDay + days.length - 1;
+    }
+
+    public DayIndex getFrom() {
+        return DayIndex.of(fromDay);
+    }
+
+    public DayIndex getTo() {
+        return DayIndex.of(getToDay());
+    }
+
+    /// @return the ModelDay numbered `dayNum`, or null if it lies outside this range.
+    public ModelDay day(final int dayNum) {
+        final long i = (long) dayNum - fromDay;
+        return i < 0 || i >= days.length ? null : days[(int) i];
+    }
+
+    /// @return the ModelDay whose window contains `epochMillis`, or null if it lies outside this range.
+    public ModelDay dayAt(final long epochMillis) {
+        if (days.length == 0 || epochMillis < starts[0] || epochMillis >= starts[days.length]) {
+            return null;
+        }
+        final int i = Arrays.binarySearch(starts, 0, days.length, epochMillis);
+        return days[i >= 0 ? i : -i - 2];
+    }
+
+    /// @return the first instant of the range.
+    public long getStartTimestamp() {
+        return starts[0];
+    }
+
+    /// @return the last instant of the range (inclusive).
+    public long getEndTimestamp() {
+        return starts[days.length] - 1;
+    }
+}
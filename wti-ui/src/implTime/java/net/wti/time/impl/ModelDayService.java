@@ -8,11 +8,11 @@ package net.wti.time.impl;
 
 import net.wti.time.api.DayIndex;
 import net.wti.time.api.ModelDay;
-import xapi.fu.data.MapLike;
-import xapi.fu.java.X_Jdk;
 import xapi.model.X_Model;
 import xapi.time.api.TimeZoneInfo;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /// ModelDayService
 ///
 /// Service for computing and caching ModelDay instances.
@@ -21,15 +21,25 @@ import xapi.time.api.TimeZoneInfo;
 /// Can be used as compute-only (no persistence) or wired to persist
 /// ModelDay instances to storage in the future.
 ///
+/// The cache is a bounded ModelDayCache (CLOCK eviction, default 4096 days) keyed by
+/// (dayNum, interned zone id, rolloverHour) packed into a long, so hits build no key objects.
+/// `today(...)` pins yesterday, today and tomorrow for its zone, so they are never evicted.
+///
 /// Created by James X. Nelson (James@WeTheInter.net) on 2025-11-18
 public class ModelDayService {
 
     private final DayIndexService indexService;
-    private final MapLike<String, ModelDay> cache;
+    private final ModelDayCache cache;
+    /// Zone id -> small int, for packing cache keys.
+    private final ConcurrentHashMap<String, Integer> zoneIndexes = new ConcurrentHashMap<>();
 
     public ModelDayService(DayIndexService indexService) {
+        this(indexService, ModelDayCache.DEFAULT_MAX_SIZE);
+    }
+
+    public ModelDayService(DayIndexService indexService, int maxCacheSize) {
         this.indexService = indexService;
-        this.cache = X_Jdk.mapOrderedKeyConcurrent();
+        this.cache = new ModelDayCache(maxCacheSize);
     }
 
     /// Gets or creates a ModelDay for the given DayIndex using default zone and rolloverHour.
@@ -45,8 +55,65 @@ public class ModelDayService {
     /// Gets or creates a ModelDay for the given DayIndex with custom zone and rolloverHour.
     /// Uses cache to avoid recomputing.
     public ModelDay getOrCreateModelDay(DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
-        String cacheKey = makeCacheKey(dayIndex, zone, rolloverHour);
-        return cache.computeIfAbsent(cacheKey, k -> createModelDay(indexService, dayIndex, zone, rolloverHour));
+        return getOrCreateModelDayNum(dayIndex.getDayNum(), zone, rolloverHour);
+    }
+
+    /// Primitive form of getOrCreateModelDay(DayIndex), using default zone and rolloverHour.
+    public ModelDay getOrCreateModelDayNum(int dayNum) {
+        return getOrCreateModelDayNum(dayNum, indexService.getDefaultZone(), indexService.getDefaultRolloverHour());
+    }
+
+    /// Primitive form of getOrCreateModelDay(DayIndex, zone, rolloverHour); cache hits allocate nothing.
+    public ModelDay getOrCreateModelDayNum(int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        final long cacheKey = makeCacheKey(dayNum, zone, rolloverHour);
+        final ModelDay cached = cache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        // built outside the cache lock; if another thread won the race, use its instance
+        final long start = indexService.computeDayStart(dayNum, zone, rolloverHour);
+        final long end = indexService.computeDayEnd(dayNum, zone, rolloverHour);
+        return cache.putIfAbsent(cacheKey, newModelDay(dayNum, zone, rolloverHour, start, end));
+    }
+
+    /// Gets or creates every ModelDay in `[from, to]` (inclusive) using default zone and rolloverHour.
+    public ModelDayRange getOrCreateModelDays(DayIndex from, DayIndex to) {
+        return getOrCreateModelDays(from, to, indexService.getDefaultZone(), indexService.getDefaultRolloverHour());
+    }
+
+    /// Gets or creates every ModelDay in `[from, to]` (inclusive) for one zone and rolloverHour.
+    ///
+    /// The range is walked once: each day start is computed a single time, and a day's end is
+    /// the next day's start minus 1 (so a range of N days costs N + 1 day-start computations,
+    /// rather than 2N for N calls to getOrCreateModelDay). Missing days are added to the cache.
+    ///
+    /// Note that ranges longer than the cache's bound will evict their own earlier days;
+    /// the returned ModelDayRange still holds every day.
+    public ModelDayRange getOrCreateModelDays(DayIndex from, DayIndex to, TimeZoneInfo zone, int rolloverHour) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to cannot be null");
+        }
+        final int fromDay = from.getDayNum();
+        final int toDay = to.getDayNum();
+        if (toDay < fromDay) {
+            throw new IllegalArgumentException("to (" + toDay + ") cannot be before from (" + fromDay + ")");
+        }
+        final int count = toDay - fromDay + 1;
+        final int zoneIndex = zoneIndex(zone);
+        final ModelDay[] days = new ModelDay[count];
+        final long[] starts = new long[count + 1];
+        starts[0] = indexService.computeDayStart(fromDay, zone, rolloverHour);
+        for (int i = 0; i < count; i++) {
+            final int dayNum = fromDay + i;
+            starts[i + 1] = indexService.computeDayStart(dayNum + 1, zone, rolloverHour);
+            final long cacheKey = ModelDayCache.pack(dayNum, zoneIndex, rolloverHour);
+            ModelDay day = cache.get(cacheKey);
+            if (day == null) {
+                day = cache.putIfAbsent(cacheKey, newModelDay(dayNum, zone, rolloverHour, starts[i], starts[i + 1] - 1));
+            }
+            days[i] = day;
+        }
+        return new ModelDayRange(fromDay, days, starts);
     }
 
     /// Creates a new ModelDay instance with computed values.
@@ -54,17 +121,20 @@ public class ModelDayService {
     @Deprecated // to discourage direct creation; we are not deleting this method, just avoiding overuse
     @SuppressWarnings("DeprecatedIsStillUsed")
     public static ModelDay createModelDay(final DayIndexService idxSvc, DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
+        // Compute timestamps
+        long start = idxSvc.computeDayStart(dayIndex, zone, rolloverHour);
+        long end = idxSvc.computeDayEnd(dayIndex, zone, rolloverHour);
+        return newModelDay(dayIndex.getDayNum(), zone, rolloverHour, start, end);
+    }
+
+    private static ModelDay newModelDay(int dayNum, TimeZoneInfo zone, int rolloverHour, long start, long end) {
         ModelDay day = X_Model.create(ModelDay.class);
-        day.setKey(ModelDay.newKey(dayIndex.getDayNum()));
-        day.setDayNum(dayIndex.getDayNum());
+        day.setKey(ModelDay.newKey(dayNum));
+        day.setDayNum(dayNum);
 
         day.setZone(zone);
         day.setRolloverHour(rolloverHour);
 
-        // Compute timestamps
-        long start = idxSvc.computeDayStart(dayIndex, zone, rolloverHour);
-        long end = idxSvc.computeDayEnd(dayIndex, zone, rolloverHour);
-
         day.setStartTimestamp(start);
         day.setEndTimestamp(end);
         day.setDurationMillis(end - start + 1);
@@ -72,32 +142,40 @@ public class ModelDayService {
         return day;
     }
 
-    /// Gets or creates a ModelDay for the given epoch millis using default zone and rolloverHour.
+    /// Gets or creates the ModelDay containing `epochMillis`, using default zone and rolloverHour.
     public ModelDay getOrCreateModelDay(double epochMillis) {
-        DayIndex dayIndex = indexService.computeDayIndex(epochMillis);
-        return getOrCreateModelDay(dayIndex);
+        return getOrCreateModelDay(epochMillis, indexService.getDefaultZone(), indexService.getDefaultRolloverHour());
     }
 
-    /// Gets or creates a ModelDay for the given epoch millis with custom zone.
+    /// Gets or creates the ModelDay containing `epochMillis` in `zone`, with the default rolloverHour.
     public ModelDay getOrCreateModelDay(double epochMillis, TimeZoneInfo zone) {
-        DayIndex dayIndex = indexService.computeDayIndex(epochMillis, zone);
-        return getOrCreateModelDay(dayIndex, zone);
+        return getOrCreateModelDay(epochMillis, zone, indexService.getDefaultRolloverHour());
     }
 
-    /// Gets or creates a ModelDay for the given epoch millis with custom zone and rolloverHour.
+    /// Gets or creates the ModelDay containing `epochMillis` in `zone`, with a custom rolloverHour.
+    /// The day is found by local day number, the same numbering ModelDay windows are built from.
     public ModelDay getOrCreateModelDay(double epochMillis, TimeZoneInfo zone, int rolloverHour) {
-        DayIndex dayIndex = indexService.computeDayIndex(epochMillis, zone, rolloverHour);
-        return getOrCreateModelDay(dayIndex, zone, rolloverHour);
+        return getOrCreateModelDayNum(indexService.computeLocalDayNum((long) epochMillis, zone, rolloverHour), zone, rolloverHour);
     }
 
     /// Returns the ModelDay for today using default zone and rolloverHour.
     public ModelDay today() {
-        return getOrCreateModelDay(indexService.today());
+        return today(indexService.getDefaultZone());
     }
 
     /// Returns the ModelDay for today using custom zone.
+    /// Today and its neighbours are pinned in the cache for this zone.
     public ModelDay today(TimeZoneInfo zone) {
-        return getOrCreateModelDay(indexService.today(zone), zone);
+        final int today = indexService.todayNum(zone);
+        final int rolloverHour = indexService.getDefaultRolloverHour();
+        cache.pin(zoneIndex(zone), rolloverHour, today - 1, today + 1);
+        return getOrCreateModelDayNum(today, zone, rolloverHour);
+    }
+
+    /// Keeps `[from, to]` (for one zone and rolloverHour) from ever being evicted,
+    /// replacing any window previously pinned for that zone and rolloverHour.
+    public void pin(DayIndex from, DayIndex to, TimeZoneInfo zone, int rolloverHour) {
+        cache.pin(zoneIndex(zone), rolloverHour, from.getDayNum(), to.getDayNum());
     }
 
     /// Clears the cache. Useful for testing.
@@ -110,7 +188,33 @@ public class ModelDayService {
         return cache.size();
     }
 
-    private static String makeCacheKey(DayIndex dayIndex, TimeZoneInfo zone, int rolloverHour) {
-        return dayIndex.getDayNum() + "|" + zone.getId() + "|" + rolloverHour;
+    public int getMaxCacheSize() {
+        return cache.getMaxSize();
+    }
+
+    public long getCacheHits() {
+        return cache.getHitCount();
+    }
+
+    public long getCacheMisses() {
+        return cache.getMissCount();
+    }
+
+    public long getCacheEvictions() {
+        return cache.getEvictionCount();
+    }
+
+    private long makeCacheKey(int dayNum, TimeZoneInfo zone, int rolloverHour) {
+        return ModelDayCache.pack(dayNum, zoneIndex(zone), rolloverHour);
+    }
+
+    private int zoneIndex(TimeZoneInfo zone) {
+        final Integer known = zoneIndexes.get(zone.getId());
+        if (known != null) {
+            return known;
+        }
+        synchronized (zoneIndexes) {
+            return zoneIndexes.computeIfAbsent(zone.getId(), id -> zoneIndexes.size());
+        }
     }
 }
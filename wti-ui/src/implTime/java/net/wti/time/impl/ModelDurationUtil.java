@@ -38,6 +38,24 @@ public final class ModelDurationUtil {
         if (times == 0) {
             return base;
         }
+        return DayIndex.of(add(base.getDayNum(), duration, times));
+    }
+
+    /**
+     * Primitive form of {@link #add(DayIndex, ModelDuration, int)}: adds the duration to a
+     * day number, without creating any DayIndex.
+     *
+     * @param baseDayNum Base day number.
+     * @param duration   Duration model (amount + unit; not null).
+     * @param times      How many times to apply (may be negative).
+     */
+    public static int add(int baseDayNum, ModelDuration duration, int times) {
+        if (duration == null) {
+            throw new IllegalArgumentException("ModelDuration must not be null");
+        }
+        if (times == 0) {
+            return baseDayNum;
+        }
 
         final Integer amountObj = duration.getAmount();
         if (amountObj == null) {
@@ -49,15 +67,14 @@ public final class ModelDurationUtil {
             throw new IllegalArgumentException("ModelDuration.unit must not be null");
         }
 
-        final int baseNum = base.getDayNum();
         final int totalAmount = amount * times;
 
         switch (unit) {
             case DAY:
-                return DayIndex.of(baseNum + totalAmount);
+                return baseDayNum + totalAmount;
 
             case WEEK:
-                return DayIndex.of(baseNum + totalAmount * 7);
+                return baseDayNum + totalAmount * 7;
 
             case MONTH:
             case YEAR:
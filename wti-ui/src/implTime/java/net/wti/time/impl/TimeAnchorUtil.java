@@ -74,8 +74,9 @@ public final class TimeAnchorUtil {
      * Computes an absolute deadline inside the given ModelDay window.
      *
      * CURRENT BEHAVIOR:
-     * - DAILY: hour/minute are interpreted as offset from ModelDay.startTimestamp().
-     *          i.e. 0:00 is exactly startTimestamp, 1:00 is +1h from start, etc.
+     * - DAILY: hour/minute are interpreted as offset from ModelDay.startTimestamp(),
+     *          on the wall clock: 0:00 is exactly startTimestamp, 1:00 is the wall time one
+     *          hour after the start, etc. On DST days this is not start + elapsed hours.
      *
      * - WEEKLY / MONTHLY / YEARLY: not yet supported; throws UnsupportedOperationException.
      */
@@ -115,7 +116,9 @@ public final class TimeAnchorUtil {
         }
 
         final long offsetMinutes = (long) hour * 60L + (long) minute;
-        final long millis = start + offsetMinutes * 60_000L;
+        // hour:minute past the start's wall-clock time, mapped back through the zone's transitions
+        final ZoneTransitions transitions = ZoneTransitions.forZone(day.zone());
+        final long millis = transitions.toEpochMillis(start + transitions.offsetAt(start) + offsetMinutes * 60_000L);
 
         if (millis < day.startTimestamp() || millis > day.endTimestamp()) {
             // This can happen on weird DST days; log for now, but still return.
@@ -0,0 +1,200 @@
+package net.wti.time.impl;
+
+import net.wti.time.api.DayIndex;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// ZoneTransitions
+///
+/// A per-zone table of UTC offset transitions, so offset lookups (and wall-time to UTC
+/// conversions) are a binary search over sorted primitive arrays instead of a
+/// `TimeZoneInfo.getOffsetAt` call.
+///
+/// The table is split into chunks of CHUNK_MILLIS (~1 year) aligned on DayIndex.EPOCH_MILLIS;
+/// each chunk is built the first time something inside it is looked up, then shared by every
+/// caller through `forZone(zone)`. A chunk is built by sampling the zone's offset every
+/// SAMPLE_MILLIS and bisecting each change down to the exact millisecond, which assumes a zone
+/// never changes its offset twice within SAMPLE_MILLIS (one day).
+///
+/// Instants more than MAX_CHUNKS chunks from the epoch fall back to `TimeZoneInfo.getOffsetAt`.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 13:05
+public final class ZoneTransitions {
+
+    static final long DAY_MILLIS = 86400000L;
+    static final long CHUNK_MILLIS = 366L * DAY_MILLIS;
+    static final long SAMPLE_MILLIS = DAY_MILLIS;
+    /// Chunks either side of the epoch we are willing to tabulate (~200 years each way).
+    static final int MAX_CHUNKS = 200;
+    /// Real-world offsets lie within [-12h, +14h]; a wall time's instant lies within this of it.
+    static final long MAX_OFFSET_MILLIS = 15L * 3600000L;
+
+    private static final ConcurrentHashMap<String, ZoneTransitions> SHARED = new ConcurrentHashMap<>();
+
+    /// @return the shared table for `zone`.
+    ///
+    /// Tables are looked up by zone id; a different TimeZoneInfo instance with the same id
+    /// is only trusted if it reports the same offsets at the epoch and half a year later.
+    public static ZoneTransitions forZone(final TimeZoneInfo zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone cannot be null");
+        }
+        final ZoneTransitions known = SHARED.get(zone.getId());
+        if (known != null && (known.zone == zone || known.signature == signatureOf(zone))) {
+            return known;
+        }
+        final ZoneTransitions created = new ZoneTransitions(zone);
+        SHARED.put(zone.getId(), created);
+        return created;
+    }
+
+    /// Drops every shared table (for tests, or after a tz database update).
+    public static void clearShared() {
+        SHARED.clear();
+    }
+
+    private static long signatureOf(final TimeZoneInfo zone) {
+        final long winter = zone.getOffsetAt(DayIndex.EPOCH_MILLIS);
+        final long summer = zone.getOffsetAt(DayIndex.EPOCH_MILLIS + CHUNK_MILLIS / 2);
+        return (winter << 32) ^ (summer & 0xffffffffL);
+    }
+
+    private final TimeZoneInfo zone;
+    private final long signature;
+    private final ConcurrentHashMap<Integer, Chunk> chunks = new ConcurrentHashMap<>();
+
+    private ZoneTransitions(final TimeZoneInfo zone) {
+        this.zone = zone;
+        this.signature = signatureOf(zone);
+    }
+
+    public TimeZoneInfo getZone() {
+        return zone;
+    }
+
+    /// Same as `zone.getOffsetAt(epochMillis)`.
+    public int offsetAt(final long epochMillis) {
+        final Chunk chunk = chunkFor(epochMillis);
+        return chunk == null ? zone.getOffsetAt(epochMillis) : chunk.offsetAt(epochMillis);
+    }
+
+    /// @return the first instant after `epochMillis` at which the offset may change: the next
+    /// transition, or the end of the current chunk (Long.MAX_VALUE outside the tabulated range).
+    long nextBoundary(final long epochMillis) {
+        final Chunk chunk = chunkFor(epochMillis);
+        return chunk == null ? Long.MAX_VALUE : chunk.nextBoundary(epochMillis);
+    }
+
+    /// Converts a wall-clock time (expressed as "local millis": epoch millis plus offset) to the
+    /// UTC instant at which it happens:
+    /// - when the wall time happens twice (clocks going back), the first occurrence;
+    /// - when it never happens (clocks jumping forward over it), the instant of the jump.
+    public long toEpochMillis(final long localMillis) {
+        long segmentStart = localMillis - MAX_OFFSET_MILLIS;
+        final long last = localMillis + MAX_OFFSET_MILLIS;
+        long skipped = Long.MIN_VALUE;
+        while (true) {
+            final int offset = offsetAt(segmentStart);
+            final long segmentEnd = nextBoundary(segmentStart);
+            final long candidate = localMillis - offset;
+            if (candidate >= segmentStart && candidate < segmentEnd) {
+                return candidate;
+            }
+            if (candidate < segmentStart && skipped == Long.MIN_VALUE) {
+                // this wall time fell into the gap right before this segment
+                skipped = segmentStart;
+            }
+            if (segmentEnd > last || segmentEnd == Long.MAX_VALUE) {
+                break;
+            }
+            segmentStart = segmentEnd;
+        }
+        return skipped != Long.MIN_VALUE ? skipped : localMillis - zone.getOffsetAt(localMillis);
+    }
+
+    /// @return how many chunks have been built so far (for tests).
+    int getChunkCount() {
+        return chunks.size();
+    }
+
+    private Chunk chunkFor(final long epochMillis) {
+        final long n = Math.floorDiv(epochMillis - DayIndex.EPOCH_MILLIS, CHUNK_MILLIS);
+        if (n < -MAX_CHUNKS || n > MAX_CHUNKS) {
+            return null;
+        }
+        final Integer key = (int) n;
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = chunks.computeIfAbsent(key, k -> build(DayIndex.EPOCH_MILLIS + k * CHUNK_MILLIS));
+        }
+        return chunk;
+    }
+
+    private Chunk build(final long start) {
+        final long end = start + CHUNK_MILLIS;
+        final List<long[]> found = new ArrayList<>();
+        long before = start;
+        int offset = zone.getOffsetAt(start);
+        found.add(new long[]{start, offset});
+        for (long t = start + SAMPLE_MILLIS; ; t += SAMPLE_MILLIS) {
+            final long probe = Math.min(t, end - 1);
+            final int next = zone.getOffsetAt(probe);
+            if (next != offset) {
+                // bisect to the first millisecond with the new offset
+                long lo = before, hi = probe;
+                while (hi - lo > 1) {
+                    final long mid = lo + (hi - lo) / 2;
+                    if (zone.getOffsetAt(mid) == offset) {
+                        lo = mid;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                found.add(new long[]{hi, next});
+                offset = next;
+            }
+            before = probe;
+            if (probe >= end - 1) {
+                break;
+            }
+        }
+        final long[] at = new long[found.size()];
+        final int[] offsets = new int[found.size()];
+        for (int i = 0; i < at.length; i++) {
+            at[i] = found.get(i)[0];
+            offsets[i] = (int) found.get(i)[1];
+        }
+        return new Chunk(end, at, offsets);
+    }
+
+    /// One chunk: `at[0]` is the chunk start; `at[i]` (i > 0) is a transition to `offsets[i]`.
+    private static final class Chunk {
+        private final long end;
+        private final long[] at;
+        private final int[] offsets;
+
+        private Chunk(final long end, final long[] at, final int[] offsets) {
+            this.end = end;
+            this.at = at;
+            this.offsets = offsets;
+        }
+
+        private int indexOf(final long epochMillis) {
+            final int i = Arrays.binarySearch(at, epochMillis);
+            return i >= 0 ? i : -i - 2;
+        }
+
+        int offsetAt(final long epochMillis) {
+            return offsets[indexOf(epochMillis)];
+        }
+
+        long nextBoundary(final long epochMillis) {
+            final int i = indexOf(epochMillis) + 1;
+            return i < at.length ? at[i] : end;
+        }
+    }
+}
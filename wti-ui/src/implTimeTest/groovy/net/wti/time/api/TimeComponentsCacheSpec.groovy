@@ -0,0 +1,103 @@
+package net.wti.time.api
+
+import spock.lang.Specification
+import xapi.time.api.TimeComponents
+import xapi.time.api.TimeZoneInfo
+
+/// TimeComponentsCacheSpec
+///
+/// Checks the shared TimeComponents flyweight cache:
+/// - breakdowns match a fresh TimeComponents
+/// - one instance per distinct minute (or exact instant)
+/// - zones with the same id but different rules never share a breakdown
+/// - equivalent zone instances are compared once, not on every hit
+/// - the table stays bounded
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 15:55
+class TimeComponentsCacheSpec extends Specification {
+
+    static final long BASE = DayIndex.EPOCH_MILLIS + 13 * 3600000L
+
+    TimeZoneInfo utc = new TimeZoneInfo("UTC", "UTC", 0, false)
+    TimeZoneInfo est = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+
+    def "breakdowns match a fresh TimeComponents"() {
+        given:
+        final TimeComponentsCache cache = new TimeComponentsCache(64)
+
+        expect:
+        [0L, 59_999L, 3_600_000L, 86_399_999L].every { long delta ->
+            final long millis = BASE + delta
+            final TimeComponents fresh = new TimeComponents(millis, est)
+            final TimeComponents exact = cache.at(millis, est)
+            final TimeComponents minute = cache.minute(millis, est)
+            exact.epochMillis == fresh.epochMillis &&
+                    minute.hour == fresh.hour &&
+                    minute.dayOfYear == fresh.dayOfYear &&
+                    minute.epochMillis == (millis - millis % 60_000L)
+        }
+    }
+
+    def "every instant within a minute shares one breakdown"() {
+        given:
+        final TimeComponentsCache cache = new TimeComponentsCache(64)
+        final TimeComponents first = cache.minute(BASE + 5, utc)
+
+        expect:
+        (0..<60).every { cache.minute(BASE + it * 1000L + 7, utc).is(first) }
+        cache.at(BASE, utc).is(first)
+        !cache.minute(BASE + 60_000L, utc).is(first)
+    }
+
+    def "zones with the same id but different offsets do not share a breakdown"() {
+        given:
+        final TimeComponentsCache cache = new TimeComponentsCache(64)
+        final TimeZoneInfo other = new TimeZoneInfo("America/New_York", "Not quite Eastern", -3 * 3600000, false)
+        final TimeComponents eastern = cache.at(BASE, est)
+
+        expect:
+        !cache.at(BASE, other).is(eastern)
+        cache.at(BASE, other).hour == new TimeComponents(BASE, other).hour
+        !cache.at(BASE, utc).is(eastern)
+    }
+
+    def "an equivalent zone instance shares breakdowns, and is only compared once"() {
+        given:
+        final TimeComponentsCache cache = new TimeComponentsCache(64)
+        final TimeZoneInfo sameEastern = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true)
+        final TimeComponents eastern = cache.minute(BASE, est)
+
+        when:
+        final List<TimeComponents> hits = (0..<100).collect { cache.minute(BASE + it, sameEastern) }
+
+        then:
+        hits.every { it.is(eastern) }
+        cache.zoneChecks == 1
+
+        and: "the identical instance never needs a check"
+        cache.minute(BASE, est).is(eastern)
+        cache.zoneChecks == 1
+    }
+
+    def "the table is bounded and ModelDay uses the shared cache"() {
+        given:
+        final TimeComponentsCache cache = new TimeComponentsCache(100)
+
+        when: "Breaking down far more minutes than the table holds"
+        (0..<10_000).each { cache.minute(BASE + it * 60_000L, utc) }
+
+        then:
+        cache.capacity() == 128
+        cache.minute(BASE, utc).hour == new TimeComponents(BASE, utc).hour
+
+        when:
+        final ModelDay day = xapi.model.X_Model.create(ModelDay)
+        day.setStartTimestamp(BASE)
+        day.setEndTimestamp(BASE + 86_399_999L)
+        day.setZone(utc)
+
+        then:
+        day.startComponents().is(TimeComponentsCache.shared().at(BASE, utc))
+        day.endComponents().is(TimeComponentsCache.shared().at(BASE + 86_399_999L, utc))
+    }
+}
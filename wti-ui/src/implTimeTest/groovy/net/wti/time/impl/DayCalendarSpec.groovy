@@ -0,0 +1,45 @@
+package net.wti.time.impl
+
+import net.wti.time.api.DayIndex
+import spock.lang.Specification
+
+import java.time.LocalDate
+
+/// DayCalendarSpec
+///
+/// DayCalendar must agree with java.time for every field, on both sides of the epoch
+/// and across leap years and century boundaries.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class DayCalendarSpec extends Specification {
+
+    def "day 0 is the UTC date of DayIndex.EPOCH_MILLIS"() {
+        expect:
+        LocalDate.ofEpochDay(DayCalendar.EPOCH_DAY) == LocalDate.ofEpochDay(Math.floorDiv(DayIndex.EPOCH_MILLIS, 86_400_000L))
+    }
+
+    def "fields match java.time over a wide span of days"() {
+        expect:
+        (-150_000..150_000).step(37).every { int dayNum ->
+            final LocalDate date = LocalDate.ofEpochDay(DayCalendar.EPOCH_DAY + dayNum)
+            DayCalendar.year(dayNum) == date.year &&
+                    DayCalendar.month(dayNum) == date.monthValue &&
+                    DayCalendar.dayOfMonth(dayNum) == date.dayOfMonth &&
+                    DayCalendar.dayOfYear(dayNum) == date.dayOfYear &&
+                    DayCalendar.dayOfWeek(dayNum) == date.dayOfWeek.value % 7 &&
+                    DayCalendar.monthIndex(dayNum) == date.year * 12 + date.monthValue - 1 &&
+                    DayCalendar.dayNum(date.year, date.monthValue, date.dayOfMonth) == dayNum &&
+                    DayCalendar.lengthOfMonth(date.year, date.monthValue) == date.lengthOfMonth() &&
+                    DayCalendar.lengthOfYear(date.year) == date.lengthOfYear()
+        }
+    }
+
+    def "leap years follow the Gregorian rules"() {
+        expect:
+        DayCalendar.isLeapYear(2024)
+        !DayCalendar.isLeapYear(2025)
+        !DayCalendar.isLeapYear(1900)
+        DayCalendar.isLeapYear(2000)
+        DayCalendar.lengthOfMonth(2028, 2) == 29
+    }
+}
@@ -237,10 +237,12 @@ class DayIndexServiceSpec extends Specification {
 
         when: "Computing DayIndex for times around DST transition"
         final DayIndex before = service.computeDayIndex(beforeDST.toInstant().toEpochMilli(), estZone, 4)
+        final DayIndex lastBeforeRollover = service.computeDayIndex(afterDST.minusMinutes(1).toInstant().toEpochMilli(), estZone, 4)
         final DayIndex after = service.computeDayIndex(afterDST.toInstant().toEpochMilli(), estZone, 4)
 
         then: "Should handle correctly despite missing hour"
-        after.dayNum == before.dayNum  // 4am is still same day as 1:59am (day hasn't rolled yet at 2am)
+        lastBeforeRollover.dayNum == before.dayNum  // 1:59am and 3:59am EDT are both before the 4am rollover
+        after.dayNum == before.dayNum + 1           // the day rolls at 4am local, not at the 2am jump
     }
 
     def "should handle rollover during DST fall back"() {
@@ -300,9 +302,9 @@ class DayIndexServiceSpec extends Specification {
         final DayIndex tokyoIndex = service.computeDayIndex(midnightUTC, tokyoZone, 4)
         final DayIndex pstIndex = service.computeDayIndex(midnightUTC, pstZone, 4)
 
-        then: "Tokyo should be ahead of PST, but both in day -1 (before 4am in their zones)"
-        tokyoIndex.dayNum == -1  // midnight UTC = 9am JST (after 4am, day -1)
-        pstIndex.dayNum == -1    // midnight UTC = 4pm previous day PST (after 4am, day -1)
+        then: "Tokyo should be a day ahead of PST"
+        tokyoIndex.dayNum == 0   // midnight UTC = 9am JST on 2025-10-10 (after 4am, day 0)
+        pstIndex.dayNum == -1    // midnight UTC = 5pm PDT on 2025-10-09 (after 4am, day -1)
     }
 
     // -------------------------------------------------------------------------
@@ -388,6 +390,118 @@ class DayIndexServiceSpec extends Specification {
         Math.abs(utcToday.dayNum - estToday.dayNum) <= 1
     }
 
+    // -------------------------------------------------------------------------
+    // Local (wall-clock) day numbers
+    // -------------------------------------------------------------------------
+
+    @Unroll
+    def "computeLocalDayNum shifts the day boundary by the #zoneName offset"() {
+        given: "midnight UTC on the epoch date"
+        final long midnightUTC = DayIndex.EPOCH_MILLIS
+        final TimeZoneInfo zone = new TimeZoneInfo(zoneName, zoneName, offsetHours * 3600000, false)
+
+        expect:
+        service.computeLocalDayNum(midnightUTC, zone, 4) == expected
+        service.computeLocalDayIndex(midnightUTC, zone, 4).dayNum == expected
+
+        where:
+        zoneName | offsetHours | expected | comment
+        "UTC"    | 0           | -1       | "00:00 UTC is before the 4am rollover"
+        "Tokyo"  | 9           | 0        | "09:00 JST on 2025-10-10 is after the 4am rollover"
+        "PST"    | -8          | -1       | "16:00 PST on 2025-10-09"
+    }
+
+    @Unroll
+    def "computeLocalDayNum is the inverse of computeDayStart for day #day at UTC#offsetHours"() {
+        given:
+        final TimeZoneInfo zone = new TimeZoneInfo("Fixed", "Fixed", offsetHours * 3600000, false)
+
+        when:
+        final long start = service.computeDayStart(DayIndex.of(day), zone, 4)
+
+        then: "the first millisecond belongs to the day, the one before belongs to the previous day"
+        service.computeLocalDayNum(start, zone, 4) == day
+        service.computeLocalDayNum(start - 1, zone, 4) == day - 1
+
+        where:
+        day | offsetHours
+        -30 | 0
+        0   | 0
+        45  | 0
+        -30 | 9
+        0   | 9
+        45  | -5
+    }
+
+    // -------------------------------------------------------------------------
+    // Bulk / streaming day numbers must match the scalar methods exactly
+    // -------------------------------------------------------------------------
+
+    @Unroll
+    def "bulk day numbers match the scalar methods (#zoneName, rollover=#rollover, seed=#seed, sorted=#sorted)"() {
+        given: "timestamps spread over ~20 years either side of epoch, clustered around DST-prone dates"
+        final TimeZoneInfo zone = [
+                UTC     : new TimeZoneInfo("UTC", "UTC", 0, false),
+                Eastern : new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true),
+                Pacific : new TimeZoneInfo("America/Los_Angeles", "Pacific", -8 * 3600000, true),
+                Tokyo   : new TimeZoneInfo("Asia/Tokyo", "Tokyo", 9 * 3600000, false),
+        ][zoneName]
+        final Random random = new Random(seed)
+        final long[] millis = new long[2000]
+        for (int i = 0; i < millis.length; i++) {
+            final long base = DayIndex.EPOCH_MILLIS + (long) ((random.nextDouble() - 0.5) * 40 * 365 * 86400000L)
+            // half the samples land within a few hours of each other, like a day's deadlines
+            millis[i] = i % 2 == 0 ? base : millis[i - 1] + random.nextInt(6 * 3600000)
+        }
+        if (sorted) {
+            Arrays.sort(millis)
+        }
+
+        when:
+        final int[] bulk = new int[millis.length]
+        final int[] bulkLocal = new int[millis.length]
+        service.computeDayNums(millis, bulk, zone, rollover)
+        service.computeLocalDayNums(millis, bulkLocal, zone, rollover)
+        final int[] streamed = service.computeDayNums(Arrays.stream(millis), zone, rollover).toArray()
+        final int[] streamedLocal = service.computeLocalDayNums(Arrays.stream(millis), zone, rollover).toArray()
+
+        then:
+        for (int i = 0; i < millis.length; i++) {
+            assert bulk[i] == service.computeDayIndex(millis[i], zone, rollover).dayNum: "at ${millis[i]}"
+            assert bulkLocal[i] == service.computeLocalDayNum(millis[i], zone, rollover): "at ${millis[i]}"
+        }
+        streamed == bulk
+        streamedLocal == bulkLocal
+
+        where:
+        [zoneName, rollover, seed, sorted] << [
+                ["UTC", "Eastern", "Pacific", "Tokyo"],
+                [0, 4, 23],
+                [7L, 20251010L],
+                [true, false],
+        ].combinations()
+    }
+
+    def "sorted input shares offset lookups within a DST segment"() {
+        given: "a thousand timestamps a minute apart"
+        final long[] millis = (0..<1000).collect { DayIndex.EPOCH_MILLIS + it * 60000L } as long[]
+        final DayNumCounter counter = service.newCounter(estZone, 4)
+
+        when:
+        millis.each { counter.localDayNum(it) }
+
+        then:
+        counter.lookups < 10
+    }
+
+    def "bulk output arrays must be large enough"() {
+        when:
+        service.computeDayNums(new long[3], new int[2], utcZone, 4)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
     // -------------------------------------------------------------------------
     // Integration tests with computeDayStart/End
     // -------------------------------------------------------------------------
@@ -415,4 +529,90 @@ class DayIndexServiceSpec extends Specification {
         then: "Should be 4am on 2025-10-10 UTC"
         start == DayIndex.EPOCH_MILLIS + (4 * 3600 * 1000L)
     }
+
+    // -------------------------------------------------------------------------
+    // Interned DayIndex and primitive-int APIs
+    // -------------------------------------------------------------------------
+
+    def "should intern DayIndex instances near today, and hash to the day number"() {
+        given:
+        final int near = DayIndex.CACHE_CENTER + 5
+        final int far = DayIndex.CACHE_CENTER + DayIndex.CACHE_RADIUS + 1
+
+        expect: "Nearby days are shared instances however they are reached"
+        DayIndex.isCached(near)
+        DayIndex.of(near).is(DayIndex.of(near))
+        DayIndex.of(near - 10).plusDays(10).is(DayIndex.of(near))
+        DayIndex.of(near + 3).minusDays(3).is(DayIndex.of(near))
+        DayIndex.epoch().is(DayIndex.of(0)) == DayIndex.isCached(0)
+
+        and: "Days outside the window still behave as values"
+        !DayIndex.isCached(far)
+        !DayIndex.of(far).is(DayIndex.of(far))
+        DayIndex.of(far) == DayIndex.of(far)
+        DayIndex.of(far).plusDays(-1) == DayIndex.of(far - 1)
+
+        and:
+        [near, far, 0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE].every { DayIndex.of(it).hashCode() == it }
+    }
+
+    @Unroll
+    def "primitive day numbers match the DayIndex APIs in #zoneName"() {
+        given:
+        final TimeZoneInfo zone = [UTC: utcZone, EST: estZone, PST: pstZone, Tokyo: tokyoZone][zoneName]
+        final Random random = new Random(zoneName.hashCode())
+
+        expect:
+        (0..<500).every {
+            final long millis = DayIndex.EPOCH_MILLIS + (long) (random.nextDouble() * 800 - 400) * 86400000L + random.nextInt(86400000)
+            final int rollover = random.nextInt(24)
+            final DayIndex index = service.computeDayIndex(millis, zone, rollover)
+            service.computeDayNum(millis, zone, rollover) == index.dayNum &&
+                    service.computeDayEnd(index.dayNum, zone, rollover) == service.computeDayEnd(index, zone, rollover) &&
+                    service.computeDayStart(index.dayNum, zone, rollover) == service.computeDayStart(index, zone, rollover)
+        }
+        service.computeDayNum(DayIndex.EPOCH_MILLIS + 5 * 3600000L) == service.computeDayIndex(DayIndex.EPOCH_MILLIS + 5 * 3600000L).dayNum
+        service.todayNum(zone) - service.today(zone).dayNum in [0, 1]
+
+        where:
+        zoneName << ["UTC", "EST", "PST", "Tokyo"]
+    }
+
+    @Unroll
+    def "computeDayIndex is the local day, and the inverse of computeDayStart, in #zoneName"() {
+        given:
+        final TimeZoneInfo zone = [EST: estZone, PST: pstZone, Tokyo: tokyoZone][zoneName]
+        final Random random = new Random(zoneName.hashCode())
+
+        expect:
+        (0..<500).every {
+            final long millis = DayIndex.EPOCH_MILLIS + (long) (random.nextDouble() * 800 - 400) * 86400000L + random.nextInt(86400000)
+            final int day = random.nextInt(2000) - 1000
+            service.computeDayNum(millis, zone, 4) == service.computeLocalDayNum(millis, zone, 4) &&
+                    service.computeDayIndex(service.computeDayStart(day, zone, 4), zone, 4).dayNum == day &&
+                    service.computeDayIndex(service.computeDayEnd(day, zone, 4), zone, 4).dayNum == day
+        }
+
+        where:
+        zoneName << ["EST", "PST", "Tokyo"]
+    }
+
+    @Unroll
+    def "today is the local day, whose window contains now, in #zoneName"() {
+        given:
+        final TimeZoneInfo zone = [UTC: utcZone, EST: estZone, PST: pstZone, Tokyo: tokyoZone][zoneName]
+
+        when:
+        final long before = System.currentTimeMillis()
+        final int today = service.todayNum(zone)
+        final long after = System.currentTimeMillis()
+
+        then:
+        service.today(zone).dayNum in [today, today + 1]
+        service.computeDayStart(today, zone, 4) <= after
+        service.computeDayEnd(today, zone, 4) >= before
+
+        where:
+        zoneName << ["UTC", "EST", "PST", "Tokyo"]
+    }
 }
@@ -0,0 +1,63 @@
+package net.wti.time.impl
+
+import net.wti.time.api.ModelDay
+import spock.lang.Specification
+import xapi.model.X_Model
+
+/// ModelDayCacheSpec
+///
+/// Exercises the primitive index and CLOCK ring directly, against a HashMap model.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class ModelDayCacheSpec extends Specification {
+
+    static ModelDay day(final int dayNum) {
+        final ModelDay day = X_Model.create(ModelDay)
+        day.setDayNum(dayNum)
+        return day
+    }
+
+    def "packed keys keep day, zone and rollover hour apart"() {
+        expect:
+        ModelDayCache.pack(1, 0, 4) != ModelDayCache.pack(1, 0, 12)
+        ModelDayCache.pack(1, 0, 4) != ModelDayCache.pack(1, 1, 4)
+        ModelDayCache.pack(-1, 0, 4) != ModelDayCache.pack(1, 0, 4)
+        ModelDayCache.dayNumOf(ModelDayCache.pack(-42, 3, 23)) == -42
+        ModelDayCache.zoneHourOf(ModelDayCache.pack(-42, 3, 23)) == ModelDayCache.zoneHour(3, 23)
+    }
+
+    def "random churn agrees with a map model, and never exceeds its bound"() {
+        given:
+        final ModelDayCache cache = new ModelDayCache(50)
+        final Map<Long, ModelDay> model = [:]
+        final Random random = new Random(7)
+
+        expect:
+        (0..<20_000).every {
+            final int dayNum = random.nextInt(200) - 100
+            final long key = ModelDayCache.pack(dayNum, random.nextInt(3), 4)
+            final ModelDay cached = cache.get(key)
+            if (cached != null) {
+                // anything still cached must be what we put there
+                assert cached.is(model[key])
+            } else {
+                model[key] = cache.putIfAbsent(key, day(dayNum))
+            }
+            cache.size() <= 50
+        }
+        cache.hitCount + cache.missCount == 20_000
+        cache.evictionCount == cache.missCount - cache.size()
+    }
+
+    def "putIfAbsent keeps the first instance"() {
+        given:
+        final ModelDayCache cache = new ModelDayCache(4)
+        final long key = ModelDayCache.pack(5, 0, 4)
+        final ModelDay first = day(5)
+
+        expect:
+        cache.putIfAbsent(key, first).is(first)
+        cache.putIfAbsent(key, day(5)).is(first)
+        cache.size() == 1
+    }
+}
@@ -476,4 +476,130 @@ class ModelDayServiceSpec extends Specification {
         instances.collect { System.identityHashCode(it) }.toSet().size() == 8
         service.cacheSize == 8
     }
+
+    // -------------------------------------------------------------------------
+    // Bounded cache: eviction, counters, pinning
+    // -------------------------------------------------------------------------
+
+    def "should evict beyond maxCacheSize and count hits, misses and evictions"() {
+        given: "A cache holding at most 8 days"
+        service = new ModelDayService(indexService, 8)
+
+        when: "Touching 20 distinct days, then one of the last ones again"
+        (0..<20).each { service.getOrCreateModelDay(DayIndex.of(it)) }
+        final ModelDay recent = service.getOrCreateModelDay(DayIndex.of(19))
+
+        then:
+        service.cacheSize == 8
+        service.maxCacheSize == 8
+        service.cacheMisses == 20
+        service.cacheHits == 1
+        service.cacheEvictions == 12
+        recent.dayNum == 19
+    }
+
+    def "should never evict pinned days (today and its neighbours)"() {
+        given: "A tiny cache with today pinned"
+        service = new ModelDayService(indexService, 4)
+        final ModelDay today = service.today()
+        final ModelDay yesterday = service.getOrCreateModelDay(DayIndex.of(today.dayNum - 1))
+
+        when: "Scrolling through a year of other days"
+        (1000..<1365).each { service.getOrCreateModelDay(DayIndex.of(it)) }
+
+        then: "Pinned days are still the cached instances"
+        service.today().is(today)
+        service.getOrCreateModelDay(DayIndex.of(today.dayNum - 1)).is(yesterday)
+        service.cacheSize == 4
+    }
+
+    def "should keep working when only pinned days remain"() {
+        given: "A cache smaller than its pinned window"
+        service = new ModelDayService(indexService, 2)
+        service.pin(DayIndex.of(0), DayIndex.of(4), utcZone, 4)
+
+        when:
+        (0..4).each { service.getOrCreateModelDay(DayIndex.of(it), utcZone, 4) }
+
+        then: "The cache grows past its bound rather than drop a pinned day"
+        service.cacheSize == 5
+        service.cacheEvictions == 0
+    }
+
+    // -------------------------------------------------------------------------
+    // Ranges
+    // -------------------------------------------------------------------------
+
+    @Unroll
+    def "should walk a range of days with no gaps or overlaps in #zoneName"() {
+        given:
+        final TimeZoneInfo zone = zoneName == "UTC" ? utcZone : (zoneName == "EST" ? estZone : pstZone)
+        final ModelDay cachedBefore = service.getOrCreateModelDay(DayIndex.of(10), zone, 4)
+
+        when: "Asking for a year (covering both DST changes)"
+        final ModelDayRange range = service.getOrCreateModelDays(DayIndex.of(0), DayIndex.of(365), zone, 4)
+
+        then: "Every day ends right before the next one starts"
+        range.size() == 366
+        range.fromDay == 0
+        range.toDay == 365
+        (0..<365).every { range.get(it).endTimestamp + 1 == range.get(it + 1).startTimestamp }
+        range.startTimestamp == range.first().startTimestamp
+        range.endTimestamp == range.last().endTimestamp
+
+        and: "Days match (and share instances with) the single-day API"
+        range.day(10).is(cachedBefore)
+        (0..365).every {
+            final ModelDay single = service.getOrCreateModelDay(DayIndex.of(it), zone, 4)
+            single.is(range.day(it)) &&
+                    single.startTimestamp == indexService.computeDayStart(DayIndex.of(it), zone, 4) &&
+                    single.endTimestamp == indexService.computeDayEnd(DayIndex.of(it), zone, 4)
+        }
+
+        and: "Instants map back to their day"
+        range.dayAt(range.get(100).startTimestamp).is(range.get(100))
+        range.dayAt(range.get(100).endTimestamp).is(range.get(100))
+        range.dayAt(range.startTimestamp - 1) == null
+        range.dayAt(range.endTimestamp + 1) == null
+        range.day(366) == null
+
+        where:
+        zoneName << ["UTC", "EST", "PST"]
+    }
+
+    def "should reject a range ending before it starts"() {
+        when:
+        service.getOrCreateModelDays(DayIndex.of(5), DayIndex.of(4))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should share instances between the DayIndex and primitive day number APIs"() {
+        given:
+        final ModelDay byIndex = service.getOrCreateModelDay(DayIndex.of(42), estZone, 4)
+
+        expect:
+        service.getOrCreateModelDayNum(42, estZone, 4).is(byIndex)
+        service.getOrCreateModelDayNum(43).is(service.getOrCreateModelDay(DayIndex.of(43)))
+        service.getOrCreateModelDayNum(44, estZone, 4).endTimestamp == indexService.computeDayEnd(DayIndex.of(44), estZone, 4)
+    }
+
+    @Unroll
+    def "should return the ModelDay whose window contains an instant in #zoneName"() {
+        given: "8pm on a Monday in each zone: already Tuesday in UTC west of it"
+        final TimeZoneInfo zone = [UTC: utcZone, EST: estZone, PST: pstZone][zoneName]
+        final long evening = ZonedDateTime.of(2026, 3, 9, 20, 0, 0, 0, ZoneId.of(zone.id)).toInstant().toEpochMilli()
+
+        when:
+        final ModelDay day = service.getOrCreateModelDay((double) evening, zone, 4)
+
+        then:
+        day.startTimestamp() <= evening
+        day.endTimestamp() >= evening
+        day.dayNum == indexService.computeLocalDayNum(evening, zone, 4)
+
+        where:
+        zoneName << ["UTC", "EST", "PST"]
+    }
 }
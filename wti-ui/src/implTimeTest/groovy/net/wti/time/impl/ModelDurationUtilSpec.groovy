@@ -144,4 +144,19 @@ class ModelDurationUtilSpec extends Specification {
         then:
         thrown(UnsupportedOperationException)
     }
+
+    @Unroll
+    def "primitive add matches the DayIndex form: #unit x #amount x #times"() {
+        given:
+        ModelDuration dur = newDuration(amount, unit)
+
+        expect:
+        ModelDurationUtil.add(12, dur, times) == ModelDurationUtil.add(DayIndex.of(12), dur, times).dayNum
+
+        where:
+        unit              | amount | times
+        DurationUnit.DAY  | 3      | 4
+        DurationUnit.DAY  | 1      | 0
+        DurationUnit.WEEK | 2      | -3
+    }
 }
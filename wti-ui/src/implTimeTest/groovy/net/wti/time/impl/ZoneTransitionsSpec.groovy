@@ -0,0 +1,93 @@
+package net.wti.time.impl
+
+import net.wti.time.api.DayIndex
+import spock.lang.Specification
+import spock.lang.Unroll
+import xapi.time.api.TimeZoneInfo
+
+/// ZoneTransitionsSpec
+///
+/// The transition table must agree with TimeZoneInfo.getOffsetAt everywhere, and the day starts
+/// computed from it must be exact: every DayIndex starts at the first instant whose local day
+/// number is that day, DST or not.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026
+class ZoneTransitionsSpec extends Specification {
+
+    static TimeZoneInfo zone(final String name) {
+        return [
+                UTC     : new TimeZoneInfo("UTC", "UTC", 0, false),
+                Eastern : new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true),
+                Pacific : new TimeZoneInfo("America/Los_Angeles", "Pacific", -8 * 3600000, true),
+                Tokyo   : new TimeZoneInfo("Asia/Tokyo", "Tokyo", 9 * 3600000, false),
+        ][name]
+    }
+
+    def cleanup() {
+        ZoneTransitions.clearShared()
+    }
+
+    @Unroll
+    def "table offsets match getOffsetAt in #zoneName"() {
+        given:
+        final TimeZoneInfo tz = zone(zoneName)
+        final ZoneTransitions table = ZoneTransitions.forZone(tz)
+        final Random random = new Random(42)
+
+        expect:
+        (0..<5000).every {
+            final long at = DayIndex.EPOCH_MILLIS + (long) ((random.nextDouble() - 0.5) * 10 * 365 * 86400000L)
+            table.offsetAt(at) == tz.getOffsetAt(at)
+        }
+
+        and: "transition instants are exact to the millisecond"
+        long t = DayIndex.EPOCH_MILLIS
+        final long end = t + 2 * 366 * 86400000L
+        while ((t = table.nextBoundary(t)) < end) {
+            assert tz.getOffsetAt(t) == table.offsetAt(t)
+            assert tz.getOffsetAt(t - 1) == table.offsetAt(t - 1)
+        }
+
+        where:
+        zoneName << ["UTC", "Eastern", "Pacific", "Tokyo"]
+    }
+
+    @Unroll
+    def "every day starts exactly where the local day number changes (#zoneName, rollover=#rollover)"() {
+        given:
+        final TimeZoneInfo tz = zone(zoneName)
+        final DayIndexService service = new DayIndexService(tz, rollover)
+
+        expect: "two years of days, spanning four DST transitions"
+        (-365..365).every { int day ->
+            final long start = service.computeDayStart(DayIndex.of(day), tz, rollover)
+            final long end = service.computeDayEnd(DayIndex.of(day), tz, rollover)
+            assert service.computeLocalDayNum(start, tz, rollover) == day
+            assert service.computeLocalDayNum(start - 1, tz, rollover) == day - 1
+            assert service.computeLocalDayNum(end, tz, rollover) == day
+            // a day is 24h, give or take the DST change inside it
+            assert Math.abs(end - start + 1 - 86400000L) <= 3600000L
+            true
+        }
+
+        where:
+        [zoneName, rollover] << [["UTC", "Eastern", "Pacific", "Tokyo"], [0, 2, 4]].combinations()
+    }
+
+    def "tables are shared per zone, and built one chunk at a time"() {
+        given:
+        final TimeZoneInfo tz = zone("Eastern")
+
+        when:
+        final ZoneTransitions table = ZoneTransitions.forZone(tz)
+        table.offsetAt(DayIndex.EPOCH_MILLIS)
+
+        then:
+        ZoneTransitions.forZone(tz).is(table)
+        ZoneTransitions.forZone(zone("Eastern")).is(table)
+        table.chunkCount == 1
+
+        and: "a zone reusing an id with different offsets gets its own table"
+        !ZoneTransitions.forZone(new TimeZoneInfo("America/New_York", "Fake", 3 * 3600000, false)).is(table)
+    }
+}
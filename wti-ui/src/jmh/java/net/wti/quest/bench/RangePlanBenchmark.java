@@ -0,0 +1,156 @@
+package net.wti.quest.bench;
+
+import net.wti.quest.api.LiveQuest;
+import net.wti.quest.api.LiveQuestStore;
+import net.wti.quest.api.QuestDefinition;
+import net.wti.quest.api.QuestDefinitionSource;
+import net.wti.quest.api.RecurrenceRule;
+import net.wti.quest.impl.PlannerService;
+import net.wti.quest.impl.RangePlan;
+import net.wti.quest.impl.TodayPlannerService;
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.DurationUnit;
+import net.wti.time.api.ModelDay;
+import net.wti.time.api.ModelDuration;
+import net.wti.time.api.TimeAnchor;
+import net.wti.time.api.TimeAnchorKind;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.ModelDayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xapi.model.X_Model;
+import xapi.model.api.ModelKey;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// RangePlanBenchmark
+///
+/// TodayPlannerService.ensureRange over a month of days: the in-memory projection a
+/// calendar view asks for. The store throws on any access, so a regression that starts
+/// touching storage fails the run instead of skewing it.
+///
+/// Run with `gradle :wti-ui-jmh:jmh -Pjmh.include=RangePlan`.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 21:15
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangePlanBenchmark {
+
+    @Param({"200"})
+    public int definitions;
+
+    @Param({"31"})
+    public int days;
+
+    private TodayPlannerService planner;
+    private ModelKey user;
+    private DayIndex from;
+    private DayIndex to;
+
+    @Setup
+    public void setup() {
+        final TimeZoneInfo utc = new TimeZoneInfo("UTC", "UTC", 0, false);
+        final DayIndexService indexService = new DayIndexService(utc, 4);
+        final List<QuestDefinition> defs = new ArrayList<>(definitions);
+        for (int i = 0; i < definitions; i++) {
+            final QuestDefinition def = X_Model.create(QuestDefinition.class);
+            def.setKey(QuestDefinition.KEY_BUILDER_DEF.buildKey("d" + i));
+            def.setActive(true);
+            def.setRules(new RecurrenceRule[]{dailyRule("r" + i, 6 + i % 12)});
+            defs.add(def);
+        }
+        planner = new TodayPlannerService(
+                indexService,
+                new ModelDayService(indexService),
+                new FixedDefinitions(defs),
+                (day, def, rule) -> false,
+                new PlannerService(new NoStore())
+        );
+        user = X_Model.newKey("user", "bench");
+        from = indexService.today();
+        to = DayIndex.of(from.getDayNum() + days - 1);
+        // compile the RulePlan and warm the ModelDay cache; both are reused across calls
+        planner.ensureRange(user, from, to);
+    }
+
+    private static RecurrenceRule dailyRule(String id, int hour) {
+        final RecurrenceRule rule = X_Model.create(RecurrenceRule.class);
+        rule.setKey(RecurrenceRule.KEY_BUILDER_RULE.buildKey(id));
+        rule.setRuleId(id);
+        rule.setActive(true);
+        rule.setAutoMaterialize(true);
+        final TimeAnchor anchor = X_Model.create(TimeAnchor.class);
+        anchor.setKind(TimeAnchorKind.DAILY);
+        anchor.setHour(hour);
+        anchor.setMinute(0);
+        rule.setAnchor(anchor);
+        final ModelDuration cadence = X_Model.create(ModelDuration.class);
+        cadence.setAmount(1);
+        cadence.setUnit(DurationUnit.DAY);
+        rule.setCadence(cadence);
+        return rule;
+    }
+
+    @Benchmark
+    public RangePlan ensureRange() {
+        return planner.ensureRange(user, from, to);
+    }
+
+    /// Versioned, so the compiled RulePlan is reused rather than rebuilt per call.
+    private static final class FixedDefinitions implements QuestDefinitionSource {
+        private final List<QuestDefinition> definitions;
+
+        private FixedDefinitions(List<QuestDefinition> definitions) {
+            this.definitions = definitions;
+        }
+
+        @Override
+        public Iterable<QuestDefinition> findDefinitionsForUser(ModelKey userKey) {
+            return definitions;
+        }
+
+        @Override
+        public long getDefinitionsVersion(ModelKey userKey) {
+            return 1;
+        }
+    }
+
+    /// ensureRange must never reach the store.
+    private static final class NoStore implements LiveQuestStore {
+        @Override
+        public LiveQuest findByDayAndLiveKey(ModelDay day, String liveKey) {
+            throw new UnsupportedOperationException("ensureRange read the store");
+        }
+
+        @Override
+        public LiveQuest createLiveQuest(ModelDay day, QuestDefinition questDefinition, RecurrenceRule rule, long deadlineMillis, boolean skip) {
+            throw new UnsupportedOperationException("ensureRange created a LiveQuest");
+        }
+
+        @Override
+        public LiveQuest save(LiveQuest quest) {
+            throw new UnsupportedOperationException("ensureRange wrote the store");
+        }
+
+        @Override
+        public LiveQuest saveIfAbsent(ModelDay day, LiveQuest candidate) {
+            throw new UnsupportedOperationException("ensureRange wrote the store");
+        }
+    }
+}
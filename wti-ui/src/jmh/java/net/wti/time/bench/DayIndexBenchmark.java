@@ -0,0 +1,112 @@
+package net.wti.time.bench;
+
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.DurationUnit;
+import net.wti.time.api.ModelDay;
+import net.wti.time.api.ModelDuration;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.ModelDayService;
+import net.wti.time.impl.ModelDurationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xapi.model.X_Model;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.concurrent.TimeUnit;
+
+/// DayIndexBenchmark
+///
+/// Measures the DayIndex hot paths: interned `of` / `plusDays`, and the primitive-int APIs
+/// on DayIndexService, ModelDayService and ModelDurationUtil.
+///
+/// Run with the GC profiler (`gradle :wti-ui-jmh:jmh -Pjmh.args='-prof gc'`); every benchmark
+/// here should report a `gc.alloc.rate.norm` of ~0 B/op. `newDayIndexBaseline` allocates on
+/// purpose, as a reference point (16 B/op with compressed oops, unless escape analysis removes it).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 16:30
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayIndexBenchmark {
+
+    private static final int DAYS = 1024;
+
+    private DayIndexService indexService;
+    private ModelDayService dayService;
+    private TimeZoneInfo zone;
+    private ModelDuration weekly;
+    private int today;
+    private long now;
+    private int cursor;
+    /// Kept outside the interned window, so the baseline really allocates.
+    private int farDay;
+
+    @Setup
+    public void setup() {
+        zone = new TimeZoneInfo("America/New_York", "Eastern", -5 * 3600000, true);
+        indexService = new DayIndexService(zone, 4);
+        dayService = new ModelDayService(indexService, DAYS * 2);
+        weekly = X_Model.create(ModelDuration.class);
+        weekly.setAmount(1);
+        weekly.setUnit(DurationUnit.WEEK);
+        today = indexService.todayNum();
+        now = System.currentTimeMillis();
+        farDay = DayIndex.CACHE_CENTER + DayIndex.CACHE_RADIUS + 1000;
+        // warm the ModelDay cache so the lookup benchmark measures hits only
+        for (int i = 0; i < DAYS; i++) {
+            dayService.getOrCreateModelDayNum(today + i, zone, 4);
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (DAYS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public DayIndex internedOf() {
+        return DayIndex.of(today + next());
+    }
+
+    @Benchmark
+    public DayIndex internedPlusDays() {
+        return DayIndex.of(today).plusDays(next());
+    }
+
+    @Benchmark
+    public int dayIndexHashCode() {
+        return DayIndex.of(today + next()).hashCode();
+    }
+
+    @Benchmark
+    public int computeLocalDayNum() {
+        return indexService.computeLocalDayNum(now + next() * 3600000L, zone, 4);
+    }
+
+    @Benchmark
+    public ModelDay modelDayHit() {
+        return dayService.getOrCreateModelDayNum(today + next(), zone, 4);
+    }
+
+    @Benchmark
+    public int durationAddDayNum() {
+        return ModelDurationUtil.add(today, weekly, next());
+    }
+
+    @Benchmark
+    public void newDayIndexBaseline(final Blackhole bh) {
+        bh.consume(DayIndex.of(farDay + next()));
+    }
+}
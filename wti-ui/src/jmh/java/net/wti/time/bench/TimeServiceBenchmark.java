@@ -0,0 +1,145 @@
+package net.wti.time.bench;
+
+import net.wti.time.api.DayIndex;
+import net.wti.time.api.ModelDay;
+import net.wti.time.api.TimeAnchor;
+import net.wti.time.api.TimeAnchorKind;
+import net.wti.time.impl.DayIndexService;
+import net.wti.time.impl.ModelDayService;
+import net.wti.time.impl.TimeAnchorUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xapi.model.X_Model;
+import xapi.time.api.TimeZoneInfo;
+
+import java.util.concurrent.TimeUnit;
+
+/// TimeServiceBenchmark
+///
+/// The net.wti.time paths every planner, rollover and view call goes through:
+/// local day-number / day-boundary math (single and bulk), ModelDay cache hits and misses, and anchor deadlines.
+///
+/// Parameterized over a fixed-offset zone and a DST zone, so a regression that only shows
+/// up around transition lookups is visible in the `zone` column of the results.
+///
+/// Run with `gradle :wti-ui-jmh:jmh`; results are written as JSON to
+/// `build/reports/jmh/results.json` (see wti-ui/src/jmh/gradle/body.end).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 18:50
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeServiceBenchmark {
+
+    private static final int DAYS = 1024;
+    private static final long HOUR = 3_600_000L;
+
+    @Param({"UTC", "America/New_York"})
+    public String zone;
+
+    private TimeZoneInfo tz;
+    private DayIndexService indexService;
+    /// Large enough to hold every day the hit benchmarks touch.
+    private ModelDayService warmDays;
+    /// Far smaller than the days it cycles through, so every lookup misses and evicts.
+    private ModelDayService coldDays;
+    private TimeAnchor anchor;
+    private ModelDay[] anchorDays;
+    /// Instants 7h apart, spanning most of a year from now; fed to the bulk conversion.
+    private long[] instants;
+    private int[] dayNums;
+    private int today;
+    private long now;
+    private int cursor;
+    private int coldCursor;
+
+    @Setup
+    public void setup() {
+        tz = "UTC".equals(zone)
+                ? new TimeZoneInfo("UTC", "UTC", 0, false)
+                : new TimeZoneInfo(zone, zone, -5 * 3600000, true);
+        indexService = new DayIndexService(tz, 4);
+        warmDays = new ModelDayService(indexService, DAYS * 2);
+        coldDays = new ModelDayService(indexService, 16);
+        today = indexService.todayNum();
+        now = System.currentTimeMillis();
+
+        anchor = X_Model.create(TimeAnchor.class);
+        anchor.setKind(TimeAnchorKind.DAILY);
+        anchor.setHour(9);
+        anchor.setMinute(30);
+
+        instants = new long[DAYS];
+        dayNums = new int[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            instants[i] = now + i * 7 * HOUR;
+        }
+
+        anchorDays = new ModelDay[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            // a year's worth of days either side of today, so DST transitions are included
+            anchorDays[i] = warmDays.getOrCreateModelDayNum(today - DAYS / 2 + i, tz, 4);
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (DAYS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public DayIndex computeLocalDayIndex() {
+        return indexService.computeLocalDayIndex(now + next() * 7 * HOUR, tz, 4);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public int[] computeLocalDayNums() {
+        indexService.computeLocalDayNums(instants, dayNums, tz, 4);
+        return dayNums;
+    }
+
+    @Benchmark
+    public long computeDayStart() {
+        return indexService.computeDayStart(today - DAYS / 2 + next(), tz, 4);
+    }
+
+    @Benchmark
+    public long computeDayEnd() {
+        return indexService.computeDayEnd(today - DAYS / 2 + next(), tz, 4);
+    }
+
+    @Benchmark
+    public ModelDay modelDayCacheHit() {
+        return warmDays.getOrCreateModelDayNum(today - DAYS / 2 + next(), tz, 4);
+    }
+
+    @Benchmark
+    public ModelDay modelDayCacheMiss() {
+        // walk forward through fresh days; the 16-entry cache never sees one twice
+        return coldDays.getOrCreateModelDayNum(today + (coldCursor++ & 0xFFFFF), tz, 4);
+    }
+
+    @Benchmark
+    public ModelDay modelDayFromMillis() {
+        return warmDays.getOrCreateModelDay((double) (now + (next() & 127) * 5 * HOUR), tz, 4);
+    }
+
+    @Benchmark
+    public long deadlineMillis() {
+        return TimeAnchorUtil.computeDeadlineMillis(anchorDays[next()], anchor);
+    }
+}
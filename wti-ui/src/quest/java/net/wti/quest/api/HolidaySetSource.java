@@ -0,0 +1,19 @@
+package net.wti.quest.api;
+
+/// HolidaySetSource
+///
+/// Resolves the named holiday sets referenced by ScheduleTemplate.getHolidaySetKeys.
+///
+/// Days are local day numbers (DayIndex numbering). Implementations that change a set must
+/// tell whoever caches compiled calendars (ScheduleCalendar.invalidateHolidaySet).
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 20:10
+public interface HolidaySetSource {
+
+    /// A source without any holidays.
+    HolidaySetSource NONE = (holidaySetKey, fromDay, toDay) -> new int[0];
+
+    /// Returns the holidays of the set `holidaySetKey` within `[fromDay, toDay]`, in any order;
+    /// an unknown key yields no days (null or empty).
+    int[] findHolidayDays(String holidaySetKey, int fromDay, int toDay);
+}
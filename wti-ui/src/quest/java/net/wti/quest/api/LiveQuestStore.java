@@ -1,13 +1,29 @@
 package net.wti.quest.api;
 
 import net.wti.time.api.ModelDay;
+import xapi.model.X_Model;
 import xapi.model.api.ModelKey;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /// LiveQuestStore
 ///
 /// Storage abstraction used by PlannerService:
 /// - find existing LiveQuest for a given day + LiveKey
 /// - create a new LiveQuest instance with required fields
+/// - batch variants (findLiveQuests / saveLiveQuests / saveLiveQuestsIfAbsent), so a whole day
+///   can be materialized with one read and one write; the defaults fall back to the single-item
+///   methods, so simple stores need not override them.
+/// - newLiveQuest: builds an instance without persisting it.
+/// - create-if-absent (saveIfAbsent / saveLiveQuestsIfAbsent): the only way PlannerService
+///   persists a new LiveQuest, so two concurrent materializations of the same (day, LiveKey)
+///   (e.g. the rollover timer and a UI ensureToday) agree on a single instance instead of
+///   the later write clobbering the first and any status change made in between.
+///   saveIfAbsent has no default: only the store can make it atomic.
 ///
 /// Concrete implementations can use X_Model or any other backing store.
 ///
@@ -48,6 +64,102 @@ public interface LiveQuestStore {
      */
     LiveQuest save(LiveQuest quest);
 
+    /**
+     * Finds the existing LiveQuests for the given ModelDay, for many liveKeys at once.
+     *
+     * Stores backed by a remote or persistent medium should override this with a single query.
+     *
+     * @param day      Parent ModelDay (not null).
+     * @param liveKeys LiveKeys to look up.
+     * @return liveKey -> existing LiveQuest; keys with no instance are absent.
+     */
+    default Map<String, LiveQuest> findLiveQuests(ModelDay day, Collection<String> liveKeys) {
+        final Map<String, LiveQuest> found = new HashMap<>();
+        for (String liveKey : liveKeys) {
+            final LiveQuest quest = findByDayAndLiveKey(day, liveKey);
+            if (quest != null) {
+                found.put(liveKey, quest);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Builds a new LiveQuest instance for (day, def, rule) WITHOUT persisting it;
+     * callers persist it afterwards through saveIfAbsent / saveLiveQuestsIfAbsent.
+     *
+     * The default creates a plain X_Model instance and never touches the store; the liveKey
+     * is left to the caller (PlannerService fills it in). Override to add store-specific fields.
+     */
+    default LiveQuest newLiveQuest(
+            ModelDay day,
+            QuestDefinition definition,
+            RecurrenceRule rule,
+            long deadlineMillis,
+            boolean skip
+    ) {
+        final LiveQuest quest = X_Model.create(LiveQuest.class);
+        quest.setParentDayKey(dayKey(day));
+        quest.setDayIndex(day.getDayNum());
+        quest.setSourceDefinitionKey(definition.getKey());
+        if (rule != null) {
+            quest.setSourceRuleKey(rule.getKey());
+        }
+        quest.setDeadlineMillis(deadlineMillis);
+        quest.setSkip(skip);
+        quest.setStatus(QuestStatus.ACTIVE);
+        final long now = System.currentTimeMillis();
+        quest.setCreatedAtMillis(now);
+        quest.setUpdatedAtMillis(now);
+        return quest;
+    }
+
+    /**
+     * Persists many LiveQuests (new or updated) at once.
+     *
+     * Stores backed by a remote or persistent medium should override this with a single write.
+     *
+     * @return the saved instances, in the order given.
+     */
+    default List<LiveQuest> saveLiveQuests(Collection<LiveQuest> quests) {
+        final List<LiveQuest> saved = new ArrayList<>(quests.size());
+        for (LiveQuest quest : quests) {
+            saved.add(save(quest));
+        }
+        return saved;
+    }
+
+    /**
+     * Persists `candidate` unless a LiveQuest already exists for (day, candidate.liveKey);
+     * either way, returns the instance that is stored.
+     *
+     * Implementations MUST make this atomic (a compare-and-set, unique constraint or lock keyed
+     * on (dayIndex, liveKey)): a find followed by a save lets two concurrent materializations
+     * both write, the later one clobbering the first.
+     *
+     * @param day       Parent ModelDay (not null).
+     * @param candidate New LiveQuest, with its liveKey set.
+     * @return the winning (stored) LiveQuest; `candidate` only if it was the one stored.
+     */
+    LiveQuest saveIfAbsent(ModelDay day, LiveQuest candidate);
+
+    /**
+     * Batch form of saveIfAbsent, for one day.
+     *
+     * The default calls saveIfAbsent per candidate, which keeps it atomic per LiveKey but costs
+     * one write each; stores backed by a remote or persistent medium should override this with
+     * a single conditional write.
+     *
+     * @return the winning LiveQuest for each candidate, in the order given.
+     */
+    default List<LiveQuest> saveLiveQuestsIfAbsent(ModelDay day, Collection<LiveQuest> candidates) {
+        final List<LiveQuest> saved = new ArrayList<>(candidates.size());
+        for (LiveQuest candidate : candidates) {
+            saved.add(saveIfAbsent(day, candidate));
+        }
+        return saved;
+    }
+
     /**
      * Helper to build the parent day key if the store needs it.
      */
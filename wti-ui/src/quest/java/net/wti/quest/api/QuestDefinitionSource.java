@@ -12,10 +12,22 @@ import xapi.model.api.ModelKey;
 /// Created by James X. Nelson (James@WeTheInter.net) on 08/12/2025 @ 01:43
 public interface QuestDefinitionSource {
 
+    /// Returned by getDefinitionsVersion when the source cannot tell whether anything changed.
+    long UNVERSIONED = -1;
+
     /// Returns all QuestDefinitions that should be considered for materialization
     /// for the given user.
     ///
     /// Implementations are free to apply additional filters (e.g. active only).
     Iterable<QuestDefinition> findDefinitionsForUser(ModelKey userKey);
 
+    /// Returns a stamp that changes whenever findDefinitionsForUser(userKey) would return
+    /// different definitions (or different rules / flags on them).
+    ///
+    /// TodayPlannerService compiles a RulePlan per user and only rebuilds it when this value
+    /// changes. The default, UNVERSIONED, means "unknown": the plan is rebuilt on every call.
+    default long getDefinitionsVersion(ModelKey userKey) {
+        return UNVERSIONED;
+    }
+
 }
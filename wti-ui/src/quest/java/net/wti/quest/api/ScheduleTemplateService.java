@@ -14,6 +14,9 @@ import net.wti.time.api.ModelDay;
 /// Created by James X. Nelson (James@WeTheInter.net) on 08/12/2025 @ 01:44
 public interface ScheduleTemplateService {
 
+    /// Returned by getSkipWeekdays when skipping cannot be expressed as a weekday mask.
+    int SKIP_DYNAMIC = -1;
+
     /// Returns true if the given (definition, rule) should be skipped on the given day.
     ///
     /// NOTE:
@@ -22,4 +25,23 @@ public interface ScheduleTemplateService {
     ///  - For now, TodayPlannerService always creates a LiveQuest and sets skip
     ///    according to this method. You can adjust that later.
     boolean shouldSkip(ModelDay day, QuestDefinition questDefinition, RecurrenceRule rule);
+
+    /// Optional fast path for compiled rule plans: a bit mask of the weekdays
+    /// (bit 0 = Sunday … bit 6 = Saturday) on which (definition, rule) is always skipped,
+    /// and never skipped otherwise.
+    ///
+    /// The mask is captured when the plan is compiled, so only return one if it stays valid
+    /// until the definitions or getTemplatesVersion change. The default, SKIP_DYNAMIC, makes
+    /// the planner call shouldSkip for every day instead.
+    default int getSkipWeekdays(QuestDefinition questDefinition, RecurrenceRule rule) {
+        return SKIP_DYNAMIC;
+    }
+
+    /// A number that changes whenever a mask returned by getSkipWeekdays may have changed
+    /// (a template edited, a holiday set changed); compiled rule plans are rebuilt when it does.
+    ///
+    /// The default, a constant, suits services whose masks never change.
+    default long getTemplatesVersion() {
+        return 0L;
+    }
 }
@@ -1,7 +1,6 @@
 package net.wti.time.api;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 /// DayIndex
 ///
@@ -14,6 +13,12 @@ import java.util.Objects;
 ///
 /// This is a value type - immutable and comparable.
 ///
+/// Instances within CACHE_RADIUS days of the day this class was loaded are interned:
+/// `of`, `plusDays` and `minusDays` return the shared instance instead of allocating,
+/// so hot loops over nearby days create no garbage. The radius defaults to 4096 days,
+/// and can be set with the `wti.dayIndex.cacheRadius` system property (0 disables interning).
+/// Interned or not, compare with `equals`, never `==`.
+///
 /// Created by James X. Nelson (James@WeTheInter.net) on 2025-11-18
 public final class DayIndex implements Serializable, Comparable<DayIndex> {
     private static final long serialVersionUID = 1L;
@@ -24,21 +29,44 @@ public final class DayIndex implements Serializable, Comparable<DayIndex> {
     /// Epoch millis for 2025-10-10 00:00:00 UTC
     public static final long EPOCH_MILLIS = 1760140800000L;
 
+    /// How many days either side of CACHE_CENTER are interned.
+    public static final int CACHE_RADIUS = Math.max(0, Integer.getInteger("wti.dayIndex.cacheRadius", 4096));
+
+    /// The day number this class was loaded on (UTC); the middle of the interned window.
+    public static final int CACHE_CENTER = (int) Math.floorDiv(System.currentTimeMillis() - EPOCH_MILLIS, 86400000L);
+
+    /// Filled lazily; instances are immutable, so a racy fill at worst creates a duplicate.
+    private static final DayIndex[] CACHE = new DayIndex[CACHE_RADIUS * 2 + 1];
+
     private final int dayNum;
 
     private DayIndex(int dayNum) {
         this.dayNum = dayNum;
     }
 
-    /// Creates a DayIndex from a day number.
+    /// Returns the DayIndex for a day number (interned if within the cached window).
     /// @param dayNum number of days since epoch (can be negative)
     public static DayIndex of(int dayNum) {
-        return new DayIndex(dayNum);
+        final long slot = (long) dayNum - CACHE_CENTER + CACHE_RADIUS;
+        if (slot < 0 || slot >= CACHE.length) {
+            return new DayIndex(dayNum);
+        }
+        DayIndex cached = CACHE[(int) slot];
+        if (cached == null) {
+            cached = new DayIndex(dayNum);
+            CACHE[(int) slot] = cached;
+        }
+        return cached;
+    }
+
+    /// Returns true if `dayNum` lies within the interned window.
+    public static boolean isCached(int dayNum) {
+        return Math.abs((long) dayNum - CACHE_CENTER) <= CACHE_RADIUS;
     }
 
     /// Returns DayIndex for the epoch date (2025-10-10).
     public static DayIndex epoch() {
-        return new DayIndex(0);
+        return of(0);
     }
 
     /// Returns the day number (signed int).
@@ -46,14 +74,14 @@ public final class DayIndex implements Serializable, Comparable<DayIndex> {
         return dayNum;
     }
 
-    /// Returns a new DayIndex offset by the specified number of days.
+    /// Returns the DayIndex offset by the specified number of days.
     public DayIndex plusDays(int days) {
-        return new DayIndex(dayNum + days);
+        return days == 0 ? this : of(dayNum + days);
     }
 
-    /// Returns a new DayIndex offset by the specified number of days (negative).
+    /// Returns the DayIndex offset by the specified number of days (negative).
     public DayIndex minusDays(int days) {
-        return new DayIndex(dayNum - days);
+        return days == 0 ? this : of(dayNum - days);
     }
 
     /// Computes the number of days between this and another DayIndex.
@@ -73,7 +101,7 @@ public final class DayIndex implements Serializable, Comparable<DayIndex> {
 
     @Override
     public int compareTo(DayIndex other) {
-        return Long.compare(dayNum, other.dayNum);
+        return Integer.compare(dayNum, other.dayNum);
     }
 
     @Override
@@ -86,7 +114,7 @@ public final class DayIndex implements Serializable, Comparable<DayIndex> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(dayNum);
+        return dayNum;
     }
 
     @Override
@@ -94,6 +122,11 @@ public final class DayIndex implements Serializable, Comparable<DayIndex> {
         return "DayIndex{" + dayNum + "}";
     }
 
+    /// Deserialized instances are swapped for the interned one (when in the cached window).
+    private Object readResolve() {
+        return of(dayNum);
+    }
+
     /// Returns the key prefix for this day in the splaying scheme.
     /// Format: "dy/{DayNum}"
     public String toKeyPrefix() {
@@ -165,27 +165,25 @@ public interface ModelDay extends Model {
         return zone().getId();
     }
 
-    /// Returns the TimeComponents for the start of this day.
+    /// Returns the TimeComponents for the start of this day (shared via TimeComponentsCache; read-only).
     xapi.time.api.TimeComponents getStartComponents();
     void setStartComponents(TimeComponents startComponents);
     default TimeComponents startComponents() {
         TimeComponents tc = getStartComponents();
         if (tc == null) {
-            // TODO: use a cache
-            tc = new TimeComponents(startTimestamp(), zone());
+            tc = TimeComponentsCache.shared().at(startTimestamp(), zone());
             setStartComponents(tc);
         }
         return tc;
     }
 
-    /// Returns the TimeComponents for the end of this day.
+    /// Returns the TimeComponents for the end of this day (shared via TimeComponentsCache; read-only).
     TimeComponents getEndComponents();
     void setEndComponents(TimeComponents endComponents);
     default TimeComponents endComponents() {
         TimeComponents tc = getEndComponents();
         if (tc == null) {
-            // TODO: use a cache
-            tc = new TimeComponents(endTimestamp(), zone());
+            tc = TimeComponentsCache.shared().at(endTimestamp(), zone());
             setEndComponents(tc);
         }
         return tc;
@@ -0,0 +1,147 @@
+package net.wti.time.api;
+
+import xapi.time.api.TimeComponents;
+import xapi.time.api.TimeZoneInfo;
+
+/// TimeComponentsCache
+///
+/// A bounded, zone-aware flyweight cache of TimeComponents, so a breakdown is computed once
+/// per distinct (zone, instant) instead of once per row per refresh.
+///
+/// - `minute(millis, zone)` returns the components of the minute containing `millis`
+///   (keyed by the minute-truncated millis); use it when only minute-or-coarser fields
+///   (year, day, hour, minute) are read, e.g. to bucket rows by hour or date.
+/// - `at(millis, zone)` returns the components of exactly `millis`.
+///
+/// The table is direct-mapped: each (zone, millis) hashes to one slot, and a new entry simply
+/// replaces whatever was in its slot. Entries are immutable, so lookups take no locks; a race
+/// can at worst compute the same breakdown twice. TimeComponents instances are shared, so
+/// callers must treat them as read-only.
+///
+/// Zones are matched by identity, or by id plus the same offsets at two reference instants (so
+/// two TimeZoneInfo instances with the same id but different rules never share a breakdown).
+/// That comparison is made once per pair of instances and remembered in a small direct-mapped
+/// table, so a hit never asks the zone for an offset.
+///
+/// Created by James X. Nelson (James@WeTheInter.net) on 17/10/2026 @ 15:40
+public final class TimeComponentsCache {
+
+    public static final int DEFAULT_SIZE = 2048;
+    static final long MINUTE_MILLIS = 60000L;
+    static final int ALIAS_SLOTS = 64;
+
+    private static final TimeComponentsCache SHARED = new TimeComponentsCache(DEFAULT_SIZE);
+
+    /// @return the process-wide cache.
+    public static TimeComponentsCache shared() {
+        return SHARED;
+    }
+
+    private final Entry[] slots;
+    private final int mask;
+    /// Verified (cached zone, other zone) pairs with the same id; see sameZone.
+    private final ZoneAlias[] aliases = new ZoneAlias[ALIAS_SLOTS];
+    private int zoneChecks;
+
+    public TimeComponentsCache(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive, got: " + size);
+        }
+        final int tableSize = Integer.highestOneBit(Math.max(2, size) * 2 - 1);
+        this.slots = new Entry[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /// @return the (shared) TimeComponents of the minute containing `epochMillis`.
+    public TimeComponents minute(final long epochMillis, final TimeZoneInfo zone) {
+        return at(Math.floorDiv(epochMillis, MINUTE_MILLIS) * MINUTE_MILLIS, zone);
+    }
+
+    /// @return the (shared) TimeComponents of exactly `epochMillis`.
+    public TimeComponents at(final long epochMillis, final TimeZoneInfo zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone cannot be null");
+        }
+        final int slot = slotOf(epochMillis, zone.getId());
+        final Entry entry = slots[slot];
+        if (entry != null && entry.millis == epochMillis && sameZone(entry.zone, zone)) {
+            return entry.components;
+        }
+        final TimeComponents components = new TimeComponents(epochMillis, zone);
+        slots[slot] = new Entry(epochMillis, zone, components);
+        return components;
+    }
+
+    /// @return how many entries the table can hold.
+    public int capacity() {
+        return slots.length;
+    }
+
+    /// Drops every entry (for tests, or after a tz database update).
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+    }
+
+    /// @return how many times two distinct same-id zone instances had their offsets compared
+    /// (for tests).
+    int getZoneChecks() {
+        return zoneChecks;
+    }
+
+    private boolean sameZone(final TimeZoneInfo cached, final TimeZoneInfo other) {
+        if (cached == other) {
+            return true;
+        }
+        if (!cached.getId().equals(other.getId())) {
+            return false;
+        }
+        final int slot = (System.identityHashCode(cached) * 31 + System.identityHashCode(other)) & (ALIAS_SLOTS - 1);
+        final ZoneAlias alias = aliases[slot];
+        if (alias != null && alias.cached == cached && alias.other == other) {
+            return alias.same;
+        }
+        zoneChecks++;
+        final boolean same = signatureOf(cached) == signatureOf(other);
+        aliases[slot] = new ZoneAlias(cached, other, same);
+        return same;
+    }
+
+    /// The offsets at the epoch and half a year later (as ZoneTransitions uses to share tables).
+    private static long signatureOf(final TimeZoneInfo zone) {
+        final long winter = zone.getOffsetAt(DayIndex.EPOCH_MILLIS);
+        final long summer = zone.getOffsetAt(DayIndex.EPOCH_MILLIS + 183L * 86400000L);
+        return (winter << 32) ^ (summer & 0xffffffffL);
+    }
+
+    private int slotOf(final long epochMillis, final String zoneId) {
+        // minutes are the common key, so spread the bits above the millisecond range
+        final long h = (epochMillis / MINUTE_MILLIS + epochMillis % MINUTE_MILLIS * 31 + zoneId.hashCode()) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static final class Entry {
+        private final long millis;
+        private final TimeZoneInfo zone;
+        private final TimeComponents components;
+
+        private Entry(final long millis, final TimeZoneInfo zone, final TimeComponents components) {
+            this.millis = millis;
+            this.zone = zone;
+            this.components = components;
+        }
+    }
+
+    private static final class ZoneAlias {
+        private final TimeZoneInfo cached;
+        private final TimeZoneInfo other;
+        private final boolean same;
+
+        private ZoneAlias(final TimeZoneInfo cached, final TimeZoneInfo other, final boolean same) {
+            this.cached = cached;
+            this.other = other;
+            this.same = same;
+        }
+    }
+}